@@ -42,18 +42,63 @@ import java.util.Optional;
 public abstract class AFeatureModelElement implements IFeatureModelElement, IMutatableAttributable {
     protected final IFeatureModel featureModel;
     protected final IIdentifier identifier;
-    protected final LinkedHashMap<IAttribute<?>, Object> attributeValues;
+    protected LinkedHashMap<IAttribute<?>, Object> attributeValues;
+    protected boolean sharedAttributeValues;
 
     public AFeatureModelElement(IFeatureModel featureModel) {
+        this(featureModel, featureModel.getNewIdentifier());
+    }
+
+    /**
+     * Creates an element without any attribute values.
+     * The attribute map is only allocated when the first attribute value is set.
+     *
+     * @param featureModel the feature model
+     * @param identifier the identifier
+     */
+    protected AFeatureModelElement(IFeatureModel featureModel, IIdentifier identifier) {
         this.featureModel = Objects.requireNonNull(featureModel);
-        identifier = featureModel.getNewIdentifier();
-        attributeValues = new LinkedHashMap<>(4);
+        this.identifier = Objects.requireNonNull(identifier);
     }
 
     protected AFeatureModelElement(AFeatureModelElement otherElement, IFeatureModel featureModel) {
+        this(otherElement, featureModel, false);
+    }
+
+    /**
+     * Copies an element into another feature model.
+     * A value-sharing copy keeps the identifier of the given element and shares its attribute values
+     * until either element is mutated.
+     * Otherwise, the copy gets a new identifier and a deep copy of all attribute values.
+     *
+     * @param otherElement the element to copy
+     * @param featureModel the feature model of the copy
+     * @param shareValues whether to create a value-sharing copy
+     */
+    protected AFeatureModelElement(
+            AFeatureModelElement otherElement, IFeatureModel featureModel, boolean shareValues) {
         this.featureModel = featureModel;
-        identifier = otherElement.getNewIdentifier();
-        attributeValues = otherElement.cloneAttributes();
+        if (shareValues) {
+            identifier = otherElement.identifier;
+            attributeValues = otherElement.attributeValues;
+            sharedAttributeValues = true;
+            otherElement.sharedAttributeValues = true;
+        } else {
+            identifier = otherElement.getNewIdentifier();
+            attributeValues = otherElement.cloneAttributes();
+        }
+    }
+
+    /**
+     * {@return the attribute values of this element, copying them first if they are shared with another element}
+     */
+    protected Map<IAttribute<?>, Object> getMutableAttributeValues() {
+        prepareChange();
+        if (sharedAttributeValues || attributeValues == null) {
+            attributeValues = cloneAttributes();
+            sharedAttributeValues = false;
+        }
+        return attributeValues;
     }
 
     @Override
@@ -63,7 +108,8 @@ public abstract class AFeatureModelElement implements IFeatureModelElement, IMut
 
     @Override
     public Optional<Map<IAttribute<?>, Object>> getAttributes() {
-        return Optional.of(Collections.unmodifiableMap(attributeValues));
+        return Optional.of(
+                attributeValues == null ? Collections.emptyMap() : Collections.unmodifiableMap(attributeValues));
     }
 
     @Override
@@ -74,13 +120,53 @@ public abstract class AFeatureModelElement implements IFeatureModelElement, IMut
         }
         checkType(attribute, value);
         validate(attribute, value);
-        attributeValues.put(attribute, value);
+        Object oldValue = getMutableAttributeValues().put(attribute, value);
+        attributeValueChanged(attribute, oldValue, value);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <S> S removeAttributeValue(Attribute<S> attribute) {
-        return (S) attributeValues.remove(attribute);
+        S oldValue = (S) getMutableAttributeValues().remove(attribute);
+        if (oldValue != null) {
+            attributeValueChanged(attribute, oldValue, null);
+        }
+        return oldValue;
+    }
+
+    /**
+     * Sets an attribute value without type checking or validation, and records the change.
+     *
+     * @param attribute the attribute
+     * @param value the value
+     * @return the previous value, if any
+     */
+    protected Object putAttributeValue(IAttribute<?> attribute, Object value) {
+        Object oldValue = getMutableAttributeValues().put(attribute, value);
+        attributeValueChanged(attribute, oldValue, value);
+        return oldValue;
+    }
+
+    /**
+     * Lets the feature model materialize its pending value-sharing clones before this element is changed.
+     */
+    protected void prepareChange() {
+        if (featureModel instanceof FeatureModel) {
+            ((FeatureModel) featureModel).prepareChange();
+        }
+    }
+
+    /**
+     * Records a change of an attribute value in the {@link FeatureModelJournal journal} of the feature model.
+     *
+     * @param attribute the attribute
+     * @param oldValue the previous value, if any
+     * @param newValue the new value, if any
+     */
+    protected void attributeValueChanged(IAttribute<?> attribute, Object oldValue, Object newValue) {
+        if (featureModel instanceof FeatureModel) {
+            ((FeatureModel) featureModel).attributeValueChanged(this, attribute, oldValue, newValue);
+        }
     }
 
     @Override
@@ -0,0 +1,808 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import de.featjar.base.data.IAttribute;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Stores attribute values of many elements column by column, indexed by a dense element index.
+ * Each column is split into chunks of {@value Column#CHUNK_SIZE} consecutive elements.
+ * Boolean values are stored in bit sets, integer, long and double values in primitive arrays,
+ * and strings as references into a string table per chunk.
+ * All other values, as well as {@link Attributes#NAME names}, which are unique and gain nothing from a string table,
+ * are stored as objects.
+ * Columns and their chunks can be shared between stores.
+ * The first write to a shared column copies only the chunk that is written, not the whole column,
+ * so writing a few values of a {@link #cloneSharingValues() value-sharing clone} takes time independent of
+ * the number of elements.
+ * Columns of {@link Attributes#get(String, String, Class) registered} attributes are looked up
+ * in an array by {@link Attributes#getID(IAttribute) attribute ID},
+ * all other columns in a hash map.
+ */
+public class AttributeStore {
+
+    /**
+     * Stores the values of up to {@link Column#CHUNK_SIZE} consecutive elements of a column.
+     * A chunk that is shared between columns is copied before it is written.
+     */
+    protected abstract static class Chunk {
+        protected long[] present = new long[Column.CHUNK_SIZE >>> 6];
+        protected boolean shared;
+
+        protected boolean isPresent(int offset) {
+            return (present[offset >>> 6] & (1L << offset)) != 0;
+        }
+
+        protected void setPresent(int offset) {
+            present[offset >>> 6] |= 1L << offset;
+        }
+
+        protected abstract Object get(int offset);
+
+        protected abstract void set(int offset, Object value);
+
+        protected void clear(int offset) {
+            present[offset >>> 6] &= ~(1L << offset);
+        }
+
+        protected abstract Chunk copy();
+
+        protected static int capacity(int length, int offset) {
+            return Math.min(Column.CHUNK_SIZE, Math.max(Math.max(16, offset + 1), length + (length >> 1)));
+        }
+    }
+
+    protected static final class BooleanChunk extends Chunk {
+        private long[] values = new long[Column.CHUNK_SIZE >>> 6];
+
+        @Override
+        protected Object get(int offset) {
+            return (values[offset >>> 6] & (1L << offset)) != 0;
+        }
+
+        @Override
+        protected void set(int offset, Object value) {
+            if ((Boolean) value) {
+                values[offset >>> 6] |= 1L << offset;
+            } else {
+                values[offset >>> 6] &= ~(1L << offset);
+            }
+            setPresent(offset);
+        }
+
+        @Override
+        protected void clear(int offset) {
+            values[offset >>> 6] &= ~(1L << offset);
+            super.clear(offset);
+        }
+
+        @Override
+        protected BooleanChunk copy() {
+            BooleanChunk chunk = new BooleanChunk();
+            chunk.present = present.clone();
+            chunk.values = values.clone();
+            return chunk;
+        }
+    }
+
+    protected static final class IntChunk extends Chunk {
+        private int[] values = new int[0];
+
+        @Override
+        protected Object get(int offset) {
+            return values[offset];
+        }
+
+        @Override
+        protected void set(int offset, Object value) {
+            if (offset >= values.length) values = Arrays.copyOf(values, capacity(values.length, offset));
+            values[offset] = (Integer) value;
+            setPresent(offset);
+        }
+
+        @Override
+        protected IntChunk copy() {
+            IntChunk chunk = new IntChunk();
+            chunk.present = present.clone();
+            chunk.values = values.clone();
+            return chunk;
+        }
+    }
+
+    protected static final class LongChunk extends Chunk {
+        private long[] values = new long[0];
+
+        @Override
+        protected Object get(int offset) {
+            return values[offset];
+        }
+
+        @Override
+        protected void set(int offset, Object value) {
+            if (offset >= values.length) values = Arrays.copyOf(values, capacity(values.length, offset));
+            values[offset] = (Long) value;
+            setPresent(offset);
+        }
+
+        @Override
+        protected LongChunk copy() {
+            LongChunk chunk = new LongChunk();
+            chunk.present = present.clone();
+            chunk.values = values.clone();
+            return chunk;
+        }
+    }
+
+    protected static final class DoubleChunk extends Chunk {
+        private double[] values = new double[0];
+
+        @Override
+        protected Object get(int offset) {
+            return values[offset];
+        }
+
+        @Override
+        protected void set(int offset, Object value) {
+            if (offset >= values.length) values = Arrays.copyOf(values, capacity(values.length, offset));
+            values[offset] = (Double) value;
+            setPresent(offset);
+        }
+
+        @Override
+        protected DoubleChunk copy() {
+            DoubleChunk chunk = new DoubleChunk();
+            chunk.present = present.clone();
+            chunk.values = values.clone();
+            return chunk;
+        }
+    }
+
+    /**
+     * Stores strings as references into a table of distinct strings.
+     * Each table entry counts its references, so strings that are no longer referenced are dropped
+     * and their slots are reused.
+     * The table belongs to the chunk, so copying a chunk copies at most {@link Column#CHUNK_SIZE} strings.
+     */
+    protected static final class StringChunk extends Chunk {
+        private int[] values = new int[0];
+        private String[] strings = new String[0];
+        private int[] counts = new int[0];
+        private int numberOfSlots;
+        private int[] freeSlots = new int[0];
+        private int numberOfFreeSlots;
+        private HashMap<String, Integer> stringIndex = new HashMap<>();
+
+        @Override
+        protected Object get(int offset) {
+            return strings[values[offset]];
+        }
+
+        @Override
+        protected void set(int offset, Object value) {
+            if (offset >= values.length) values = Arrays.copyOf(values, capacity(values.length, offset));
+            Integer slot = stringIndex.get(value);
+            if (slot == null) {
+                slot = newSlot((String) value);
+            }
+            counts[slot]++;
+            if (isPresent(offset)) {
+                release(values[offset]);
+            }
+            values[offset] = slot;
+            setPresent(offset);
+        }
+
+        @Override
+        protected void clear(int offset) {
+            if (isPresent(offset)) {
+                release(values[offset]);
+                super.clear(offset);
+            }
+        }
+
+        private int newSlot(String string) {
+            int slot;
+            if (numberOfFreeSlots > 0) {
+                slot = freeSlots[--numberOfFreeSlots];
+            } else {
+                slot = numberOfSlots++;
+                if (slot >= strings.length) {
+                    int length = capacity(strings.length, slot);
+                    strings = Arrays.copyOf(strings, length);
+                    counts = Arrays.copyOf(counts, length);
+                }
+            }
+            strings[slot] = string;
+            stringIndex.put(string, slot);
+            return slot;
+        }
+
+        private void release(int slot) {
+            if (--counts[slot] == 0) {
+                stringIndex.remove(strings[slot]);
+                strings[slot] = null;
+                if (numberOfFreeSlots == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, capacity(freeSlots.length, numberOfFreeSlots));
+                }
+                freeSlots[numberOfFreeSlots++] = slot;
+            }
+        }
+
+        @Override
+        protected StringChunk copy() {
+            StringChunk chunk = new StringChunk();
+            chunk.present = present.clone();
+            chunk.values = values.clone();
+            chunk.strings = strings.clone();
+            chunk.counts = counts.clone();
+            chunk.numberOfSlots = numberOfSlots;
+            chunk.freeSlots = freeSlots.clone();
+            chunk.numberOfFreeSlots = numberOfFreeSlots;
+            chunk.stringIndex = new HashMap<>(stringIndex);
+            return chunk;
+        }
+    }
+
+    protected static final class ObjectChunk extends Chunk {
+        private Object[] values = new Object[0];
+
+        @Override
+        protected Object get(int offset) {
+            return values[offset];
+        }
+
+        @Override
+        protected void set(int offset, Object value) {
+            if (offset >= values.length) values = Arrays.copyOf(values, capacity(values.length, offset));
+            values[offset] = value;
+            setPresent(offset);
+        }
+
+        @Override
+        protected void clear(int offset) {
+            values[offset] = null;
+            super.clear(offset);
+        }
+
+        @Override
+        protected ObjectChunk copy() {
+            ObjectChunk chunk = new ObjectChunk();
+            chunk.present = present.clone();
+            chunk.values = values.clone();
+            return chunk;
+        }
+    }
+
+    /**
+     * Stores the values of a single attribute in chunks, which are allocated when they are first written.
+     * A column that is shared between stores is copied before it is written,
+     * which only copies the references to its chunks.
+     */
+    protected abstract static class Column {
+        protected static final int CHUNK_SIZE = 1024;
+        private static final int CHUNK_BITS = Integer.numberOfTrailingZeros(CHUNK_SIZE);
+
+        protected Chunk[] chunks = new Chunk[0];
+        protected boolean shared;
+
+        protected boolean isPresent(int index) {
+            Chunk chunk = getChunk(index);
+            return chunk != null && chunk.isPresent(index & (CHUNK_SIZE - 1));
+        }
+
+        protected Object get(int index) {
+            Chunk chunk = getChunk(index);
+            int offset = index & (CHUNK_SIZE - 1);
+            return chunk != null && chunk.isPresent(offset) ? chunk.get(offset) : null;
+        }
+
+        protected void set(int index, Object value) {
+            getMutableChunk(index).set(index & (CHUNK_SIZE - 1), value);
+        }
+
+        protected void clear(int index) {
+            if (isPresent(index)) {
+                getMutableChunk(index).clear(index & (CHUNK_SIZE - 1));
+            }
+        }
+
+        private Chunk getChunk(int index) {
+            int chunkIndex = index >>> CHUNK_BITS;
+            return chunkIndex < chunks.length ? chunks[chunkIndex] : null;
+        }
+
+        private Chunk getMutableChunk(int index) {
+            int chunkIndex = index >>> CHUNK_BITS;
+            if (chunkIndex >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, Math.max(chunkIndex + 1, chunks.length + (chunks.length >> 1)));
+            }
+            Chunk chunk = chunks[chunkIndex];
+            if (chunk == null) {
+                chunk = newChunk();
+                chunks[chunkIndex] = chunk;
+            } else if (chunk.shared) {
+                chunk = chunk.copy();
+                chunks[chunkIndex] = chunk;
+            }
+            return chunk;
+        }
+
+        protected abstract Chunk newChunk();
+
+        protected abstract Column newColumn();
+
+        /**
+         * {@return a copy of this column that shares all chunks with this column until they are written}
+         */
+        protected Column copy() {
+            Column column = newColumn();
+            column.chunks = chunks.clone();
+            for (Chunk chunk : chunks) {
+                if (chunk != null) chunk.shared = true;
+            }
+            return column;
+        }
+
+        protected static int capacity(int length, int index) {
+            return Math.max(Math.max(16, index + 1), length + (length >> 1));
+        }
+    }
+
+    protected static final class BooleanColumn extends Column {
+        @Override
+        protected BooleanChunk newChunk() {
+            return new BooleanChunk();
+        }
+
+        @Override
+        protected BooleanColumn newColumn() {
+            return new BooleanColumn();
+        }
+    }
+
+    protected static final class IntColumn extends Column {
+        @Override
+        protected IntChunk newChunk() {
+            return new IntChunk();
+        }
+
+        @Override
+        protected IntColumn newColumn() {
+            return new IntColumn();
+        }
+    }
+
+    protected static final class LongColumn extends Column {
+        @Override
+        protected LongChunk newChunk() {
+            return new LongChunk();
+        }
+
+        @Override
+        protected LongColumn newColumn() {
+            return new LongColumn();
+        }
+    }
+
+    protected static final class DoubleColumn extends Column {
+        @Override
+        protected DoubleChunk newChunk() {
+            return new DoubleChunk();
+        }
+
+        @Override
+        protected DoubleColumn newColumn() {
+            return new DoubleColumn();
+        }
+    }
+
+    protected static final class StringColumn extends Column {
+        @Override
+        protected StringChunk newChunk() {
+            return new StringChunk();
+        }
+
+        @Override
+        protected StringColumn newColumn() {
+            return new StringColumn();
+        }
+
+        /**
+         * {@return the number of distinct strings in this column, counted once per chunk they occur in}
+         */
+        protected int getNumberOfStrings() {
+            int numberOfStrings = 0;
+            for (Chunk chunk : chunks) {
+                if (chunk != null) numberOfStrings += ((StringChunk) chunk).stringIndex.size();
+            }
+            return numberOfStrings;
+        }
+    }
+
+    protected static final class ObjectColumn extends Column {
+        @Override
+        protected ObjectChunk newChunk() {
+            return new ObjectChunk();
+        }
+
+        @Override
+        protected ObjectColumn newColumn() {
+            return new ObjectColumn();
+        }
+    }
+
+    /**
+     * A map view on all attribute values of a single element.
+     */
+    protected final class Row extends AbstractMap<IAttribute<?>, Object> {
+        private final int index;
+        private final boolean mutable;
+
+        private Row(int index, boolean mutable) {
+            this.index = index;
+            this.mutable = mutable;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return key instanceof IAttribute ? AttributeStore.this.get(index, (IAttribute<?>) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Object put(IAttribute<?> key, Object value) {
+            if (!mutable) throw new UnsupportedOperationException();
+            return AttributeStore.this.set(index, key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            if (!mutable) throw new UnsupportedOperationException();
+            return key instanceof IAttribute ? AttributeStore.this.remove(index, (IAttribute<?>) key) : null;
+        }
+
+        @Override
+        public Set<Entry<IAttribute<?>, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<IAttribute<?>, Object>> iterator() {
+                    Column[] columns = AttributeStore.this.columns;
+                    IAttribute<?>[] attributes = AttributeStore.this.attributes;
+                    Iterator<Entry<IAttribute<?>, Column>> otherColumns =
+                            new ArrayList<>(AttributeStore.this.otherColumns.entrySet()).iterator();
+                    return new Iterator<>() {
+                        private int id;
+                        private Entry<IAttribute<?>, Object> next = advance();
+
+                        private Entry<IAttribute<?>, Object> advance() {
+                            while (id < columns.length) {
+                                Column column = columns[id];
+                                IAttribute<?> attribute = attributes[id++];
+                                if (column != null && column.isPresent(index)) {
+                                    return new SimpleImmutableEntry<>(attribute, column.get(index));
+                                }
+                            }
+                            while (otherColumns.hasNext()) {
+                                Entry<IAttribute<?>, Column> entry = otherColumns.next();
+                                if (entry.getValue().isPresent(index)) {
+                                    return new SimpleImmutableEntry<>(
+                                            entry.getKey(), entry.getValue().get(index));
+                                }
+                            }
+                            return null;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next != null;
+                        }
+
+                        @Override
+                        public Entry<IAttribute<?>, Object> next() {
+                            if (next == null) throw new NoSuchElementException();
+                            Entry<IAttribute<?>, Object> entry = next;
+                            next = advance();
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (Column column : columns) {
+                        if (column != null && column.isPresent(index)) size++;
+                    }
+                    for (Column column : otherColumns.values()) {
+                        if (column.isPresent(index)) size++;
+                    }
+                    return size;
+                }
+            };
+        }
+    }
+
+    /**
+     * Columns, indexed by {@link Attributes#getID(IAttribute) attribute ID}.
+     */
+    protected Column[] columns;
+
+    /**
+     * Attributes of each column, indexed by {@link Attributes#getID(IAttribute) attribute ID}.
+     */
+    protected IAttribute<?>[] attributes;
+
+    /**
+     * Columns of attributes without an {@link Attributes#getID(IAttribute) attribute ID}.
+     */
+    protected LinkedHashMap<IAttribute<?>, Column> otherColumns;
+
+    protected int numberOfIndices;
+
+    /**
+     * Released element indices, which are handed out again by {@link #newIndex()}.
+     */
+    protected int[] freeIndices;
+
+    protected int numberOfFreeIndices;
+
+    public AttributeStore() {
+        columns = new Column[0];
+        attributes = new IAttribute<?>[0];
+        otherColumns = new LinkedHashMap<>();
+        freeIndices = new int[0];
+    }
+
+    protected AttributeStore(AttributeStore otherAttributeStore) {
+        columns = otherAttributeStore.columns.clone();
+        attributes = otherAttributeStore.attributes.clone();
+        otherColumns = new LinkedHashMap<>(otherAttributeStore.otherColumns);
+        for (Column column : columns) {
+            if (column != null) column.shared = true;
+        }
+        for (Column column : otherColumns.values()) {
+            column.shared = true;
+        }
+        numberOfIndices = otherAttributeStore.numberOfIndices;
+        freeIndices = otherAttributeStore.freeIndices.clone();
+        numberOfFreeIndices = otherAttributeStore.numberOfFreeIndices;
+    }
+
+    /**
+     * {@return a copy of this store that shares all columns with this store until they are written}
+     */
+    public AttributeStore cloneSharingValues() {
+        return new AttributeStore(this);
+    }
+
+    /**
+     * {@return a new store that only holds the attribute values of the given elements}
+     * The element at position {@code i} of the given indices gets index {@code i} in the new store,
+     * so the new store is densely packed and shares no columns with this store.
+     * Values are copied without cloning them.
+     *
+     * @param indices the element indices to keep
+     */
+    public AttributeStore compact(int[] indices) {
+        AttributeStore attributeStore = new AttributeStore();
+        for (int id = 0; id < columns.length; id++) {
+            if (columns[id] != null) {
+                attributeStore.compactColumn(attributes[id], columns[id], indices);
+            }
+        }
+        otherColumns.forEach((attribute, column) -> attributeStore.compactColumn(attribute, column, indices));
+        attributeStore.numberOfIndices = indices.length;
+        return attributeStore;
+    }
+
+    private void compactColumn(IAttribute<?> attribute, Column otherColumn, int[] indices) {
+        Column column = null;
+        for (int i = 0; i < indices.length; i++) {
+            if (otherColumn.isPresent(indices[i])) {
+                if (column == null) {
+                    column = getMutableColumn(attribute, true);
+                }
+                column.set(i, otherColumn.get(indices[i]));
+            }
+        }
+    }
+
+    /**
+     * {@return a new, unused element index}
+     * Prefers indices that were {@link #releaseIndex(int) released} before.
+     */
+    public int newIndex() {
+        return numberOfFreeIndices > 0 ? freeIndices[--numberOfFreeIndices] : numberOfIndices++;
+    }
+
+    /**
+     * Removes all attribute values of an element and allows its index to be handed out again.
+     * The index must not be used anymore by the caller.
+     *
+     * @param index the element index
+     */
+    public void releaseIndex(int index) {
+        for (int id = 0; id < columns.length; id++) {
+            Column column = columns[id];
+            if (column != null && column.isPresent(index)) {
+                getMutableColumn(attributes[id], false).clear(index);
+            }
+        }
+        for (IAttribute<?> attribute : new ArrayList<>(otherColumns.keySet())) {
+            if (otherColumns.get(attribute).isPresent(index)) {
+                getMutableOtherColumn(attribute, false).clear(index);
+            }
+        }
+        if (numberOfFreeIndices == freeIndices.length) {
+            freeIndices = Arrays.copyOf(freeIndices, Column.capacity(freeIndices.length, numberOfFreeIndices));
+        }
+        freeIndices[numberOfFreeIndices++] = index;
+    }
+
+    /**
+     * {@return the number of element indices handed out so far, including released ones}
+     */
+    public int getNumberOfIndices() {
+        return numberOfIndices;
+    }
+
+    public Object get(int index, IAttribute<?> attribute) {
+        Column column = getColumn(attribute);
+        return column == null ? null : column.get(index);
+    }
+
+    /**
+     * Sets an attribute value of an element.
+     *
+     * @param index the element index
+     * @param attribute the attribute
+     * @param value the value, which must not be null
+     * @return the previous value, if any
+     */
+    public Object set(int index, IAttribute<?> attribute, Object value) {
+        Objects.requireNonNull(value);
+        Column column = getMutableColumn(attribute, true);
+        Object oldValue = column.get(index);
+        column.set(index, value);
+        return oldValue;
+    }
+
+    /**
+     * Removes an attribute value of an element.
+     *
+     * @param index the element index
+     * @param attribute the attribute
+     * @return the removed value, if any
+     */
+    public Object remove(int index, IAttribute<?> attribute) {
+        Column column = getColumn(attribute);
+        if (column == null || !column.isPresent(index)) {
+            return null;
+        }
+        column = getMutableColumn(attribute, false);
+        Object oldValue = column.get(index);
+        column.clear(index);
+        return oldValue;
+    }
+
+    /**
+     * {@return an unmodifiable map view on all attribute values of an element}
+     *
+     * @param index the element index
+     */
+    public Map<IAttribute<?>, Object> getAttributes(int index) {
+        return new Row(index, false);
+    }
+
+    /**
+     * {@return a modifiable map view on all attribute values of an element}
+     *
+     * @param index the element index
+     */
+    public Map<IAttribute<?>, Object> getMutableAttributes(int index) {
+        return new Row(index, true);
+    }
+
+    protected Column getColumn(IAttribute<?> attribute) {
+        int id = Attributes.getID(attribute);
+        Column column = id >= 0 && id < columns.length ? columns[id] : null;
+        // the attribute may have been registered after its column was created
+        return column == null && !otherColumns.isEmpty() ? otherColumns.get(attribute) : column;
+    }
+
+    protected Column getMutableColumn(IAttribute<?> attribute, boolean create) {
+        int id = Attributes.getID(attribute);
+        if (id < 0) {
+            return getMutableOtherColumn(attribute, create);
+        }
+        Column column = id < columns.length ? columns[id] : null;
+        if (column == null) {
+            column = otherColumns.isEmpty() ? null : otherColumns.remove(attribute);
+            if (column == null) {
+                if (!create) {
+                    return null;
+                }
+                column = newColumn(attribute);
+            } else if (column.shared) {
+                column = column.copy();
+            }
+            if (id >= columns.length) {
+                int length = Math.max(id + 1, Attributes.getNumberOfIDs());
+                columns = Arrays.copyOf(columns, length);
+                attributes = Arrays.copyOf(attributes, length);
+            }
+            columns[id] = column;
+            attributes[id] = attribute;
+        } else if (column.shared) {
+            column = column.copy();
+            columns[id] = column;
+        }
+        return column;
+    }
+
+    private Column getMutableOtherColumn(IAttribute<?> attribute, boolean create) {
+        Column column = otherColumns.get(attribute);
+        if (column == null) {
+            if (!create) {
+                return null;
+            }
+            column = newColumn(attribute);
+            otherColumns.put(attribute, column);
+        } else if (column.shared) {
+            column = column.copy();
+            otherColumns.put(attribute, column);
+        }
+        return column;
+    }
+
+    protected static Column newColumn(IAttribute<?> attribute) {
+        Class<?> type = attribute.getType();
+        if (Attributes.NAME.equals(attribute)) {
+            return new ObjectColumn();
+        } else if (Boolean.class.equals(type)) {
+            return new BooleanColumn();
+        } else if (Integer.class.equals(type)) {
+            return new IntColumn();
+        } else if (Long.class.equals(type)) {
+            return new LongColumn();
+        } else if (Double.class.equals(type)) {
+            return new DoubleColumn();
+        } else if (String.class.equals(type)) {
+            return new StringColumn();
+        }
+        return new ObjectColumn();
+    }
+}
@@ -21,13 +21,15 @@
 package de.featjar.feature.model;
 
 import de.featjar.base.data.Attribute;
+import de.featjar.base.data.IAttribute;
 import de.featjar.base.data.Sets;
 import de.featjar.base.data.identifier.IIdentifiable;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Defines useful {@link Attribute attributes} for {@link FeatureModel feature models},
@@ -38,7 +40,17 @@ import java.util.Set;
  */
 public class Attributes {
 
-    private static final LinkedHashMap<Attribute<?>, Attribute<?>> attributeSet = new LinkedHashMap<>();
+    private static final ConcurrentHashMap<Attribute<?>, Attribute<?>> attributeSet = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<IAttribute<?>, Integer> attributeIDs = new ConcurrentHashMap<>();
+
+    /**
+     * IDs of the registered attribute instances, looked up by identity.
+     * Replaced as a whole on registration, so it can be read without locking.
+     */
+    private static volatile IdentityHashMap<IAttribute<?>, Integer> registeredIDs = new IdentityHashMap<>();
+
+    private static volatile Set<Attribute<?>> allAttributes = Collections.emptySet();
+    private static volatile int numberOfIDs;
 
     public static final String NAMESPACE = Attributes.class.getCanonicalName();
 
@@ -66,8 +78,37 @@ public class Attributes {
     public static final Attribute<Boolean> ABSTRACT =
             get(NAMESPACE, "abstract", Boolean.class).setDefaultValue(false);
 
+    /**
+     * {@return all registered attributes, ordered by {@link #getID(IAttribute) ID}}
+     */
     public static Set<Attribute<?>> getAllAttributes() {
-        return Collections.unmodifiableSet(attributeSet.keySet());
+        return allAttributes;
+    }
+
+    /**
+     * {@return a stable, small, non-negative integer that identifies the given attribute, or -1 if it is not registered}
+     * Attributes get an ID when they are registered with {@link #get(String, String, Class)},
+     * and IDs are assigned densely in order of registration.
+     * Thus, the ID can be used to look up attribute values in arrays instead of hash maps.
+     * For the registered instance itself, the ID is looked up by identity, so the attribute is not hashed.
+     * Equal instances that were created elsewhere are resolved by equality and get the same ID.
+     * This method is thread-safe and does not block.
+     *
+     * @param attribute the attribute
+     */
+    public static int getID(IAttribute<?> attribute) {
+        Integer id = registeredIDs.get(attribute);
+        if (id == null) {
+            id = attributeIDs.get(attribute);
+        }
+        return id != null ? id : -1;
+    }
+
+    /**
+     * {@return the number of attribute IDs assigned so far}
+     */
+    public static int getNumberOfIDs() {
+        return numberOfIDs;
     }
 
     public static <T> Attribute<T> get(String name, Class<T> type) {
@@ -84,15 +125,31 @@ public class Attributes {
         Attribute attribute = new Attribute<>(namespace, name, type);
         Attribute cachedAttribute = attributeSet.get(attribute);
         if (cachedAttribute == null) {
-            attributeSet.put(attribute, attribute);
-            return attribute;
-        } else {
-            if (type != cachedAttribute.getType()) {
-                throw new IllegalArgumentException(String.format(
-                        "Cannot create attribute for type %s. Attribute already defined for type %s.",
-                        type.toString(), cachedAttribute.getType()));
-            }
+            cachedAttribute = register(attribute);
+        }
+        if (type != cachedAttribute.getType()) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot create attribute for type %s. Attribute already defined for type %s.",
+                    type.toString(), cachedAttribute.getType()));
+        }
+        return cachedAttribute;
+    }
+
+    private static synchronized Attribute<?> register(Attribute<?> attribute) {
+        Attribute<?> cachedAttribute = attributeSet.get(attribute);
+        if (cachedAttribute != null) {
             return cachedAttribute;
         }
+        int id = numberOfIDs;
+        IdentityHashMap<IAttribute<?>, Integer> newRegisteredIDs = new IdentityHashMap<>(registeredIDs);
+        newRegisteredIDs.put(attribute, id);
+        LinkedHashSet<Attribute<?>> newAllAttributes = new LinkedHashSet<>(allAttributes);
+        newAllAttributes.add(attribute);
+        attributeIDs.put(attribute, id);
+        registeredIDs = newRegisteredIDs;
+        allAttributes = Collections.unmodifiableSet(newAllAttributes);
+        numberOfIDs = id + 1;
+        attributeSet.put(attribute, attribute);
+        return attribute;
     }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import de.featjar.feature.model.IFeatureModel.IMutableFeatureModel;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Shares a {@link FeatureModel} between many reading threads and occasional writing threads.
+ * Readers obtain the most recently published {@link #getSnapshot() snapshot}, which is a read-only
+ * {@link FrozenFeatureModel} that is never changed afterwards.
+ * Thus, readers never block, neither on each other nor on writers, and always see a consistent feature tree
+ * and constraint set, no matter how many queries they issue on the same snapshot.
+ * Writers are serialized and apply their mutations to a private
+ * {@link FeatureModel#cloneSharingValues() value-sharing clone} of the feature model behind the current snapshot,
+ * which is then frozen and published.
+ * Thus, each published mutation costs one clone and one freeze, both linear in the size of the feature model,
+ * but attribute values and formulas are shared between snapshots and only copied when they are changed.
+ * A mutation that never touches its working copy costs neither, as the clone is only materialized on first use
+ * and the current snapshot is published again.
+ * To amortize this cost, related edits should be applied in a single mutation.
+ * Features and constraints keep their identifiers across snapshots.
+ * Features and constraints of a snapshot must not be mutated, and elements passed to a mutation must not be
+ * used outside of it.
+ */
+public class ConcurrentFeatureModel {
+
+    private static final class Version {
+        private final FeatureModel featureModel;
+        private final FrozenFeatureModel snapshot;
+        private final long number;
+
+        private Version(FeatureModel featureModel, long number) {
+            this(featureModel, new FrozenFeatureModel(featureModel), number);
+        }
+
+        private Version(FeatureModel featureModel, FrozenFeatureModel snapshot, long number) {
+            this.featureModel = featureModel;
+            this.snapshot = snapshot;
+            this.number = number;
+        }
+    }
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Version version;
+
+    /**
+     * Creates a concurrent feature model, initially containing a copy of the given feature model.
+     * The given feature model is not changed by later mutations.
+     *
+     * @param featureModel the feature model
+     */
+    public ConcurrentFeatureModel(FeatureModel featureModel) {
+        version = new Version(Objects.requireNonNull(featureModel).cloneSharingValues(), 0);
+    }
+
+    /**
+     * {@return the most recently published snapshot of this feature model}
+     * Never blocks.
+     */
+    public FrozenFeatureModel getSnapshot() {
+        return version.snapshot;
+    }
+
+    /**
+     * {@return the number of mutations published so far}
+     */
+    public long getVersion() {
+        return version.number;
+    }
+
+    /**
+     * Applies a mutation and publishes its result as a new snapshot.
+     *
+     * @param mutation the mutation
+     */
+    public void mutate(Consumer<IMutableFeatureModel> mutation) {
+        mutateAndGet(featureModel -> {
+            mutation.accept(featureModel);
+            return null;
+        });
+    }
+
+    /**
+     * Applies a mutation and publishes its result as a new snapshot.
+     * Concurrent mutations are serialized.
+     * If the mutation throws an exception, its working copy is discarded, and no snapshot is published.
+     *
+     * @param mutation the mutation
+     * @param <T> the type of the mutation's result
+     * @return the mutation's result
+     */
+    public <T> T mutateAndGet(Function<IMutableFeatureModel, T> mutation) {
+        writeLock.lock();
+        try {
+            // the feature model behind the current snapshot is shared with readers and never mutated
+            FeatureModel workingFeatureModel = version.featureModel.cloneSharingValues();
+            T result = mutation.apply(workingFeatureModel);
+            version = workingFeatureModel.isPending()
+                    ? new Version(version.featureModel, version.snapshot, version.number + 1)
+                    : new Version(workingFeatureModel, version.number + 1);
+            return result;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -24,12 +24,18 @@ import de.featjar.base.data.Sets;
 import de.featjar.base.tree.Trees;
 import de.featjar.feature.model.IConstraint.IMutableConstraint;
 import de.featjar.formula.structure.IFormula;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 
 public class Constraint extends AFeatureModelElement implements IMutableConstraint {
     protected IFormula formula;
     protected final LinkedHashSet<IFeature> containedFeaturesCache = Sets.empty();
 
+    /**
+     * Caches the {@link #getStructuralHash() structural hash} of the formula, zero if it has to be recomputed.
+     */
+    private volatile long structuralHash;
+
     protected Constraint(IFeatureModel featureModel, IFormula formula) {
         super(featureModel);
         setFormula(formula);
@@ -40,8 +46,30 @@ public class Constraint extends AFeatureModelElement implements IMutableConstrai
     }
 
     protected Constraint(Constraint otherConstraint, IFeatureModel newFeatureModel) {
-        super(otherConstraint, newFeatureModel);
-        setFormula(Trees.clone(otherConstraint.formula));
+        this(otherConstraint, newFeatureModel, false);
+    }
+
+    /**
+     * Copies a constraint into another feature model.
+     * A value-sharing copy shares the formula of the given constraint instead of cloning it
+     * and resolves its referenced features by identifier.
+     *
+     * @param otherConstraint the constraint to copy
+     * @param newFeatureModel the feature model of the copy
+     * @param shareValues whether to create a value-sharing copy
+     */
+    protected Constraint(Constraint otherConstraint, IFeatureModel newFeatureModel, boolean shareValues) {
+        super(otherConstraint, newFeatureModel, shareValues);
+        if (shareValues) {
+            formula = otherConstraint.formula;
+            structuralHash = otherConstraint.structuralHash;
+            for (IFeature feature : otherConstraint.containedFeaturesCache) {
+                containedFeaturesCache.add(
+                        newFeatureModel.getFeature(feature.getIdentifier()).orElseThrow());
+            }
+        } else {
+            setFormula(Trees.clone(otherConstraint.formula));
+        }
     }
 
     @Override
@@ -51,7 +79,7 @@ public class Constraint extends AFeatureModelElement implements IMutableConstrai
 
     @Override
     public Constraint clone(IFeatureModel newFeatureModel) {
-        return new Constraint(this);
+        return new Constraint(this, newFeatureModel);
     }
 
     @Override
@@ -71,18 +99,78 @@ public class Constraint extends AFeatureModelElement implements IMutableConstrai
 
     @Override
     public void setFormula(IFormula formula) {
+        setFormula(formula, IConstraint.getReferencedFeatures(formula, featureModel));
+    }
+
+    /**
+     * Sets the formula of this constraint without resolving the features it references by name.
+     * Used to restore a previous formula, whose variables may not match the current feature names.
+     *
+     * @param formula the formula
+     * @param referencedFeatures the features referenced by the formula
+     */
+    void setFormula(IFormula formula, Collection<IFeature> referencedFeatures) {
+        prepareChange();
+        LinkedHashSet<IFeature> oldFeatures = new LinkedHashSet<>(containedFeaturesCache);
+        IFormula oldFormula = this.formula;
         containedFeaturesCache.clear();
-        containedFeaturesCache.addAll(IConstraint.getReferencedFeatures(formula, featureModel));
+        containedFeaturesCache.addAll(referencedFeatures);
         Constraint.this.formula = formula;
+        structuralHash = 0;
+        if (featureModel instanceof FeatureModel) {
+            ((FeatureModel) featureModel).constraintFormulaChanged(this, oldFormula, oldFeatures);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Cached until the formula is replaced.
+     */
+    @Override
+    public long getStructuralHash() {
+        long hash = structuralHash;
+        if (hash == 0) {
+            hash = IMutableConstraint.super.getStructuralHash();
+            structuralHash = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean addTag(String tag) {
+        Object oldTags = copyTags();
+        boolean added = IMutableConstraint.super.addTag(tag);
+        tagsChanged(oldTags);
+        return added;
+    }
+
+    @Override
+    public boolean removeTag(String tag) {
+        Object oldTags = copyTags();
+        boolean removed = IMutableConstraint.super.removeTag(tag);
+        tagsChanged(oldTags);
+        return removed;
+    }
+
+    private Object copyTags() {
+        Object tags = getMutableAttributeValues().get(Attributes.TAGS);
+        return tags == null ? null : new LinkedHashSet<>((Collection<?>) tags);
+    }
+
+    private void tagsChanged(Object oldTags) {
+        Object newTags = attributeValues.get(Attributes.TAGS);
+        if (newTags != null && !newTags.equals(oldTags)) {
+            attributeValueChanged(Attributes.TAGS, oldTags, new LinkedHashSet<>((Collection<?>) newTags));
+        }
     }
 
     @Override
     public void setName(String name) {
-        attributeValues.put(Attributes.NAME, name);
+        putAttributeValue(Attributes.NAME, name);
     }
 
     @Override
     public void setDescription(String description) {
-        attributeValues.put(Attributes.DESCRIPTION, description);
+        putAttributeValue(Attributes.DESCRIPTION, description);
     }
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import de.featjar.formula.structure.IExpression;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.BiImplies;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
+import de.featjar.formula.structure.connective.Or;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Indexes the formulas of the {@link IConstraint constraints} of a {@link FeatureModel} to detect duplicates.
+ * Constraints are bucketed by the hash of the {@link #getNormalForm(IExpression) normal form} of their formula,
+ * so that duplicate constraints are found in constant time per constraint.
+ * The hash of each constraint is computed once when it is added and kept until it is removed,
+ * so formulas are expected to be replaced with {@link IConstraint.IMutableConstraint#setFormula(IFormula)}
+ * instead of being modified in place.
+ */
+final class ConstraintDuplicateIndex {
+
+    private final HashMap<Long, ArrayList<IConstraint>> constraintsByHash;
+    private final IdentityHashMap<IConstraint, Long> hashes;
+
+    ConstraintDuplicateIndex(Collection<IConstraint> constraints) {
+        constraintsByHash = new HashMap<>((int) (constraints.size() * 1.5));
+        hashes = new IdentityHashMap<>(constraints.size());
+        constraints.forEach(this::add);
+    }
+
+    /**
+     * {@return a normal form of the given expression}
+     * Nested conjunctions and disjunctions are flattened and their operands sorted at any depth.
+     * The operands of biimplications are sorted, and the operands of implications and negations keep their order,
+     * so formulas that only differ in the order or nesting of commutative operands have the same normal form.
+     * Other expressions, such as literals, are represented by their printed form.
+     *
+     * @param expression the expression
+     */
+    static String getNormalForm(IExpression expression) {
+        if (expression instanceof And || expression instanceof Or) {
+            ArrayList<String> operands = new ArrayList<>(expression.getChildrenCount());
+            addOperands(expression, expression.getClass(), operands);
+            Collections.sort(operands);
+            return join(expression instanceof And ? "&" : "|", operands);
+        }
+        if (expression instanceof BiImplies || expression instanceof Implies || expression instanceof Not) {
+            ArrayList<String> operands = new ArrayList<>(expression.getChildrenCount());
+            for (IExpression child : expression.getChildren()) {
+                operands.add(getNormalForm(child));
+            }
+            if (expression instanceof BiImplies) {
+                Collections.sort(operands);
+                return join("<=>", operands);
+            }
+            return join(expression instanceof Implies ? "=>" : "!", operands);
+        }
+        return expression.print();
+    }
+
+    private static void addOperands(IExpression expression, Class<?> type, List<String> operands) {
+        for (IExpression child : expression.getChildren()) {
+            if (child.getClass() == type) {
+                addOperands(child, type, operands);
+            } else {
+                operands.add(getNormalForm(child));
+            }
+        }
+    }
+
+    private static String join(String operator, List<String> operands) {
+        StringBuilder normalForm = new StringBuilder(operator).append('(');
+        for (String operand : operands) {
+            normalForm.append(operand.length()).append(':').append(operand);
+        }
+        return normalForm.append(')').toString();
+    }
+
+    private static long hash(String normalForm) {
+        return StructuralHash.hash(normalForm);
+    }
+
+    void add(IConstraint constraint) {
+        long hash = hash(getNormalForm(constraint.getFormula()));
+        hashes.put(constraint, hash);
+        constraintsByHash
+                .computeIfAbsent(hash, h -> new ArrayList<>(1))
+                .add(constraint);
+    }
+
+    void remove(IConstraint constraint) {
+        Long hash = hashes.remove(constraint);
+        if (hash == null) {
+            return;
+        }
+        ArrayList<IConstraint> constraints = constraintsByHash.get(hash);
+        for (int i = 0; i < constraints.size(); i++) {
+            if (constraints.get(i) == constraint) {
+                constraints.remove(i);
+                break;
+            }
+        }
+        if (constraints.isEmpty()) {
+            constraintsByHash.remove(hash);
+        }
+    }
+
+    /**
+     * {@return all indexed constraints whose formula has the same normal form as the given formula}
+     *
+     * @param formula the formula
+     */
+    List<IConstraint> getEquivalentConstraints(IFormula formula) {
+        String normalForm = getNormalForm(formula);
+        ArrayList<IConstraint> candidates = constraintsByHash.get(hash(normalForm));
+        if (candidates == null) {
+            return List.of();
+        }
+        List<IConstraint> equivalentConstraints = new ArrayList<>(candidates.size());
+        for (IConstraint candidate : candidates) {
+            if (getNormalForm(candidate.getFormula()).equals(normalForm)) {
+                equivalentConstraints.add(candidate);
+            }
+        }
+        return equivalentConstraints;
+    }
+
+    /**
+     * {@return all groups of at least two indexed constraints whose formulas have the same normal form}
+     *
+     * @param constraints all indexed constraints, in the order in which groups should be returned
+     */
+    List<List<IConstraint>> getDuplicateConstraints(Collection<IConstraint> constraints) {
+        List<List<IConstraint>> duplicateConstraints = new ArrayList<>();
+        for (IConstraint constraint : constraints) {
+            ArrayList<IConstraint> candidates = constraintsByHash.get(hashes.get(constraint));
+            if (candidates.size() > 1 && candidates.get(0) == constraint) {
+                LinkedHashMap<String, List<IConstraint>> groups = new LinkedHashMap<>(2);
+                for (IConstraint candidate : candidates) {
+                    groups.computeIfAbsent(getNormalForm(candidate.getFormula()), f -> new ArrayList<>(2))
+                            .add(candidate);
+                }
+                for (List<IConstraint> group : groups.values()) {
+                    if (group.size() > 1) {
+                        duplicateConstraints.add(group);
+                    }
+                }
+            }
+        }
+        return duplicateConstraints;
+    }
+}
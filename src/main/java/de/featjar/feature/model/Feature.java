@@ -20,14 +20,25 @@
  */
 package de.featjar.feature.model;
 
+import de.featjar.base.data.Attribute;
+import de.featjar.base.data.IAttribute;
 import de.featjar.base.data.Result;
 import de.featjar.feature.model.IFeature.IMutableFeature;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
 
 public class Feature extends AFeatureModelElement implements IMutableFeature {
     protected Class<?> type;
 
+    protected final AttributeStore attributeStore;
+    protected int index;
+
     protected Feature(IFeatureModel featureModel) {
         super(featureModel);
+        attributeStore = getAttributeStore(featureModel);
+        index = attributeStore.newIndex();
     }
 
     protected Feature(Feature otherFeature) {
@@ -35,8 +46,85 @@ public class Feature extends AFeatureModelElement implements IMutableFeature {
     }
 
     protected Feature(Feature otherFeature, IFeatureModel newFeatureModel) {
-        super(otherFeature, newFeatureModel);
+        this(otherFeature, newFeatureModel, false);
+    }
+
+    /**
+     * Copies a feature into another feature model.
+     * A value-sharing copy keeps the identifier and index of the given feature.
+     * It requires that the attribute store of the new feature model is a
+     * {@link AttributeStore#cloneSharingValues() value-sharing clone} of the given feature's attribute store.
+     * Otherwise, the copy gets a new identifier and index, and all attribute values are copied.
+     *
+     * @param otherFeature the feature to copy
+     * @param newFeatureModel the feature model of the copy
+     * @param shareValues whether to create a value-sharing copy
+     */
+    protected Feature(Feature otherFeature, IFeatureModel newFeatureModel, boolean shareValues) {
+        super(newFeatureModel, shareValues ? otherFeature.identifier : otherFeature.getNewIdentifier());
+        type = otherFeature.type;
+        attributeStore = getAttributeStore(newFeatureModel);
+        if (shareValues) {
+            index = otherFeature.index;
+        } else {
+            int newIndex = attributeStore.newIndex();
+            otherFeature.cloneAttributes().forEach((attribute, value) -> attributeStore.set(newIndex, attribute, value));
+            index = newIndex;
+        }
+    }
+
+    /**
+     * Copies a feature into another feature model, keeping its identifier.
+     * The copy reads its attribute values from the given index of the new feature model's attribute store,
+     * which must already hold them, as in a {@link AttributeStore#compact(int[]) compacted} attribute store.
+     *
+     * @param otherFeature the feature to copy
+     * @param newFeatureModel the feature model of the copy
+     * @param index the index of the copy in the attribute store of the new feature model
+     */
+    protected Feature(Feature otherFeature, IFeatureModel newFeatureModel, int index) {
+        super(newFeatureModel, otherFeature.identifier);
         type = otherFeature.type;
+        attributeStore = getAttributeStore(newFeatureModel);
+        this.index = index;
+    }
+
+    private static AttributeStore getAttributeStore(IFeatureModel featureModel) {
+        return featureModel instanceof FeatureModel
+                ? ((FeatureModel) featureModel).featureAttributeStore
+                : new AttributeStore();
+    }
+
+    /**
+     * {@return the dense index of this feature in the attribute store of its feature model,
+     * or -1 if the feature has been removed and its index was released}
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Discards all attribute values of this feature and releases its index for reuse.
+     * Called by {@link FeatureModel} when this feature has been removed and is not referenced anymore.
+     */
+    void releaseIndex() {
+        if (index >= 0) {
+            attributeStore.releaseIndex(index);
+            index = -1;
+        }
+    }
+
+    @Override
+    public Optional<Map<IAttribute<?>, Object>> getAttributes() {
+        return Optional.of(index < 0 ? Collections.emptyMap() : attributeStore.getAttributes(index));
+    }
+
+    @Override
+    protected Map<IAttribute<?>, Object> getMutableAttributeValues() {
+        if (index < 0) {
+            throw new IllegalStateException("feature has been removed from its feature model");
+        }
+        return attributeStore.getMutableAttributes(index);
     }
 
     @Override
@@ -46,7 +134,7 @@ public class Feature extends AFeatureModelElement implements IMutableFeature {
 
     @Override
     public Feature clone(IFeatureModel newFeatureModel) {
-        return new Feature(this);
+        return new Feature(this, newFeatureModel);
     }
 
     @Override
@@ -59,9 +147,22 @@ public class Feature extends AFeatureModelElement implements IMutableFeature {
         return featureModel.getFeatureTree(this);
     }
 
+    @Override
+    public LinkedHashSet<IConstraint> getReferencingConstraints() {
+        if (featureModel instanceof FeatureModel) {
+            return ((FeatureModel) featureModel).getReferencingConstraints(this);
+        }
+        return IMutableFeature.super.getReferencingConstraints();
+    }
+
     @Override
     public void setType(Class<?> type) {
+        prepareChange();
+        Class<?> oldType = this.type;
         this.type = type;
+        if (oldType != type && featureModel instanceof FeatureModel) {
+            ((FeatureModel) featureModel).featureTypeChanged(this, oldType, type);
+        }
     }
 
     @Override
@@ -71,11 +172,42 @@ public class Feature extends AFeatureModelElement implements IMutableFeature {
 
     @Override
     public void setName(String name) {
-        attributeValues.put(Attributes.NAME, name);
+        String oldName = getName().orElse(null);
+        putAttributeValue(Attributes.NAME, name);
+        updateFeatureName(oldName);
+    }
+
+    @Override
+    public <S> void setAttributeValue(Attribute<S> attribute, S value) {
+        if (Attributes.NAME.equals(attribute)) {
+            String oldName = getName().orElse(null);
+            super.setAttributeValue(attribute, value);
+            updateFeatureName(oldName);
+        } else {
+            super.setAttributeValue(attribute, value);
+        }
+    }
+
+    @Override
+    public <S> S removeAttributeValue(Attribute<S> attribute) {
+        if (Attributes.NAME.equals(attribute)) {
+            String oldName = getName().orElse(null);
+            S value = super.removeAttributeValue(attribute);
+            updateFeatureName(oldName);
+            return value;
+        } else {
+            return super.removeAttributeValue(attribute);
+        }
+    }
+
+    private void updateFeatureName(String oldName) {
+        if (featureModel instanceof FeatureModel) {
+            ((FeatureModel) featureModel).updateFeatureName(this, oldName, getName().orElse(null));
+        }
     }
 
     @Override
     public void setDescription(String description) {
-        attributeValues.put(Attributes.DESCRIPTION, description);
+        putAttributeValue(Attributes.DESCRIPTION, description);
     }
 }
@@ -24,17 +24,26 @@ import de.featjar.base.data.Attribute;
 import de.featjar.base.data.IAttributable.IMutatableAttributable;
 import de.featjar.base.data.IAttribute;
 import de.featjar.base.data.Maps;
+import de.featjar.base.data.Range;
 import de.featjar.base.data.Result;
+import de.featjar.base.data.Sets;
 import de.featjar.base.data.identifier.IIdentifier;
 import de.featjar.base.data.identifier.UUIDIdentifier;
 import de.featjar.base.tree.Trees;
+import de.featjar.feature.model.FeatureTree.Group;
+import de.featjar.feature.model.FeatureTreeCursor.Order;
+import de.featjar.feature.model.IConstraint.IMutableConstraint;
+import de.featjar.feature.model.IFeature.IMutableFeature;
 import de.featjar.feature.model.IFeatureModel.IMutableFeatureModel;
 import de.featjar.formula.structure.IFormula;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -48,7 +57,63 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
     protected final LinkedHashMap<IIdentifier, IFeature> features;
     protected final LinkedHashMap<IIdentifier, IConstraint> constraints;
 
+    protected final LinkedHashMap<String, IFeature> featureNames;
+    protected final LinkedHashMap<IIdentifier, IFeatureTree> featureTrees;
+    protected final LinkedHashMap<IIdentifier, LinkedHashSet<IConstraint>> featureConstraints;
+
     protected final LinkedHashMap<IAttribute<?>, Object> attributeValues;
+    protected final AttributeStore featureAttributeStore;
+
+    protected final FeatureModelJournal journal;
+    protected final ArrayDeque<Long> transactions = new ArrayDeque<>();
+
+    /**
+     * Whether the journal was enabled only for the outermost transaction and is disabled when it ends.
+     */
+    protected boolean journalEnabledByTransaction;
+
+    /**
+     * Removed features whose attribute store indices are released once the journal is disabled,
+     * as the journal may still refer to them.
+     */
+    protected final ArrayList<Feature> removedFeatures = new ArrayList<>();
+
+    /**
+     * Counts the changes of the structure of the feature tree, which invalidate the {@link #featureTreeIndex}.
+     */
+    protected long featureTreeVersion;
+
+    /**
+     * Indexes the feature tree at the {@link #featureTreeIndexVersion version} it was last requested for.
+     * Like all lazily built indexes of a feature model, it is not safe for concurrent readers;
+     * share a {@link FrozenFeatureModel} or a {@link ConcurrentFeatureModel} between threads instead.
+     */
+    private FeatureTreeIndex featureTreeIndex;
+
+    private long featureTreeIndexVersion;
+
+    /**
+     * Buckets all constraints by the normal form of their formula, built on the first duplicate query.
+     * Once built, it is updated along with the constraints.
+     */
+    private ConstraintDuplicateIndex constraintDuplicateIndex;
+
+    /**
+     * The feature model this {@link #cloneSharingValues() value-sharing clone} copies its features, constraints,
+     * and feature tree from when it is first used, or {@code null} if they have already been copied.
+     * The source is never pending itself and is not changed before all its pending clones are materialized.
+     */
+    private volatile FeatureModel pendingSource;
+
+    private boolean materializing;
+
+    /**
+     * Pending value-sharing clones of this feature model, which are materialized before it is changed.
+     * Also serves as the lock for materializing them.
+     */
+    private final ArrayList<WeakReference<FeatureModel>> pendingClones = new ArrayList<>(0);
+
+    private int pendingClonesPurgeSize = 16;
 
     public FeatureModel() {
         this(UUIDIdentifier.newInstance());
@@ -59,26 +124,264 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
         featureTreeRoots = new ArrayList<>(1);
         features = Maps.empty();
         constraints = Maps.empty();
+        featureNames = Maps.empty();
+        featureTrees = Maps.empty();
+        featureConstraints = Maps.empty();
         attributeValues = new LinkedHashMap<>(4);
+        featureAttributeStore = new AttributeStore();
+        journal = new FeatureModelJournal();
+    }
+
+    /**
+     * Creates an empty feature model whose maps are sized for the given number of elements.
+     * Used by {@link FeatureModelBuilder} to avoid rehashing when adding elements in bulk.
+     *
+     * @param identifier the identifier
+     * @param expectedNumberOfFeatures the expected number of features
+     * @param expectedNumberOfConstraints the expected number of constraints
+     */
+    protected FeatureModel(IIdentifier identifier, int expectedNumberOfFeatures, int expectedNumberOfConstraints) {
+        this.identifier = Objects.requireNonNull(identifier);
+        featureTreeRoots = new ArrayList<>(1);
+        features = new LinkedHashMap<>((int) (expectedNumberOfFeatures * 1.5));
+        constraints = new LinkedHashMap<>((int) (expectedNumberOfConstraints * 1.5));
+        featureNames = new LinkedHashMap<>((int) (expectedNumberOfFeatures * 1.5));
+        featureTrees = new LinkedHashMap<>((int) (expectedNumberOfFeatures * 1.5));
+        featureConstraints = new LinkedHashMap<>((int) (expectedNumberOfFeatures * 1.5));
+        attributeValues = new LinkedHashMap<>(4);
+        featureAttributeStore = new AttributeStore();
+        journal = new FeatureModelJournal();
     }
 
     protected FeatureModel(FeatureModel otherFeatureModel) {
+        this(otherFeatureModel, false);
+    }
+
+    /**
+     * Copies a feature model.
+     * A value-sharing copy keeps the identifiers of all features and constraints,
+     * shares their attribute values until they are mutated (column by column for features),
+     * and shares constraint formulas instead of cloning them.
+     * It only copies the attribute values of the feature model itself and takes a value-sharing clone of
+     * the feature attribute store, while its features, constraints, and feature tree are
+     * {@link #materialize() materialized} when the copy is first used or before the given feature model changes.
+     * Otherwise, all elements get new identifiers and are copied deeply.
+     * In both cases, the feature tree is eventually copied node by node, as each node links to its parent and feature.
+     *
+     * @param otherFeatureModel the feature model to copy
+     * @param shareValues whether to create a value-sharing copy
+     */
+    protected FeatureModel(FeatureModel otherFeatureModel, boolean shareValues) {
         identifier = otherFeatureModel.getNewIdentifier();
+        journal = new FeatureModelJournal();
+        if (!shareValues) {
+            otherFeatureModel.materialize();
+        }
+        FeatureModel sizeSource = Objects.requireNonNullElse(otherFeatureModel.pendingSource, otherFeatureModel);
+        featureTreeRoots = new ArrayList<>(Math.max(1, sizeSource.featureTreeRoots.size()));
+        features = new LinkedHashMap<>((int) (sizeSource.features.size() * 1.5));
+        featureNames = new LinkedHashMap<>((int) (sizeSource.features.size() * 1.5));
+        featureTrees = new LinkedHashMap<>((int) (sizeSource.featureTrees.size() * 1.5));
+        constraints = new LinkedHashMap<>((int) (sizeSource.constraints.size() * 1.5));
+        featureConstraints = new LinkedHashMap<>((int) (sizeSource.featureConstraints.size() * 1.5));
+        attributeValues = otherFeatureModel.cloneAttributes();
+        if (shareValues) {
+            featureAttributeStore = otherFeatureModel.featureAttributeStore.cloneSharingValues();
+            otherFeatureModel.addPendingClone(this);
+        } else {
+            featureAttributeStore = new AttributeStore();
+            copyElements(otherFeatureModel, false);
+        }
+    }
+
+    private void copyElements(FeatureModel otherFeatureModel, boolean shareValues) {
+        journal.setSuspended(true);
+        LinkedHashMap<IIdentifier, IFeature> clonedFeatures =
+                new LinkedHashMap<>((int) (otherFeatureModel.features.size() * 1.5));
+        otherFeatureModel.features.values().forEach(f -> {
+            IFeature clonedFeature = new Feature((Feature) f, this, shareValues);
+            features.put(clonedFeature.getIdentifier(), clonedFeature);
+            clonedFeatures.put(f.getIdentifier(), clonedFeature);
+        });
 
-        featureTreeRoots = new ArrayList<>(otherFeatureModel.featureTreeRoots.size());
-        otherFeatureModel.featureTreeRoots.stream().forEach(t -> featureTreeRoots.add(Trees.clone(t)));
+        features.values().forEach(f -> f.getName().ifPresent(name -> featureNames.put(name, f)));
 
-        features = new LinkedHashMap<>((int) (otherFeatureModel.features.size() * 1.5));
-        otherFeatureModel.features.entrySet().stream()
-                .map(e -> e.getValue().clone(this))
-                .forEach(f -> features.put(f.getIdentifier(), f));
+        otherFeatureModel.featureTreeRoots.stream()
+                .map(t -> ((FeatureTree) t).cloneTree(f -> clonedFeatures.getOrDefault(f.getIdentifier(), f)))
+                .forEach(t -> {
+                    featureTreeRoots.add(t);
+                    indexFeatureTree(t);
+                });
 
-        constraints = new LinkedHashMap<>((int) (otherFeatureModel.constraints.size() * 1.5));
-        otherFeatureModel.constraints.entrySet().stream()
-                .map(e -> e.getValue().clone(this))
+        otherFeatureModel.constraints.values().stream()
+                .map(c -> new Constraint((Constraint) c, this, shareValues))
                 .forEach(c -> constraints.put(c.getIdentifier(), c));
 
+        constraints.values().forEach(c -> indexConstraint(c, c.getReferencedFeatures()));
+        journal.setSuspended(false);
+    }
+
+    /**
+     * Registers a pending value-sharing clone of this feature model.
+     * If this feature model is pending itself, the clone is registered with its source instead,
+     * which is unchanged and thus holds the same elements.
+     *
+     * @param clone the clone
+     */
+    private void addPendingClone(FeatureModel clone) {
+        FeatureModel source = pendingSource;
+        if (source != null) {
+            synchronized (source.pendingClones) {
+                if (pendingSource == source) {
+                    source.registerPendingClone(clone);
+                    return;
+                }
+            }
+        }
+        synchronized (pendingClones) {
+            registerPendingClone(clone);
+        }
+    }
+
+    private void registerPendingClone(FeatureModel clone) {
+        if (pendingClones.size() >= pendingClonesPurgeSize) {
+            pendingClones.removeIf(reference -> {
+                FeatureModel pendingClone = reference.get();
+                return pendingClone == null || pendingClone.pendingSource != this;
+            });
+            pendingClonesPurgeSize = Math.max(16, 2 * pendingClones.size());
+        }
+        clone.pendingSource = this;
+        pendingClones.add(new WeakReference<>(clone));
+    }
+
+    /**
+     * Copies the features, constraints, and feature tree of this feature model from its source,
+     * if it is a pending {@link #cloneSharingValues() value-sharing clone}.
+     * Called before this feature model is read or changed.
+     * May be called from another thread than the one using this feature model,
+     * namely by the source when it is about to change.
+     */
+    protected void materialize() {
+        FeatureModel source = pendingSource;
+        if (source == null) {
+            return;
+        }
+        synchronized (source.pendingClones) {
+            // the copied constraints resolve their features through this feature model
+            if (pendingSource != source || materializing) {
+                return;
+            }
+            materializing = true;
+            copyElements(source, true);
+            materializing = false;
+            pendingSource = null;
+        }
+    }
+
+    /**
+     * {@return whether this feature model is a value-sharing clone whose elements have not been copied yet}
+     * A pending clone has neither been read nor changed since it was created,
+     * and its source has not changed either.
+     */
+    protected boolean isPending() {
+        return pendingSource != null;
+    }
+
+    /**
+     * Materializes this feature model and all its pending clones before this feature model or one of its elements
+     * is changed.
+     * Called by all mutators of this feature model and its elements, except for those that only change
+     * attribute values of the feature model or its features, which are not shared with pending clones.
+     */
+    void prepareChange() {
+        materialize();
+        synchronized (pendingClones) {
+            if (pendingClones.isEmpty()) {
+                return;
+            }
+            for (WeakReference<FeatureModel> reference : pendingClones) {
+                FeatureModel clone = reference.get();
+                if (clone != null) {
+                    clone.materialize();
+                }
+            }
+            pendingClones.clear();
+            pendingClonesPurgeSize = 16;
+        }
+    }
+
+    /**
+     * Slices a feature model down to the given features.
+     * Kept features and constraints keep their identifiers and share their formulas and attribute value objects
+     * with the sliced feature model, as in a {@link #cloneSharingValues() value-sharing clone}.
+     * The attribute values of kept features are copied into a {@link AttributeStore#compact(int[]) compact}
+     * attribute store with new, dense indices, so the slice does not keep the columns of removed features alive.
+     *
+     * @param otherFeatureModel the feature model to slice
+     * @param keptFeatures the features to keep
+     * @see #slice(Collection)
+     */
+    protected FeatureModel(FeatureModel otherFeatureModel, Collection<IFeature> keptFeatures) {
+        otherFeatureModel.materialize();
+        identifier = otherFeatureModel.getNewIdentifier();
+        journal = new FeatureModelJournal();
+        journal.setSuspended(true);
+
+        HashSet<IIdentifier> keptIdentifiers = new HashSet<>((int) (keptFeatures.size() * 1.5));
+        for (IFeature feature : keptFeatures) {
+            if (otherFeatureModel.features.get(feature.getIdentifier()) != feature) {
+                throw new IllegalArgumentException(String.format(
+                        "feature %s is not contained in the feature model", feature.getName().orElse("")));
+            }
+            keptIdentifiers.add(feature.getIdentifier());
+        }
+
+        List<Feature> slicedFeatures = new ArrayList<>(keptIdentifiers.size());
+        for (IFeature feature : otherFeatureModel.features.values()) {
+            if (keptIdentifiers.contains(feature.getIdentifier())) {
+                slicedFeatures.add((Feature) feature);
+            }
+        }
+        int[] keptIndices = new int[slicedFeatures.size()];
+        for (int i = 0; i < keptIndices.length; i++) {
+            keptIndices[i] = slicedFeatures.get(i).getIndex();
+        }
+        featureAttributeStore = otherFeatureModel.featureAttributeStore.compact(keptIndices);
+
+        features = new LinkedHashMap<>((int) (keptIdentifiers.size() * 1.5));
+        featureNames = new LinkedHashMap<>((int) (keptIdentifiers.size() * 1.5));
+        for (int i = 0; i < keptIndices.length; i++) {
+            IFeature slicedFeature = new Feature(slicedFeatures.get(i), this, i);
+            features.put(slicedFeature.getIdentifier(), slicedFeature);
+            slicedFeature.getName().ifPresent(name -> featureNames.put(name, slicedFeature));
+        }
+
+        featureTrees = new LinkedHashMap<>((int) (keptIdentifiers.size() * 1.5));
+        featureTreeRoots = new ArrayList<>(Math.max(1, otherFeatureModel.featureTreeRoots.size()));
+        for (IFeatureTree featureTree : otherFeatureModel.featureTreeRoots) {
+            ((FeatureTree) featureTree)
+                    .sliceTree(
+                            f -> keptIdentifiers.contains(f.getIdentifier()),
+                            f -> features.get(f.getIdentifier()),
+                            featureTreeRoots);
+        }
+        featureTreeRoots.forEach(this::indexFeatureTree);
+
+        constraints = new LinkedHashMap<>();
+        for (IConstraint constraint : otherFeatureModel.constraints.values()) {
+            if (constraint.getReferencedFeatures().stream()
+                    .allMatch(f -> keptIdentifiers.contains(f.getIdentifier()))) {
+                IConstraint slicedConstraint = new Constraint((Constraint) constraint, this, true);
+                constraints.put(slicedConstraint.getIdentifier(), slicedConstraint);
+            }
+        }
+
+        featureConstraints = new LinkedHashMap<>((int) (keptIdentifiers.size() * 1.5));
+        constraints.values().forEach(c -> indexConstraint(c, c.getReferencedFeatures()));
+
         attributeValues = otherFeatureModel.cloneAttributes();
+        journal.setSuspended(false);
     }
 
     @Override
@@ -86,6 +389,91 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
         return new FeatureModel(this);
     }
 
+    /**
+     * {@return a value-sharing clone of this feature model}
+     * In contrast to {@link #clone()}, features and constraints keep their identifiers,
+     * so they can be matched with their originals.
+     * Attribute values and constraint formulas are shared with this feature model and
+     * only copied when they are mutated through {@link IMutableFeature} or {@link IMutableConstraint}
+     * in either feature model.
+     * Formulas are assumed to be replaced with {@link IMutableConstraint#setFormula(IFormula)}
+     * instead of being modified in place, and feature trees to be changed through {@link IFeatureTree#mutate()}.
+     * Runs in time proportional to the number of feature attributes, as the clone only shares the attribute columns
+     * of this feature model.
+     * Its features, constraints, and feature tree are copied in linear time when it is first used,
+     * or before this feature model or one of its elements is changed, whichever happens first.
+     * They cannot be shared, as each element links to its feature model and each tree node to its parent.
+     * Until then, the clone keeps this feature model alive.
+     */
+    public FeatureModel cloneSharingValues() {
+        return new FeatureModel(this, true);
+    }
+
+    /**
+     * {@return a slice of this feature model that only contains the given features}
+     * Each kept feature is attached to its nearest kept ancestor in the feature tree, or becomes a root
+     * if there is none, and the groups of removed features are collapsed into the groups of that ancestor.
+     * Only constraints that reference kept features exclusively are kept.
+     * The slice over-approximates the projection of this feature model onto the kept features:
+     * every configuration of this feature model restricted to the kept features is a configuration of the slice,
+     * but constraints implied through removed features are not preserved.
+     * Runs in time linear in the size of this feature model.
+     *
+     * @param keptFeatures the features to keep, which must be contained in this feature model
+     * @throws IllegalArgumentException if a given feature is not contained in this feature model
+     */
+    public FeatureModel slice(Collection<IFeature> keptFeatures) {
+        materialize();
+        return new FeatureModel(this, keptFeatures);
+    }
+
+    /**
+     * {@return the journal of all changes to this feature model and its elements}
+     * The journal is {@link FeatureModelJournal#setEnabled(boolean) disabled} until a consumer enables it,
+     * except during {@link #begin() transactions}.
+     * Copies of this feature model start with an empty, disabled journal.
+     */
+    public FeatureModelJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * {@return a content-based hash of this feature model}
+     * Combines the {@link FeatureTree#getStructuralHash() structural hashes} of all roots in order,
+     * the {@link IConstraint#getStructuralHash() structural hashes} of all constraints in any order,
+     * and the number of features.
+     * Thus, structurally identical feature models have equal hashes regardless of identifiers,
+     * which makes the hash suitable as a cache key for analyses and for detecting duplicate feature models.
+     * As the hashes of subtrees and constraints are cached, this takes time linear in the number of roots and
+     * constraints plus the number of nodes on paths to nodes changed since the last call.
+     */
+    public long getStructuralHash() {
+        materialize();
+        long hash = StructuralHash.combine(features.size(), featureTreeRoots.size());
+        for (IFeatureTree root : featureTreeRoots) {
+            hash = StructuralHash.combine(hash, ((FeatureTree) root).getStructuralHash());
+        }
+        long constraintsHash = 0;
+        for (IConstraint constraint : constraints.values()) {
+            constraintsHash += StructuralHash.mix(constraint.getStructuralHash());
+        }
+        hash = StructuralHash.combine(hash, constraints.size());
+        return StructuralHash.combine(hash, constraintsHash);
+    }
+
+    /**
+     * {@return an index of the current feature tree for constant-time ancestor, depth, and lowest common ancestor queries}
+     * The index is built lazily and rebuilt on the next call after the structure of the feature tree has changed.
+     */
+    public FeatureTreeIndex getFeatureTreeIndex() {
+        materialize();
+        if (featureTreeIndex == null || featureTreeIndexVersion != featureTreeVersion) {
+            featureTreeIndex = new FeatureTreeIndex(featureTreeRoots);
+            featureTreeIndexVersion = featureTreeVersion;
+        }
+        return featureTreeIndex;
+    }
+
     @Override
     public FeatureModel getFeatureModel() {
         return this;
@@ -93,41 +481,49 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
 
     @Override
     public List<IFeatureTree> getRoots() {
+        materialize();
         return featureTreeRoots;
     }
 
     @Override
     public Collection<IFeature> getFeatures() {
+        materialize();
         return Collections.unmodifiableCollection(features.values());
     }
 
     @Override
     public Result<IFeature> getFeature(IIdentifier identifier) {
+        materialize();
         return Result.of(features.get(Objects.requireNonNull(identifier)));
     }
 
     @Override
     public Collection<IConstraint> getConstraints() {
+        materialize();
         return Collections.unmodifiableCollection(constraints.values());
     }
 
     @Override
     public Result<IConstraint> getConstraint(IIdentifier identifier) {
+        materialize();
         return Result.of(constraints.get(Objects.requireNonNull(identifier)));
     }
 
     @Override
     public boolean hasConstraint(IIdentifier identifier) {
+        materialize();
         return constraints.containsKey(identifier);
     }
 
     @Override
     public boolean hasConstraint(IConstraint constraint) {
+        materialize();
         return constraints.containsKey(constraint.getIdentifier());
     }
 
     @Override
     public int getNumberOfConstraints() {
+        materialize();
         return constraints.size();
     }
 
@@ -149,13 +545,18 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
         }
         checkType(attribute, value);
         validate(attribute, value);
-        attributeValues.put(attribute, value);
+        Object oldValue = attributeValues.put(attribute, value);
+        attributeValueChanged(this, attribute, oldValue, value);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <S> S removeAttributeValue(Attribute<S> attribute) {
-        return (S) attributeValues.remove(attribute);
+        S oldValue = (S) attributeValues.remove(attribute);
+        if (oldValue != null) {
+            attributeValueChanged(this, attribute, oldValue, null);
+        }
+        return oldValue;
     }
 
     @Override
@@ -172,6 +573,7 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
 
     @Override
     public String toString() {
+        materialize();
         StringBuilder featureString = new StringBuilder();
         for (IFeatureTree root : featureTreeRoots) {
             featureString.append(root.print());
@@ -183,91 +585,591 @@ public class FeatureModel implements IMutableFeatureModel, IMutatableAttributabl
 
     @Override
     public void setName(String name) {
-        attributeValues.put(Attributes.NAME, name);
+        Object oldName = attributeValues.put(Attributes.NAME, name);
+        attributeValueChanged(this, Attributes.NAME, oldName, name);
     }
 
     @Override
     public void setDescription(String description) {
-        attributeValues.put(Attributes.DESCRIPTION, description);
+        Object oldDescription = attributeValues.put(Attributes.DESCRIPTION, description);
+        attributeValueChanged(this, Attributes.DESCRIPTION, oldDescription, description);
     }
 
     @Override
     public IFeatureTree addFeatureTreeRoot(IFeature feature) {
         FeatureTree newTree = new FeatureTree(feature);
-        featureTreeRoots.add(newTree);
+        addFeatureTreeRoot(newTree);
         return newTree;
     }
 
     @Override
     public void addFeatureTreeRoot(IFeatureTree featureTree) {
+        prepareChange();
         featureTreeRoots.add(featureTree);
+        indexFeatureTree(featureTree);
+        journal.recordTreeChange(
+                FeatureModelChange.Type.FEATURE_TREE_ADDED, featureTree, null, featureTreeRoots.size() - 1);
+    }
+
+    /**
+     * Adds a feature tree root at a given position.
+     *
+     * @param index the position among all roots
+     * @param featureTree the feature tree
+     */
+    public void addFeatureTreeRoot(int index, IFeatureTree featureTree) {
+        prepareChange();
+        featureTreeRoots.add(index, featureTree);
+        indexFeatureTree(featureTree);
+        journal.recordTreeChange(FeatureModelChange.Type.FEATURE_TREE_ADDED, featureTree, null, index);
     }
 
     @Override
     public void removeFeatureTreeRoot(IFeature feature) {
-        for (Iterator<IFeatureTree> it = featureTreeRoots.listIterator(); it.hasNext(); ) {
-            if (it.next().getFeature().equals(feature)) {
-                it.remove();
+        prepareChange();
+        for (int i = featureTreeRoots.size() - 1; i >= 0; i--) {
+            IFeatureTree featureTree = featureTreeRoots.get(i);
+            if (featureTree.getFeature().equals(feature)) {
+                removeFeatureTreeRoot(i);
             }
         }
     }
 
     @Override
     public void removeFeatureTreeRoot(IFeatureTree featureTree) {
-        for (Iterator<IFeatureTree> it = featureTreeRoots.listIterator(); it.hasNext(); ) {
-            if (it.next() == featureTree) {
-                it.remove();
+        prepareChange();
+        for (int i = featureTreeRoots.size() - 1; i >= 0; i--) {
+            if (featureTreeRoots.get(i) == featureTree) {
+                removeFeatureTreeRoot(i);
             }
         }
     }
 
+    protected void removeFeatureTreeRoot(int index) {
+        IFeatureTree featureTree = featureTreeRoots.remove(index);
+        unindexFeatureTree(featureTree);
+        journal.recordTreeChange(FeatureModelChange.Type.FEATURE_TREE_REMOVED, featureTree, null, index);
+    }
+
+    @Override
+    public Result<IFeatureTree> getFeatureTree(IFeature feature) {
+        materialize();
+        return Result.ofNullable(featureTrees.get(feature.getIdentifier()));
+    }
+
+    @Override
+    public Result<IFeature> getTreeFeature(IIdentifier identifier) {
+        materialize();
+        return Result.ofNullable(featureTrees.get(Objects.requireNonNull(identifier)))
+                .map(IFeatureTree::getFeature);
+    }
+
+    @Override
+    public boolean hasTreeFeature(IIdentifier identifier) {
+        materialize();
+        return featureTrees.containsKey(identifier);
+    }
+
+    @Override
+    public boolean hasTreeFeature(IFeature feature) {
+        materialize();
+        return featureTrees.containsKey(feature.getIdentifier());
+    }
+
+    @Override
+    public int getNumberOfTreeFeatures() {
+        materialize();
+        return featureTrees.size();
+    }
+
+    /**
+     * Updates the tree index after a subtree has been attached to a node of the feature tree.
+     * Called by {@link FeatureTree} whenever a child is added.
+     *
+     * @param parentTree the parent node
+     * @param childTree the attached subtree
+     * @param index the child index of the attached subtree
+     */
+    void featureTreeAdded(IFeatureTree parentTree, IFeatureTree childTree, int index) {
+        if (isIndexed(parentTree)) {
+            indexFeatureTree(childTree);
+        }
+        journal.recordTreeChange(FeatureModelChange.Type.FEATURE_TREE_ADDED, childTree, parentTree, index);
+    }
+
+    /**
+     * Updates the tree index after a subtree has been detached from a node of the feature tree.
+     * Called by {@link FeatureTree} whenever a child is removed.
+     *
+     * @param parentTree the former parent node
+     * @param childTree the detached subtree
+     * @param index the former child index of the detached subtree
+     */
+    void featureTreeRemoved(IFeatureTree parentTree, IFeatureTree childTree, int index) {
+        if (isIndexed(parentTree)) {
+            unindexFeatureTree(childTree);
+        }
+        journal.recordTreeChange(FeatureModelChange.Type.FEATURE_TREE_REMOVED, childTree, parentTree, index);
+    }
+
+    /**
+     * Records a change of the type of a feature.
+     * Called by {@link Feature}.
+     *
+     * @param feature the feature
+     * @param oldType the previous type
+     * @param newType the new type
+     */
+    void featureTypeChanged(IFeature feature, Class<?> oldType, Class<?> newType) {
+        if (features.get(feature.getIdentifier()) == feature) {
+            journal.recordValueChange(FeatureModelChange.Type.FEATURE_TYPE_CHANGED, feature, oldType, newType);
+        }
+    }
+
+    /**
+     * Records a change of the group ID of a node of the feature tree.
+     * Called by {@link FeatureTree}.
+     *
+     * @param featureTree the node
+     * @param oldGroupID the previous group ID
+     * @param newGroupID the new group ID
+     */
+    void featureTreeGroupIDChanged(IFeatureTree featureTree, int oldGroupID, int newGroupID) {
+        journal.recordValueChange(FeatureModelChange.Type.GROUP_ID_CHANGED, featureTree, oldGroupID, newGroupID);
+    }
+
+    /**
+     * Records a change of the groups of a node of the feature tree.
+     * Called by {@link FeatureTree}.
+     *
+     * @param featureTree the node
+     * @param oldGroups a copy of the previous groups
+     */
+    void featureTreeGroupsChanged(IFeatureTree featureTree, List<Group> oldGroups) {
+        journal.recordValueChange(FeatureModelChange.Type.GROUPS_CHANGED, featureTree, oldGroups, null);
+    }
+
+    /**
+     * Records a change of the feature range of a node of the feature tree.
+     * Called by {@link FeatureTree}.
+     *
+     * @param featureTree the node
+     * @param oldFeatureRange the previous feature range
+     * @param newFeatureRange the new feature range
+     */
+    void featureTreeRangeChanged(IFeatureTree featureTree, Range oldFeatureRange, Range newFeatureRange) {
+        journal.recordValueChange(
+                FeatureModelChange.Type.FEATURE_RANGE_CHANGED, featureTree, oldFeatureRange, newFeatureRange);
+    }
+
+    /**
+     * Records a change of an attribute value of this feature model or one of its features, constraints, or trees.
+     * Changes of elements that are not (yet) contained in this feature model are ignored.
+     *
+     * @param element the changed element
+     * @param attribute the attribute
+     * @param oldValue the previous value, if any
+     * @param newValue the new value, if any
+     */
+    void attributeValueChanged(Object element, IAttribute<?> attribute, Object oldValue, Object newValue) {
+        if (element instanceof IFeature) {
+            if (!features.containsKey(((IFeature) element).getIdentifier())) return;
+            if (Attributes.NAME.equals(attribute)) {
+                IFeatureTree featureTree = featureTrees.get(((IFeature) element).getIdentifier());
+                if (featureTree instanceof FeatureTree) {
+                    ((FeatureTree) featureTree).invalidateStructuralHash();
+                }
+                journal.recordValueChange(FeatureModelChange.Type.FEATURE_RENAMED, element, oldValue, newValue);
+                return;
+            }
+        } else if (element instanceof IConstraint) {
+            if (constraints.get(((IConstraint) element).getIdentifier()) != element) return;
+        }
+        journal.recordAttributeChange(element, attribute, oldValue, newValue);
+    }
+
+    protected boolean isIndexed(IFeatureTree featureTree) {
+        return featureTrees.get(featureTree.getFeature().getIdentifier()) == featureTree;
+    }
+
+    protected void indexFeatureTree(IFeatureTree featureTree) {
+        featureTreeVersion++;
+        FeatureTreeCursor.forEach(
+                List.of(featureTree), Order.PRE_ORDER, t -> featureTrees.put(t.getFeature().getIdentifier(), t));
+    }
+
+    protected void unindexFeatureTree(IFeatureTree featureTree) {
+        featureTreeVersion++;
+        FeatureTreeCursor.forEach(List.of(featureTree), Order.PRE_ORDER, t -> {
+            if (featureTrees.remove(t.getFeature().getIdentifier(), t)) {
+                releaseFeature(t.getFeature());
+            }
+        });
+    }
+
     @Override
     public IConstraint addConstraint(IFormula formula) {
+        prepareChange();
         IConstraint newConstraint = new Constraint(this, Trees.clone(formula));
         constraints.put(newConstraint.getIdentifier(), newConstraint);
+        indexConstraint(newConstraint, newConstraint.getReferencedFeatures());
+        journal.record(FeatureModelChange.Type.CONSTRAINT_ADDED, newConstraint);
         return newConstraint;
     }
 
     @Override
     public boolean removeConstraint(IConstraint constraint) {
+        prepareChange();
         Objects.requireNonNull(constraint);
-        return constraints.remove(constraint.getIdentifier()) != null;
+        IConstraint removedConstraint = constraints.remove(constraint.getIdentifier());
+        if (removedConstraint == null) {
+            return false;
+        }
+        unindexConstraint(removedConstraint, removedConstraint.getReferencedFeatures());
+        journal.record(FeatureModelChange.Type.CONSTRAINT_REMOVED, removedConstraint);
+        return true;
+    }
+
+    /**
+     * Adds a constraint unless there is an {@link #getEquivalentConstraint(IFormula) equivalent} one.
+     *
+     * @param formula the formula
+     * @return the added constraint, or an empty result if an equivalent constraint already exists
+     */
+    public Result<IConstraint> addConstraintIfAbsent(IFormula formula) {
+        if (getEquivalentConstraint(formula).isPresent()) {
+            return Result.empty();
+        }
+        return Result.of(addConstraint(formula));
+    }
+
+    /**
+     * {@return a constraint of this feature model whose formula equals the given formula
+     * up to the order and nesting of commutative operands, if any}
+     * Runs in time linear in the size of the formula.
+     *
+     * @param formula the formula
+     */
+    public Result<IConstraint> getEquivalentConstraint(IFormula formula) {
+        materialize();
+        List<IConstraint> equivalentConstraints =
+                getConstraintDuplicateIndex().getEquivalentConstraints(Objects.requireNonNull(formula));
+        return equivalentConstraints.isEmpty() ? Result.empty() : Result.of(equivalentConstraints.get(0));
+    }
+
+    /**
+     * {@return all groups of at least two constraints whose formulas are equal
+     * up to the order and nesting of commutative operands}
+     * Runs in time linear in the number of constraints.
+     */
+    public List<List<IConstraint>> getDuplicateConstraints() {
+        materialize();
+        return getConstraintDuplicateIndex().getDuplicateConstraints(constraints.values());
+    }
+
+    private ConstraintDuplicateIndex getConstraintDuplicateIndex() {
+        if (constraintDuplicateIndex == null) {
+            constraintDuplicateIndex = new ConstraintDuplicateIndex(constraints.values());
+        }
+        return constraintDuplicateIndex;
+    }
+
+    /**
+     * {@return all constraints of this feature model that reference the given feature}
+     * Runs in time proportional to the number of referencing constraints.
+     *
+     * @param feature the feature
+     */
+    public LinkedHashSet<IConstraint> getReferencingConstraints(IFeature feature) {
+        materialize();
+        LinkedHashSet<IConstraint> referencingConstraints = featureConstraints.get(feature.getIdentifier());
+        return referencingConstraints == null ? Sets.empty() : new LinkedHashSet<>(referencingConstraints);
+    }
+
+    /**
+     * Updates the constraint index after the formula of a constraint has changed.
+     * Called by {@link Constraint} whenever its formula is set.
+     *
+     * @param constraint the changed constraint
+     * @param oldFormula the previous formula
+     * @param oldFeatures the features referenced by the previous formula
+     */
+    void constraintFormulaChanged(IConstraint constraint, IFormula oldFormula, Collection<IFeature> oldFeatures) {
+        if (constraints.get(constraint.getIdentifier()) != constraint) {
+            return;
+        }
+        unindexConstraint(constraint, oldFeatures);
+        indexConstraint(constraint, constraint.getReferencedFeatures());
+        journal.recordFormulaChange(constraint, oldFormula, new LinkedHashSet<>(oldFeatures), constraint.getFormula());
+    }
+
+    protected void indexConstraint(IConstraint constraint, Collection<IFeature> referencedFeatures) {
+        if (constraintDuplicateIndex != null) {
+            constraintDuplicateIndex.add(constraint);
+        }
+        for (IFeature feature : referencedFeatures) {
+            featureConstraints
+                    .computeIfAbsent(feature.getIdentifier(), identifier -> new LinkedHashSet<>(4))
+                    .add(constraint);
+        }
+    }
+
+    protected void unindexConstraint(IConstraint constraint, Collection<IFeature> referencedFeatures) {
+        if (constraintDuplicateIndex != null) {
+            constraintDuplicateIndex.remove(constraint);
+        }
+        for (IFeature feature : referencedFeatures) {
+            LinkedHashSet<IConstraint> referencingConstraints = featureConstraints.get(feature.getIdentifier());
+            if (referencingConstraints != null) {
+                referencingConstraints.remove(constraint);
+                if (referencingConstraints.isEmpty()) {
+                    featureConstraints.remove(feature.getIdentifier());
+                }
+            }
+        }
     }
 
     @Override
     public IFeature addFeature(String name) {
+        prepareChange();
         Objects.requireNonNull(name);
         Feature feature = new Feature(this);
         feature.setName(name);
         features.put(feature.getIdentifier(), feature);
+        featureNames.put(name, feature);
+        journal.record(FeatureModelChange.Type.FEATURE_ADDED, feature);
         return feature;
     }
 
     @Override
     public boolean removeFeature(IFeature feature) {
-        return features.remove(feature.getIdentifier()) != null;
+        prepareChange();
+        IFeature removedFeature = features.remove(feature.getIdentifier());
+        if (removedFeature == null) {
+            return false;
+        }
+        removedFeature.getName().ifPresent(name -> featureNames.remove(name, removedFeature));
+        journal.record(FeatureModelChange.Type.FEATURE_REMOVED, removedFeature);
+        releaseFeature(removedFeature);
+        return true;
+    }
+
+    /**
+     * Releases the attribute store index of a feature that is neither contained in this feature model
+     * nor in its feature tree, so that the index can be reused by new features.
+     * While the journal is enabled, the release is postponed until it is disabled again.
+     *
+     * @param feature the feature
+     */
+    protected void releaseFeature(IFeature feature) {
+        if (!(feature instanceof Feature)
+                || ((Feature) feature).attributeStore != featureAttributeStore
+                || features.containsKey(feature.getIdentifier())
+                || featureTrees.containsKey(feature.getIdentifier())) {
+            return;
+        }
+        if (journal.isEnabled()) {
+            removedFeatures.add((Feature) feature);
+        } else {
+            releaseRemovedFeatures();
+            ((Feature) feature).releaseIndex();
+        }
+    }
+
+    protected void releaseRemovedFeatures() {
+        if (removedFeatures.isEmpty() || journal.isEnabled()) {
+            return;
+        }
+        List<Feature> pendingFeatures = new ArrayList<>(removedFeatures);
+        removedFeatures.clear();
+        pendingFeatures.forEach(this::releaseFeature);
+    }
+
+    /**
+     * Updates the name index after the name of a feature has changed.
+     * Called by {@link Feature} whenever its {@link Attributes#NAME} attribute is set or removed.
+     *
+     * @param feature the renamed feature
+     * @param oldName the previous name, if any
+     * @param newName the new name, if any
+     */
+    void updateFeatureName(IFeature feature, String oldName, String newName) {
+        if (!features.containsKey(feature.getIdentifier())) {
+            return;
+        }
+        if (oldName != null) {
+            featureNames.remove(oldName, feature);
+        }
+        if (newName != null) {
+            featureNames.put(newName, feature);
+        }
     }
 
     @Override
     public int getNumberOfFeatures() {
+        materialize();
         return features.size();
     }
 
     @Override
     public Result<IFeature> getFeature(String name) {
-        return Result.ofOptional(features.entrySet().stream()
-                .map(e -> e.getValue())
-                .filter(f -> f.getName().valueEquals(name))
-                .findFirst());
+        materialize();
+        return Result.ofNullable(featureNames.get(Objects.requireNonNull(name)));
     }
 
     @Override
     public boolean hasFeature(IIdentifier identifier) {
+        materialize();
         return features.containsKey(identifier);
     }
 
     @Override
     public boolean hasFeature(IFeature feature) {
+        materialize();
         return features.containsKey(feature.getIdentifier());
     }
+
+    /**
+     * {@inheritDoc}
+     * Enables the {@link #getJournal() journal} until the outermost transaction ends, if it is disabled.
+     */
+    @Override
+    public void begin() {
+        if (transactions.isEmpty()) {
+            journalEnabledByTransaction = !journal.isEnabled();
+            journal.setEnabled(true);
+            journal.setRetainedVersion(journal.getVersion());
+        }
+        transactions.push(journal.getVersion());
+    }
+
+    @Override
+    public void commit() {
+        endTransaction();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Restored features and constraints keep their identity, but restored constraints are ordered last.
+     */
+    @Override
+    public void rollback() {
+        prepareChange();
+        long version = transactions.isEmpty() ? -1 : transactions.peek();
+        if (version < 0) {
+            throw new IllegalStateException("no transaction to roll back");
+        }
+        List<FeatureModelChange> changes = journal.getChangesSince(version).orElseThrow();
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            undo(changes.get(i));
+        }
+        endTransaction();
+    }
+
+    protected void endTransaction() {
+        if (transactions.isEmpty()) {
+            throw new IllegalStateException("no transaction to end");
+        }
+        transactions.pop();
+        journal.setRetainedVersion(transactions.isEmpty() ? Long.MAX_VALUE : transactions.peekLast());
+        if (transactions.isEmpty() && journalEnabledByTransaction) {
+            journalEnabledByTransaction = false;
+            journal.setEnabled(false);
+            releaseRemovedFeatures();
+        }
+    }
+
+    /**
+     * Undoes a single change by applying its inverse mutation, which is recorded as a change itself.
+     *
+     * @param change the change
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected void undo(FeatureModelChange change) {
+        Object element = change.getElement();
+        switch (change.getType()) {
+            case FEATURE_ADDED:
+                removeFeature((IFeature) element);
+                break;
+            case FEATURE_REMOVED:
+                IFeature feature = (IFeature) element;
+                features.put(feature.getIdentifier(), feature);
+                feature.getName().ifPresent(name -> featureNames.put(name, feature));
+                journal.record(FeatureModelChange.Type.FEATURE_ADDED, feature);
+                break;
+            case FEATURE_RENAMED:
+                if (change.getOldValue() == null) {
+                    ((IFeature) element).mutate().removeAttributeValue(Attributes.NAME);
+                } else {
+                    ((IFeature) element).mutate().setName((String) change.getOldValue());
+                }
+                break;
+            case FEATURE_TYPE_CHANGED:
+                ((IFeature) element).mutate().setType((Class<?>) change.getOldValue());
+                break;
+            case FEATURE_TREE_ADDED:
+                if (change.getParentTree().isPresent()) {
+                    change.getParentTree().get().mutate().removeChild((IFeatureTree) element);
+                } else if (change.getIndex() < featureTreeRoots.size()
+                        && featureTreeRoots.get(change.getIndex()) == element) {
+                    removeFeatureTreeRoot(change.getIndex());
+                } else {
+                    removeFeatureTreeRoot((IFeatureTree) element);
+                }
+                break;
+            case FEATURE_TREE_REMOVED:
+                if (change.getParentTree().isPresent()) {
+                    change.getParentTree().get().mutate().addChild(change.getIndex(), (IFeatureTree) element);
+                } else {
+                    addFeatureTreeRoot(change.getIndex(), (IFeatureTree) element);
+                }
+                break;
+            case GROUP_ID_CHANGED:
+                ((IFeatureTree) element).mutate().setGroupID((Integer) change.getOldValue());
+                break;
+            case GROUPS_CHANGED:
+                List<Group> oldGroups = new ArrayList<>();
+                for (Group group : (List<Group>) change.getOldValue()) {
+                    oldGroups.add(group.clone());
+                }
+                ((IFeatureTree) element).mutate().setGroups(oldGroups);
+                break;
+            case FEATURE_RANGE_CHANGED:
+                ((IFeatureTree) element).mutate().setFeatureRange((Range) change.getOldValue());
+                break;
+            case CONSTRAINT_ADDED:
+                removeConstraint((IConstraint) element);
+                break;
+            case CONSTRAINT_REMOVED:
+                IConstraint constraint = (IConstraint) element;
+                constraints.put(constraint.getIdentifier(), constraint);
+                indexConstraint(constraint, constraint.getReferencedFeatures());
+                journal.record(FeatureModelChange.Type.CONSTRAINT_ADDED, constraint);
+                break;
+            case FORMULA_CHANGED:
+                if (element instanceof Constraint) {
+                    ((Constraint) element)
+                            .setFormula((IFormula) change.getOldValue(), change.getOldReferencedFeatures());
+                } else {
+                    ((IConstraint) element).mutate().setFormula((IFormula) change.getOldValue());
+                }
+                break;
+            case ATTRIBUTE_CHANGED:
+                Attribute attribute = (Attribute) change.getAttribute().get();
+                Object oldValue = change.getOldValue();
+                if (oldValue == null) {
+                    ((IMutatableAttributable) element).removeAttributeValue(attribute);
+                } else if (element == this) {
+                    Object newValue = attributeValues.put(attribute, oldValue);
+                    attributeValueChanged(this, attribute, newValue, oldValue);
+                } else if (element instanceof AFeatureModelElement) {
+                    ((AFeatureModelElement) element).putAttributeValue(attribute, oldValue);
+                } else {
+                    ((IMutatableAttributable) element).setAttributeValue(attribute, oldValue);
+                }
+                break;
+            default:
+                throw new IllegalStateException(String.valueOf(change.getType()));
+        }
+    }
 }
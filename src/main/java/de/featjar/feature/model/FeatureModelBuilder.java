@@ -0,0 +1,451 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import de.featjar.base.data.Attribute;
+import de.featjar.base.data.Range;
+import de.featjar.base.data.identifier.IIdentifier;
+import de.featjar.base.data.identifier.UUIDIdentifier;
+import de.featjar.feature.model.FeatureTree.Group;
+import de.featjar.formula.structure.IFormula;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Builds a {@link FeatureModel} from features, tree edges, groups, and constraints given in bulk.
+ * Features are referred to by the dense index returned by {@link #addFeature(String)}.
+ * In contrast to {@link IMutableFeatureModel}, nothing is validated or allocated per call.
+ * Instead, name uniqueness, tree structure, and group consistency are checked once in {@link #build()},
+ * which then creates all elements in a {@link FeatureModel} whose maps are sized in advance.
+ * Calls that refer to missing features or groups are ignored and reported by {@link #build()} as well.
+ * Formulas of constraints are not copied, so a builder can only be built once.
+ */
+public class FeatureModelBuilder {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final IIdentifier identifier;
+
+    private String[] names;
+    private int[] featureRangeLowerBounds;
+    private int[] featureRangeUpperBounds;
+    private List<int[]>[] groups;
+    private int numberOfFeatures;
+
+    private int[] roots;
+    private int numberOfRoots;
+
+    private int[] edgeParents;
+    private int[] edgeChildren;
+    private int[] edgeGroupIDs;
+    private int numberOfEdges;
+
+    private int[] attributeFeatures = new int[0];
+    private final List<Attribute<?>> attributes = new ArrayList<>();
+    private final List<Object> attributeValues = new ArrayList<>();
+
+    private final List<IFormula> constraints;
+
+    /**
+     * Problems found by calls before {@link #build()}, which are reported along with all other problems.
+     */
+    private final List<String> problems = new ArrayList<>();
+
+    private boolean built;
+
+    public FeatureModelBuilder() {
+        this(UUIDIdentifier.newInstance(), DEFAULT_CAPACITY, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a builder.
+     *
+     * @param identifier the identifier of the built feature model
+     * @param expectedNumberOfFeatures the expected number of features
+     * @param expectedNumberOfConstraints the expected number of constraints
+     */
+    @SuppressWarnings("unchecked")
+    public FeatureModelBuilder(IIdentifier identifier, int expectedNumberOfFeatures, int expectedNumberOfConstraints) {
+        this.identifier = Objects.requireNonNull(identifier);
+        int capacity = Math.max(1, expectedNumberOfFeatures);
+        names = new String[capacity];
+        featureRangeLowerBounds = new int[capacity];
+        featureRangeUpperBounds = new int[capacity];
+        groups = new List[capacity];
+        roots = new int[1];
+        edgeParents = new int[capacity];
+        edgeChildren = new int[capacity];
+        edgeGroupIDs = new int[capacity];
+        constraints = new ArrayList<>(Math.max(1, expectedNumberOfConstraints));
+    }
+
+    /**
+     * Adds a feature.
+     * The feature is optional, has a single and-group, and is not part of the feature tree until it is
+     * added as a {@link #addRoot(int) root} or {@link #addChild(int, int, int) child}.
+     *
+     * @param name the feature name
+     * @return the index of the new feature
+     */
+    public int addFeature(String name) {
+        if (numberOfFeatures == names.length) {
+            int capacity = numberOfFeatures + (numberOfFeatures >> 1) + 1;
+            names = Arrays.copyOf(names, capacity);
+            featureRangeLowerBounds = Arrays.copyOf(featureRangeLowerBounds, capacity);
+            featureRangeUpperBounds = Arrays.copyOf(featureRangeUpperBounds, capacity);
+            groups = Arrays.copyOf(groups, capacity);
+        }
+        names[numberOfFeatures] = Objects.requireNonNull(name);
+        featureRangeLowerBounds[numberOfFeatures] = 0;
+        featureRangeUpperBounds[numberOfFeatures] = 1;
+        return numberOfFeatures++;
+    }
+
+    public int getNumberOfFeatures() {
+        return numberOfFeatures;
+    }
+
+    /**
+     * Sets an attribute value of a feature.
+     * The value is neither type-checked nor validated until {@link #build()}.
+     * Names must be given in {@link #addFeature(String)}.
+     *
+     * @param feature the feature index
+     * @param attribute the attribute
+     * @param value the value
+     * @param <S> the type of the value
+     * @return this builder
+     */
+    public <S> FeatureModelBuilder setAttributeValue(int feature, Attribute<S> attribute, S value) {
+        if (Attributes.NAME.equals(attribute)) {
+            throw new IllegalArgumentException("feature names must be given when adding features");
+        }
+        if (attributes.size() == attributeFeatures.length) {
+            attributeFeatures = Arrays.copyOf(attributeFeatures, 2 * attributes.size() + 1);
+        }
+        attributeFeatures[attributes.size()] = feature;
+        attributes.add(Objects.requireNonNull(attribute));
+        attributeValues.add(Objects.requireNonNull(value));
+        return this;
+    }
+
+    /**
+     * Adds a feature as root of a new feature tree.
+     *
+     * @param feature the feature index
+     * @return this builder
+     */
+    public FeatureModelBuilder addRoot(int feature) {
+        if (numberOfRoots == roots.length) {
+            roots = Arrays.copyOf(roots, 2 * numberOfRoots);
+        }
+        roots[numberOfRoots++] = feature;
+        return this;
+    }
+
+    /**
+     * Adds a feature as the last child of another feature in its first group.
+     *
+     * @param parent the parent feature index
+     * @param child the child feature index
+     * @return this builder
+     */
+    public FeatureModelBuilder addChild(int parent, int child) {
+        return addChild(parent, child, 0);
+    }
+
+    /**
+     * Adds a feature as the last child of another feature in a given group.
+     *
+     * @param parent the parent feature index
+     * @param child the child feature index
+     * @param groupID the group of the parent feature the child belongs to
+     * @return this builder
+     */
+    public FeatureModelBuilder addChild(int parent, int child, int groupID) {
+        if (numberOfEdges == edgeParents.length) {
+            int capacity = numberOfEdges + (numberOfEdges >> 1) + 1;
+            edgeParents = Arrays.copyOf(edgeParents, capacity);
+            edgeChildren = Arrays.copyOf(edgeChildren, capacity);
+            edgeGroupIDs = Arrays.copyOf(edgeGroupIDs, capacity);
+        }
+        edgeParents[numberOfEdges] = parent;
+        edgeChildren[numberOfEdges] = child;
+        edgeGroupIDs[numberOfEdges] = groupID;
+        numberOfEdges++;
+        return this;
+    }
+
+    /**
+     * Adds a group to a feature.
+     * Each feature initially has one and-group with ID 0.
+     *
+     * @param feature the feature index
+     * @param lowerBound the lower bound of the group
+     * @param upperBound the upper bound of the group
+     * @return the ID of the new group, or -1 if the feature does not exist
+     */
+    public int addGroup(int feature, int lowerBound, int upperBound) {
+        if (!checkFeature(feature, problems)) {
+            return -1;
+        }
+        List<int[]> featureGroups = getGroups(feature);
+        featureGroups.add(new int[] {lowerBound, upperBound});
+        return featureGroups.size() - 1;
+    }
+
+    /**
+     * Sets the range of a group of a feature.
+     *
+     * @param feature the feature index
+     * @param groupID the group ID
+     * @param lowerBound the lower bound of the group
+     * @param upperBound the upper bound of the group
+     * @return this builder
+     */
+    public FeatureModelBuilder setGroupRange(int feature, int groupID, int lowerBound, int upperBound) {
+        if (!checkFeature(feature, problems)) {
+            return this;
+        }
+        List<int[]> featureGroups = getGroups(feature);
+        if (groupID < 0 || groupID >= featureGroups.size()) {
+            problems.add(String.format(
+                    "group %d of feature %s does not exist, as it has %d groups",
+                    groupID, names[feature], featureGroups.size()));
+            return this;
+        }
+        int[] group = featureGroups.get(groupID);
+        group[0] = lowerBound;
+        group[1] = upperBound;
+        return this;
+    }
+
+    private List<int[]> getGroups(int feature) {
+        List<int[]> featureGroups = groups[feature];
+        if (featureGroups == null) {
+            featureGroups = new ArrayList<>(2);
+            featureGroups.add(new int[] {0, Range.OPEN});
+            groups[feature] = featureGroups;
+        }
+        return featureGroups;
+    }
+
+    /**
+     * Sets the feature range of a feature.
+     *
+     * @param feature the feature index
+     * @param lowerBound the lower bound
+     * @param upperBound the upper bound
+     * @return this builder
+     */
+    public FeatureModelBuilder setFeatureRange(int feature, int lowerBound, int upperBound) {
+        if (!checkFeature(feature, problems)) {
+            return this;
+        }
+        featureRangeLowerBounds[feature] = lowerBound;
+        featureRangeUpperBounds[feature] = upperBound;
+        return this;
+    }
+
+    public FeatureModelBuilder setMandatory(int feature) {
+        if (!checkFeature(feature, problems)) {
+            return this;
+        }
+        return setFeatureRange(feature, 1, Math.max(1, featureRangeUpperBounds[feature]));
+    }
+
+    /**
+     * Adds a constraint.
+     * The formula is not copied and may only reference features added to this builder.
+     *
+     * @param formula the formula
+     * @return this builder
+     */
+    public FeatureModelBuilder addConstraint(IFormula formula) {
+        constraints.add(Objects.requireNonNull(formula));
+        return this;
+    }
+
+    /**
+     * {@return a new feature model containing all added elements}
+     *
+     * @throws IllegalArgumentException if feature names are not unique, the feature tree is not a forest,
+     *     a call referred to a missing feature or group, or a constraint references an unknown feature
+     * @throws IllegalStateException if this builder has already been built
+     */
+    public FeatureModel build() {
+        if (built) {
+            throw new IllegalStateException("feature model has already been built");
+        }
+        built = true;
+        List<String> problems = new ArrayList<>(this.problems);
+
+        HashMap<String, Integer> nameIndex = new HashMap<>((int) (numberOfFeatures * 1.5));
+        for (int i = 0; i < numberOfFeatures; i++) {
+            Integer otherFeature = nameIndex.putIfAbsent(names[i], i);
+            if (otherFeature != null) {
+                problems.add(String.format("features %d and %d are both named %s", otherFeature, i, names[i]));
+            }
+        }
+
+        int[] parents = new int[numberOfFeatures];
+        Arrays.fill(parents, -1);
+        boolean[] isRoot = new boolean[numberOfFeatures];
+        for (int i = 0; i < numberOfRoots; i++) {
+            int root = roots[i];
+            if (!checkFeature(root, problems)) continue;
+            if (isRoot[root]) problems.add(String.format("feature %s is added as root twice", names[root]));
+            isRoot[root] = true;
+        }
+        int[] childrenCounts = new int[numberOfFeatures + 1];
+        for (int i = 0; i < numberOfEdges; i++) {
+            int parent = edgeParents[i];
+            int child = edgeChildren[i];
+            if (!checkFeature(parent, problems) || !checkFeature(child, problems)) continue;
+            if (parents[child] >= 0 || isRoot[child]) {
+                problems.add(String.format("feature %s has more than one parent", names[child]));
+            }
+            parents[child] = parent;
+            int groupCount = groups[parent] == null ? 1 : groups[parent].size();
+            if (edgeGroupIDs[i] < 0 || edgeGroupIDs[i] >= groupCount) {
+                problems.add(String.format(
+                        "feature %s refers to group %d of feature %s, which has %d groups",
+                        names[child], edgeGroupIDs[i], names[parent], groupCount));
+            }
+            childrenCounts[parent + 1]++;
+        }
+        throwIfProblems(problems);
+
+        int[] childOffsets = childrenCounts;
+        for (int i = 0; i < numberOfFeatures; i++) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+        int[] childEdges = new int[numberOfEdges];
+        int[] nextChild = Arrays.copyOf(childOffsets, numberOfFeatures);
+        for (int i = 0; i < numberOfEdges; i++) {
+            childEdges[nextChild[edgeParents[i]]++] = i;
+        }
+
+        FeatureModel featureModel = new FeatureModel(identifier, numberOfFeatures, constraints.size());
+        featureModel.journal.setSuspended(true);
+        Feature[] features = new Feature[numberOfFeatures];
+        for (int i = 0; i < numberOfFeatures; i++) {
+            Feature feature = new Feature(featureModel);
+            feature.attributeStore.set(feature.index, Attributes.NAME, names[i]);
+            featureModel.features.put(feature.getIdentifier(), feature);
+            featureModel.featureNames.put(names[i], feature);
+            features[i] = feature;
+        }
+        for (int i = 0; i < attributes.size(); i++) {
+            int featureIndex = attributeFeatures[i];
+            if (!checkFeature(featureIndex, problems)) continue;
+            Feature feature = features[featureIndex];
+            Attribute<?> attribute = attributes.get(i);
+            Object value = attributeValues.get(i);
+            if (!attribute.getType().isInstance(value)) {
+                problems.add(String.format(
+                        "value %s of attribute %s of feature %s is not of type %s",
+                        value, attribute, names[featureIndex], attribute.getType()));
+                continue;
+            }
+            feature.attributeStore.set(feature.index, attribute, value);
+        }
+        throwIfProblems(problems);
+
+        FeatureTree[] featureTrees = new FeatureTree[numberOfFeatures];
+        int[] stack = new int[numberOfFeatures];
+        int numberOfTreeFeatures = 0;
+        for (int i = 0; i < numberOfRoots; i++) {
+            int stackSize = 0;
+            stack[stackSize++] = roots[i];
+            while (stackSize > 0) {
+                int feature = stack[--stackSize];
+                featureTrees[feature] = newFeatureTree(features[feature], feature);
+                numberOfTreeFeatures++;
+                for (int j = childOffsets[feature]; j < childOffsets[feature + 1]; j++) {
+                    stack[stackSize++] = edgeChildren[childEdges[j]];
+                }
+            }
+        }
+        if (numberOfTreeFeatures < numberOfRoots + numberOfEdges) {
+            throw new IllegalArgumentException("feature tree contains a cycle or a subtree without root");
+        }
+        for (int feature = 0; feature < numberOfFeatures; feature++) {
+            int childrenCount = childOffsets[feature + 1] - childOffsets[feature];
+            if (childrenCount == 0) continue;
+            List<FeatureTree> children = new ArrayList<>(childrenCount);
+            for (int j = childOffsets[feature]; j < childOffsets[feature + 1]; j++) {
+                int edge = childEdges[j];
+                FeatureTree childTree = featureTrees[edgeChildren[edge]];
+                childTree.groupID = edgeGroupIDs[edge];
+                children.add(childTree);
+            }
+            featureTrees[feature].setChildren(children);
+        }
+        for (int i = 0; i < numberOfRoots; i++) {
+            featureModel.addFeatureTreeRoot(featureTrees[roots[i]]);
+        }
+
+        for (IFormula formula : constraints) {
+            Constraint constraint;
+            try {
+                constraint = new Constraint(featureModel, formula);
+            } catch (RuntimeException e) {
+                problems.add(String.format("constraint %s is invalid: %s", formula, e.getMessage()));
+                continue;
+            }
+            featureModel.constraints.put(constraint.getIdentifier(), constraint);
+            featureModel.indexConstraint(constraint, constraint.getReferencedFeatures());
+        }
+        throwIfProblems(problems);
+        featureModel.journal.setSuspended(false);
+        return featureModel;
+    }
+
+    private FeatureTree newFeatureTree(Feature feature, int index) {
+        FeatureTree featureTree = new FeatureTree(feature);
+        featureTree.featureRange = Range.of(featureRangeLowerBounds[index], featureRangeUpperBounds[index]);
+        if (groups[index] != null) {
+            featureTree.groups = new ArrayList<>(groups[index].size());
+            for (int[] group : groups[index]) {
+                featureTree.groups.add(new Group(group[0], group[1]));
+            }
+        }
+        return featureTree;
+    }
+
+    private boolean checkFeature(int feature, List<String> problems) {
+        if (feature < 0 || feature >= numberOfFeatures) {
+            problems.add(String.format("feature %d does not exist", feature));
+            return false;
+        }
+        return true;
+    }
+
+    private static void throwIfProblems(List<String> problems) {
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException(String.join("\n", problems));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import de.featjar.base.data.IAttribute;
+import de.featjar.base.data.Result;
+import java.util.Set;
+
+/**
+ * A single change recorded in the {@link FeatureModelJournal} of a {@link FeatureModel}.
+ * Besides the changed element, each change records enough information to be undone.
+ */
+public final class FeatureModelChange {
+
+    /**
+     * The type of a change, which determines the meaning of its fields.
+     */
+    public enum Type {
+        /**
+         * A {@link IFeature feature} was added to the feature model.
+         */
+        FEATURE_ADDED,
+        /**
+         * A {@link IFeature feature} was removed from the feature model.
+         */
+        FEATURE_REMOVED,
+        /**
+         * A {@link IFeature feature} was renamed from the old to the new value.
+         */
+        FEATURE_RENAMED,
+        /**
+         * The type of a {@link IFeature feature} changed from the old to the new value.
+         */
+        FEATURE_TYPE_CHANGED,
+        /**
+         * A {@link IFeatureTree subtree} was attached to a parent tree (or as root, if there is no parent tree)
+         * at the given index.
+         */
+        FEATURE_TREE_ADDED,
+        /**
+         * A {@link IFeatureTree subtree} was detached from a parent tree (or as root, if there is no parent tree)
+         * at the given index.
+         */
+        FEATURE_TREE_REMOVED,
+        /**
+         * The group ID of a {@link IFeatureTree tree} changed from the old to the new value.
+         */
+        GROUP_ID_CHANGED,
+        /**
+         * The groups of a {@link IFeatureTree tree} changed, the old value being a copy of the previous groups.
+         */
+        GROUPS_CHANGED,
+        /**
+         * The feature range of a {@link IFeatureTree tree} changed from the old to the new value.
+         */
+        FEATURE_RANGE_CHANGED,
+        /**
+         * A {@link IConstraint constraint} was added to the feature model.
+         */
+        CONSTRAINT_ADDED,
+        /**
+         * A {@link IConstraint constraint} was removed from the feature model.
+         */
+        CONSTRAINT_REMOVED,
+        /**
+         * The formula of a {@link IConstraint constraint} changed from the old to the new value.
+         * Also records the {@link FeatureModelChange#getOldReferencedFeatures() features referenced}
+         * by the old formula.
+         */
+        FORMULA_CHANGED,
+        /**
+         * The value of an attribute of a feature, constraint, tree, or the feature model itself changed
+         * from the old to the new value, either of which is null if the attribute was not set.
+         */
+        ATTRIBUTE_CHANGED
+    }
+
+    private final long version;
+    private final Type type;
+    private final Object element;
+    private final IFeatureTree parentTree;
+    private final int index;
+    private final IAttribute<?> attribute;
+    private final Object oldValue;
+    private final Object newValue;
+    private final Set<IFeature> oldReferencedFeatures;
+
+    FeatureModelChange(
+            long version,
+            Type type,
+            Object element,
+            IFeatureTree parentTree,
+            int index,
+            IAttribute<?> attribute,
+            Object oldValue,
+            Object newValue,
+            Set<IFeature> oldReferencedFeatures) {
+        this.version = version;
+        this.type = type;
+        this.element = element;
+        this.parentTree = parentTree;
+        this.index = index;
+        this.attribute = attribute;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.oldReferencedFeatures = oldReferencedFeatures;
+    }
+
+    /**
+     * {@return the version of the feature model right after this change}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * {@return the changed element}
+     * This is a {@link IFeature}, {@link IConstraint}, {@link IFeatureTree}, or {@link IFeatureModel},
+     * depending on the {@link #getType() type} of this change.
+     */
+    public Object getElement() {
+        return element;
+    }
+
+    /**
+     * {@return the parent tree of an added or removed subtree, empty for roots and other changes}
+     */
+    public Result<IFeatureTree> getParentTree() {
+        return Result.ofNullable(parentTree);
+    }
+
+    /**
+     * {@return the child index of an added or removed subtree, -1 for other changes}
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * {@return the changed attribute, empty for changes other than attribute changes}
+     */
+    public Result<IAttribute<?>> getAttribute() {
+        return Result.ofNullable(attribute);
+    }
+
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    public Object getNewValue() {
+        return newValue;
+    }
+
+    /**
+     * {@return the features referenced by the old formula of a changed constraint, empty for other changes}
+     * As formulas reference features by name, they cannot always be resolved again after features are renamed.
+     */
+    public Set<IFeature> getOldReferencedFeatures() {
+        return oldReferencedFeatures == null ? Set.of() : oldReferencedFeatures;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "FeatureModelChange{version=%d, type=%s, element=%s, oldValue=%s, newValue=%s}",
+                version, type, element, oldValue, newValue);
+    }
+}
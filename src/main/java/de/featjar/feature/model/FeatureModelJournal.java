@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import de.featjar.base.data.IAttribute;
+import de.featjar.base.data.Result;
+import de.featjar.feature.model.FeatureModelChange.Type;
+import de.featjar.formula.structure.IFormula;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records all {@link FeatureModelChange changes} of a {@link FeatureModel} together with a version number
+ * that increases with each change.
+ * A consumer remembers the version it has last seen and {@link #getChangesSince(long) pulls} all later
+ * changes in one batch.
+ * Only the most recent changes are retained, so a consumer that falls too far behind has to recompute
+ * its state from scratch.
+ * As retained changes reference the changed elements, recording is disabled by default and has to be
+ * {@link #setEnabled(boolean) enabled} by consumers.
+ * While disabled, the version still increases with each change, but no changes are retained.
+ */
+public class FeatureModelJournal {
+
+    public static final int DEFAULT_CAPACITY = 1 << 12;
+
+    protected final ArrayList<FeatureModelChange> changes = new ArrayList<>();
+    protected long oldestVersion;
+    protected long version;
+    protected int capacity = DEFAULT_CAPACITY;
+    protected boolean enabled;
+    protected boolean suspended;
+    protected long retainedVersion = Long.MAX_VALUE;
+
+    /**
+     * {@return the current version of the feature model}
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * {@return the oldest version for which {@link #getChangesSince(long)} can still return all later changes}
+     */
+    public long getOldestVersion() {
+        return oldestVersion;
+    }
+
+    /**
+     * {@return all changes after the given version, in order, or an empty result if some were already discarded}
+     * Runs in time proportional to the number of returned changes.
+     *
+     * @param version the version last seen by the caller
+     */
+    public Result<List<FeatureModelChange>> getChangesSince(long version) {
+        if (version < oldestVersion || version > this.version) {
+            return Result.empty();
+        }
+        return Result.of(List.copyOf(changes.subList((int) (version - oldestVersion), changes.size())));
+    }
+
+    /**
+     * {@return the maximum number of changes retained}
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the maximum number of changes retained.
+     * When it is exceeded, the older half of the changes is discarded.
+     *
+     * @param capacity the capacity
+     */
+    public void setCapacity(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException(String.format("capacity must be positive (%d)", capacity));
+        this.capacity = capacity;
+        discardOldChanges();
+    }
+
+    /**
+     * Retains all changes after the given version, regardless of the capacity.
+     *
+     * @param retainedVersion the version, or {@link Long#MAX_VALUE} to retain only the most recent changes
+     */
+    void setRetainedVersion(long retainedVersion) {
+        this.retainedVersion = retainedVersion;
+        discardOldChanges();
+    }
+
+    /**
+     * {@return whether changes are recorded}
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables recording.
+     * Disabling discards all retained changes.
+     *
+     * @param enabled whether to record changes
+     * @throws IllegalStateException if recording is disabled during a transaction
+     */
+    public void setEnabled(boolean enabled) {
+        if (!enabled && retainedVersion != Long.MAX_VALUE) {
+            throw new IllegalStateException("cannot disable the journal during a transaction");
+        }
+        this.enabled = enabled;
+        if (!enabled) {
+            changes.clear();
+            oldestVersion = version;
+        }
+    }
+
+    /**
+     * Suspends or resumes the journal, which neither records changes nor increases the version while suspended.
+     * Used while a feature model is constructed, as its construction is not a change.
+     *
+     * @param suspended whether to suspend the journal
+     */
+    void setSuspended(boolean suspended) {
+        this.suspended = suspended;
+    }
+
+    /**
+     * {@return whether a change should be recorded}
+     * If the journal is disabled, only increases the version.
+     */
+    private boolean isRecording() {
+        if (suspended) {
+            return false;
+        }
+        if (!enabled) {
+            oldestVersion = ++version;
+            return false;
+        }
+        return true;
+    }
+
+    void record(Type type, Object element) {
+        record(type, element, null, -1, null, null, null);
+    }
+
+    void recordValueChange(Type type, Object element, Object oldValue, Object newValue) {
+        record(type, element, null, -1, null, oldValue, newValue);
+    }
+
+    void recordTreeChange(Type type, IFeatureTree featureTree, IFeatureTree parentTree, int index) {
+        record(type, featureTree, parentTree, index, null, null, null);
+    }
+
+    void recordFormulaChange(
+            IConstraint constraint, IFormula oldFormula, Set<IFeature> oldReferencedFeatures, IFormula newFormula) {
+        if (!isRecording()) {
+            return;
+        }
+        add(new FeatureModelChange(
+                ++version,
+                Type.FORMULA_CHANGED,
+                constraint,
+                null,
+                -1,
+                null,
+                oldFormula,
+                newFormula,
+                Collections.unmodifiableSet(oldReferencedFeatures)));
+    }
+
+    void recordAttributeChange(Object element, IAttribute<?> attribute, Object oldValue, Object newValue) {
+        record(Type.ATTRIBUTE_CHANGED, element, null, -1, attribute, oldValue, newValue);
+    }
+
+    protected void record(
+            Type type,
+            Object element,
+            IFeatureTree parentTree,
+            int index,
+            IAttribute<?> attribute,
+            Object oldValue,
+            Object newValue) {
+        if (!isRecording()) {
+            return;
+        }
+        add(new FeatureModelChange(++version, type, element, parentTree, index, attribute, oldValue, newValue, null));
+    }
+
+    private void add(FeatureModelChange change) {
+        changes.add(change);
+        if (changes.size() > capacity) {
+            discardOldChanges();
+        }
+    }
+
+    protected void discardOldChanges() {
+        if (changes.size() > capacity) {
+            int discarded = (int) Math.min(changes.size() - capacity / 2, retainedVersion - oldestVersion);
+            if (discarded > 0) {
+                changes.subList(0, discarded).clear();
+                oldestVersion += discarded;
+            }
+        }
+    }
+}
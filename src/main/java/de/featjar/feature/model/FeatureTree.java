@@ -26,13 +26,17 @@ import de.featjar.base.data.Range;
 import de.featjar.base.tree.structure.ARootedTree;
 import de.featjar.base.tree.structure.ITree;
 import de.featjar.feature.model.IFeatureTree.IMutableFeatureTree;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFeatureTree {
@@ -40,7 +44,7 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
     public static final class Group {
         private Range groupRange;
 
-        private Group(int lowerBound, int upperBound) {
+        Group(int lowerBound, int upperBound) {
             this.groupRange = Range.of(lowerBound, upperBound);
         }
 
@@ -110,6 +114,87 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
 
     protected LinkedHashMap<IAttribute<?>, Object> attributeValues;
 
+    /**
+     * Partitions the children of this node by their group ID, preserving the order of children.
+     * Built on the first query, and from then on updated in place whenever a child is added, removed,
+     * or replaced, or changes its group ID.
+     * Only {@link #setChildren(List)} discards it, as it replaces all children at once.
+     */
+    protected GroupPartition groupChildren;
+
+    /**
+     * The children of a node, partitioned by group ID.
+     * Holds a partition for every group ID of a child, even if the node currently has fewer groups,
+     * so that changing the groups does not require repartitioning.
+     */
+    protected static final class GroupPartition {
+        private final ArrayList<ArrayList<IFeatureTree>> members = new ArrayList<>();
+        private final ArrayList<List<IFeatureTree>> views = new ArrayList<>();
+
+        private List<IFeatureTree> get(int groupID) {
+            return groupID >= 0 && groupID < views.size() ? views.get(groupID) : List.of();
+        }
+
+        private ArrayList<IFeatureTree> getMembers(int groupID) {
+            while (members.size() <= groupID) {
+                ArrayList<IFeatureTree> groupMembers = new ArrayList<>();
+                members.add(groupMembers);
+                views.add(Collections.unmodifiableList(groupMembers));
+            }
+            return members.get(groupID);
+        }
+
+        private void add(int groupID, IFeatureTree child) {
+            if (groupID >= 0) {
+                getMembers(groupID).add(child);
+            }
+        }
+
+        /**
+         * Adds a child to its group, before the next child of the same group in the given children.
+         */
+        private void add(List<IFeatureTree> children, int index, IFeatureTree child) {
+            int groupID = child.getGroupID();
+            if (groupID < 0) {
+                return;
+            }
+            ArrayList<IFeatureTree> groupMembers = getMembers(groupID);
+            for (int i = index + 1; i < children.size(); i++) {
+                IFeatureTree sibling = children.get(i);
+                if (sibling.getGroupID() == groupID) {
+                    groupMembers.add(indexOf(groupMembers, sibling), child);
+                    return;
+                }
+            }
+            groupMembers.add(child);
+        }
+
+        private void remove(int groupID, IFeatureTree child) {
+            if (groupID >= 0 && groupID < members.size()) {
+                ArrayList<IFeatureTree> groupMembers = members.get(groupID);
+                int index = indexOf(groupMembers, child);
+                if (index >= 0) {
+                    groupMembers.remove(index);
+                }
+            }
+        }
+
+        private static int indexOf(List<IFeatureTree> trees, IFeatureTree tree) {
+            for (int i = 0; i < trees.size(); i++) {
+                if (trees.get(i) == tree) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Caches the {@link #getStructuralHash() structural hash} of this subtree, zero if it has to be recomputed.
+     * Reset for this node and all its ancestors whenever this subtree changes.
+     */
+    private volatile long structuralHash;
+
     protected FeatureTree(IFeature feature) {
         this.feature = Objects.requireNonNull(feature);
         featureRange = Range.of(0, 1);
@@ -118,13 +203,164 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
     }
 
     protected FeatureTree(FeatureTree otherFeatureTree) {
-        feature = otherFeatureTree.feature;
+        this(otherFeatureTree, otherFeatureTree.feature);
+    }
+
+    protected FeatureTree(FeatureTree otherFeatureTree, IFeature feature) {
+        this.feature = Objects.requireNonNull(feature);
         groupID = otherFeatureTree.groupID;
         featureRange = otherFeatureTree.featureRange.clone();
+        groups = new ArrayList<>(otherFeatureTree.groups.size());
         otherFeatureTree.groups.stream().map(Group::clone).forEach(groups::add);
         attributeValues = otherFeatureTree.cloneAttributes();
     }
 
+    /**
+     * {@return a deep copy of this subtree, labeled with the features given by a mapping}
+     * Used to clone the feature tree together with its {@link FeatureModel}.
+     *
+     * @param featureMapping maps each feature of this subtree to the feature of the copy
+     */
+    protected FeatureTree cloneTree(Function<IFeature, IFeature> featureMapping) {
+        FeatureTree newRoot = new FeatureTree(this, featureMapping.apply(feature));
+        // pairs each node to clone with the already cloned parent it is attached to
+        ArrayDeque<FeatureTree> trees = new ArrayDeque<>();
+        ArrayDeque<FeatureTree> newParents = new ArrayDeque<>();
+        pushChildren(this, newRoot, trees, newParents);
+        while (!trees.isEmpty()) {
+            FeatureTree tree = trees.pop();
+            FeatureTree newTree = new FeatureTree(tree, featureMapping.apply(tree.feature));
+            newParents.pop().addChild(newTree);
+            pushChildren(tree, newTree, trees, newParents);
+        }
+        return newRoot;
+    }
+
+    private static void pushChildren(
+            FeatureTree tree, FeatureTree newTree, ArrayDeque<FeatureTree> trees, ArrayDeque<FeatureTree> newParents) {
+        List<IFeatureTree> children = tree.getChildren();
+        for (int i = children.size() - 1; i >= 0; i--) {
+            trees.push((FeatureTree) children.get(i));
+            newParents.push(newTree);
+        }
+    }
+
+    private static final class SliceFrame {
+        private final FeatureTree tree;
+        private final FeatureTree newParent;
+        private final boolean implied;
+        private final int newGroupID;
+
+        private SliceFrame(FeatureTree tree, FeatureTree newParent, boolean implied, int newGroupID) {
+            this.tree = tree;
+            this.newParent = newParent;
+            this.implied = implied;
+            this.newGroupID = newGroupID;
+        }
+    }
+
+    /**
+     * Slices this subtree down to the nodes labeled with kept features, treating this node as a root.
+     * Each kept node is attached to its nearest kept ancestor, or becomes a new root if there is none.
+     * The groups of removed nodes are collapsed into the groups of that ancestor.
+     * Group bounds and feature ranges are relaxed wherever removed nodes could have contributed to them,
+     * so that every configuration of this subtree restricted to the kept features is a configuration of the slice.
+     * Runs in time linear in the size of this subtree.
+     * Used to slice the feature tree together with its {@link FeatureModel}.
+     *
+     * @param keptFeatures decides whether the node of a feature is kept
+     * @param featureMapping maps each kept feature of this subtree to the feature of the slice
+     * @param newRoots the list to add the roots of the slice to
+     */
+    protected void sliceTree(
+            Predicate<IFeature> keptFeatures, Function<IFeature, IFeature> featureMapping, List<IFeatureTree> newRoots) {
+        IdentityHashMap<FeatureTree, List<IFeatureTree>> newChildren = new IdentityHashMap<>();
+        IdentityHashMap<FeatureTree, Integer> andGroupIDs = new IdentityHashMap<>();
+        ArrayDeque<SliceFrame> stack = new ArrayDeque<>();
+        // for a kept node, implied states whether all removed nodes between it and its new parent are mandatory,
+        // for a removed node, whether it is selected whenever its new parent (or, for roots, the model) is
+        stack.push(new SliceFrame(this, null, keptFeatures.test(feature) || featureRange.getLowerBound() >= 1, 0));
+        while (!stack.isEmpty()) {
+            SliceFrame frame = stack.pop();
+            FeatureTree tree = frame.tree;
+            boolean isKept = keptFeatures.test(tree.feature);
+            List<IFeatureTree> children = tree.getChildren();
+            FeatureTree newParent = frame.newParent;
+            boolean implied = frame.implied;
+            if (isKept) {
+                FeatureTree newTree = new FeatureTree(tree, featureMapping.apply(tree.feature));
+                if (!implied) {
+                    newTree.featureRange = Range.of(0, tree.featureRange.getUpperBound());
+                }
+                if (newParent == null) {
+                    newTree.groupID = 0;
+                    newRoots.add(newTree);
+                } else {
+                    newTree.groupID = frame.newGroupID;
+                    newChildren.computeIfAbsent(newParent, t -> new ArrayList<>()).add(newTree);
+                }
+                if (!children.isEmpty()) {
+                    newTree.groups.clear();
+                }
+                newParent = newTree;
+                implied = true;
+            }
+            if (children.isEmpty()) {
+                continue;
+            }
+
+            int groupCount = tree.groups.size();
+            int[] childrenCounts = new int[groupCount];
+            int[] keptChildrenCounts = new int[groupCount];
+            for (IFeatureTree child : children) {
+                childrenCounts[child.getGroupID()]++;
+                if (keptFeatures.test(child.getFeature())) {
+                    keptChildrenCounts[child.getGroupID()]++;
+                }
+            }
+            int[] newGroupIDs = new int[groupCount];
+            for (int groupID = 0; newParent != null && groupID < groupCount; groupID++) {
+                Group group = tree.groups.get(groupID);
+                int keptChildrenCount = keptChildrenCounts[groupID];
+                int removedChildrenCount = childrenCounts[groupID] - keptChildrenCount;
+                int lowerBound = implied ? Math.max(0, group.getLowerBound() - removedChildrenCount) : 0;
+                int upperBound = group.getUpperBound() == Range.OPEN
+                        ? Range.OPEN
+                        : Math.min(group.getUpperBound(), keptChildrenCount);
+                boolean isAnd = lowerBound == 0 && (upperBound == Range.OPEN || upperBound >= keptChildrenCount);
+                if (isKept) {
+                    newParent.groups.add(isAnd ? new Group(0, Range.OPEN) : new Group(lowerBound, upperBound));
+                    newGroupIDs[groupID] = groupID;
+                } else if (keptChildrenCount > 0) {
+                    if (isAnd) {
+                        newGroupIDs[groupID] = andGroupIDs.computeIfAbsent(newParent, FeatureTree::getAndGroupID);
+                    } else {
+                        newParent.groups.add(new Group(lowerBound, upperBound));
+                        newGroupIDs[groupID] = newParent.groups.size() - 1;
+                    }
+                }
+            }
+            for (int i = children.size() - 1; i >= 0; i--) {
+                FeatureTree child = (FeatureTree) children.get(i);
+                boolean childImplied = keptFeatures.test(child.feature)
+                        ? implied
+                        : implied && child.featureRange.getLowerBound() >= 1;
+                stack.push(new SliceFrame(child, newParent, childImplied, newGroupIDs[child.groupID]));
+            }
+        }
+        newChildren.forEach(FeatureTree::setChildren);
+    }
+
+    private int getAndGroupID() {
+        for (int groupID = 0; groupID < groups.size(); groupID++) {
+            if (groups.get(groupID).isAnd()) {
+                return groupID;
+            }
+        }
+        groups.add(new Group(0, Range.OPEN));
+        return groups.size() - 1;
+    }
+
     @Override
     public IFeature getFeature() {
         return feature;
@@ -142,14 +378,89 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
 
     @Override
     public List<IFeatureTree> getGroupSiblings() {
-        return parent.getChildren().stream()
-                .filter(t -> t.getGroupID() == groupID)
-                .collect(Collectors.toList());
+        return parent == null ? List.of(this) : parent.getGroupChildren(groupID);
     }
 
+    /**
+     * {@inheritDoc}
+     * Returns an unmodifiable, live view on the children of the group.
+     */
     @Override
     public List<IFeatureTree> getGroupChildren(int groupID) {
-        return getChildren().stream().filter(t -> t.getGroupID() == groupID).collect(Collectors.toList());
+        if (groupID < 0 || groupID >= groups.size()) {
+            return List.of();
+        }
+        GroupPartition partition = groupChildren;
+        if (partition == null) {
+            partition = new GroupPartition();
+            for (IFeatureTree child : getChildren()) {
+                partition.add(child.getGroupID(), child);
+            }
+            groupChildren = partition;
+        }
+        return partition.get(groupID);
+    }
+
+    /**
+     * {@return a content-based hash of this subtree}
+     * Combines, in order, the name and feature range of each feature, the bounds of each group,
+     * and the group ID and hash of each child, but neither identifiers nor other attributes.
+     * Thus, structurally identical subtrees have equal hashes, even across feature models and program runs.
+     * Hashes are cached per node and only invalidated for the changed node and its ancestors,
+     * so recomputing the hash after a local change only rehashes the path to the changed node.
+     */
+    public long getStructuralHash() {
+        long hash = structuralHash;
+        if (hash != 0) {
+            return hash;
+        }
+        // collect all nodes without cached hash in pre-order, then hash them bottom-up
+        ArrayList<FeatureTree> unhashedTrees = new ArrayList<>();
+        ArrayDeque<FeatureTree> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            FeatureTree tree = stack.pop();
+            unhashedTrees.add(tree);
+            for (IFeatureTree child : tree.getChildren()) {
+                if (((FeatureTree) child).structuralHash == 0) {
+                    stack.push((FeatureTree) child);
+                }
+            }
+        }
+        for (int i = unhashedTrees.size() - 1; i >= 0; i--) {
+            unhashedTrees.get(i).computeStructuralHash();
+        }
+        return structuralHash;
+    }
+
+    private void computeStructuralHash() {
+        long hash = StructuralHash.hash(feature.getName().orElse(""));
+        hash = StructuralHash.combine(hash, featureRange.getLowerBound());
+        hash = StructuralHash.combine(hash, featureRange.getUpperBound());
+        hash = StructuralHash.combine(hash, groups.size());
+        for (Group group : groups) {
+            hash = StructuralHash.combine(hash, group.getLowerBound());
+            hash = StructuralHash.combine(hash, group.getUpperBound());
+        }
+        List<IFeatureTree> children = getChildren();
+        hash = StructuralHash.combine(hash, children.size());
+        for (IFeatureTree child : children) {
+            hash = StructuralHash.combine(hash, child.getGroupID());
+            hash = StructuralHash.combine(hash, ((FeatureTree) child).structuralHash);
+        }
+        structuralHash = StructuralHash.nonZero(hash);
+    }
+
+    /**
+     * Invalidates the cached structural hash of this node and all its ancestors.
+     * Stops at the first node without cached hash, whose ancestors have no cached hash either.
+     */
+    void invalidateStructuralHash() {
+        IFeatureTree tree = this;
+        while (tree instanceof FeatureTree && ((FeatureTree) tree).structuralHash != 0) {
+            ((FeatureTree) tree).structuralHash = 0;
+            tree = tree.getParent().orElse(null);
+        }
     }
 
     @Override
@@ -158,7 +469,9 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
     }
 
     public void setGroupCount(int count) {
+        List<Group> oldGroups = copyGroups();
         groups = new ArrayList<>(count);
+        groupsChanged(oldGroups);
     }
 
     @Override
@@ -206,56 +519,193 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
         return Objects.hash(feature, groupID, groups);
     }
 
+    @Override
+    public void addChild(int index, IFeatureTree newChild) {
+        prepareChange();
+        super.addChild(index, newChild);
+        if (groupChildren != null) {
+            groupChildren.add(getChildren(), index, newChild);
+        }
+        invalidateStructuralHash();
+        FeatureModel featureModel = getContainingFeatureModel();
+        if (featureModel != null) featureModel.featureTreeAdded(this, newChild, index);
+    }
+
+    @Override
+    public void addChild(IFeatureTree newChild) {
+        addChild(getChildrenCount(), newChild);
+    }
+
+    @Override
+    public void removeChild(IFeatureTree child) {
+        prepareChange();
+        int index = getChildren().indexOf(child);
+        super.removeChild(child);
+        if (groupChildren != null && index >= 0) {
+            groupChildren.remove(child.getGroupID(), child);
+        }
+        invalidateStructuralHash();
+        FeatureModel featureModel = getContainingFeatureModel();
+        if (featureModel != null && index >= 0) featureModel.featureTreeRemoved(this, child, index);
+    }
+
+    @Override
+    public void replaceChild(IFeatureTree oldChild, IFeatureTree newChild) {
+        prepareChange();
+        int index = getChildren().indexOf(oldChild);
+        super.replaceChild(oldChild, newChild);
+        if (groupChildren != null && index >= 0) {
+            groupChildren.remove(oldChild.getGroupID(), oldChild);
+            groupChildren.add(getChildren(), index, newChild);
+        }
+        invalidateStructuralHash();
+        FeatureModel featureModel = getContainingFeatureModel();
+        if (featureModel != null && index >= 0) {
+            featureModel.featureTreeRemoved(this, oldChild, index);
+            featureModel.featureTreeAdded(this, newChild, index);
+        }
+    }
+
+    @Override
+    public void setChildren(List<? extends IFeatureTree> children) {
+        prepareChange();
+        List<IFeatureTree> oldChildren = new ArrayList<>(getChildren());
+        super.setChildren(children);
+        groupChildren = null;
+        invalidateStructuralHash();
+        FeatureModel featureModel = getContainingFeatureModel();
+        if (featureModel != null) {
+            for (int i = oldChildren.size() - 1; i >= 0; i--) {
+                featureModel.featureTreeRemoved(this, oldChildren.get(i), i);
+            }
+            List<IFeatureTree> newChildren = getChildren();
+            for (int i = 0; i < newChildren.size(); i++) {
+                featureModel.featureTreeAdded(this, newChildren.get(i), i);
+            }
+        }
+    }
+
+    private FeatureModel getContainingFeatureModel() {
+        IFeatureModel featureModel = feature.getFeatureModel();
+        return featureModel instanceof FeatureModel ? (FeatureModel) featureModel : null;
+    }
+
+    private void prepareChange() {
+        FeatureModel featureModel = getContainingFeatureModel();
+        if (featureModel != null) featureModel.prepareChange();
+    }
+
     @Override
     public void addGroup(int lowerBound, int upperBound) {
+        prepareChange();
+        List<Group> oldGroups = copyGroups();
         groups.add(new Group(lowerBound, upperBound));
+        groupsChanged(oldGroups);
     }
 
     @Override
     public void addGroup(Range groupRange) {
+        prepareChange();
+        List<Group> oldGroups = copyGroups();
         groups.add(new Group(groupRange));
+        groupsChanged(oldGroups);
     }
 
     public void setGroups(List<Group> groups) {
+        prepareChange();
+        List<Group> oldGroups = copyGroups();
         this.groups.clear();
         this.groups.addAll(groups);
+        groupsChanged(oldGroups);
+    }
+
+    private List<Group> copyGroups() {
+        return getContainingFeatureModel() == null
+                ? null
+                : groups.stream().map(Group::clone).collect(Collectors.toUnmodifiableList());
+    }
+
+    private void groupsChanged(List<Group> oldGroups) {
+        invalidateStructuralHash();
+        FeatureModel featureModel = getContainingFeatureModel();
+        if (featureModel != null) featureModel.featureTreeGroupsChanged(this, oldGroups);
     }
 
     public void setGroupID(int groupID) {
+        prepareChange();
         if (parent == null) throw new IllegalArgumentException("Cannot set groupID for root feature!");
         if (groupID < 0) throw new IllegalArgumentException(String.format("groupID must be positive (%d)", groupID));
         if (groupID >= parent.getGroups().size())
             throw new IllegalArgumentException(
                     String.format("groupID must be smaller than number of groups in parent feature (%d)", groupID));
-        this.groupID = groupID;
+        if (this.groupID != groupID) {
+            int oldGroupID = this.groupID;
+            this.groupID = groupID;
+            if (parent instanceof FeatureTree) {
+                FeatureTree parentTree = (FeatureTree) parent;
+                if (parentTree.groupChildren != null) {
+                    List<IFeatureTree> siblings = parentTree.getChildren();
+                    parentTree.groupChildren.remove(oldGroupID, this);
+                    parentTree.groupChildren.add(siblings, GroupPartition.indexOf(siblings, this), this);
+                }
+                parentTree.invalidateStructuralHash();
+            }
+            FeatureModel featureModel = getContainingFeatureModel();
+            if (featureModel != null) featureModel.featureTreeGroupIDChanged(this, oldGroupID, groupID);
+        }
     }
 
     @Override
     public void setGroupRange(Range groupRange) {
-        getGroup().groupRange = Range.copy(groupRange);
+        prepareChange();
+        if (parent instanceof FeatureTree) {
+            FeatureTree parentTree = (FeatureTree) parent;
+            List<Group> oldGroups = parentTree.copyGroups();
+            getGroup().groupRange = Range.copy(groupRange);
+            parentTree.groupsChanged(oldGroups);
+        } else {
+            getGroup().groupRange = Range.copy(groupRange);
+            invalidateStructuralHash();
+        }
     }
 
     @Override
     public void setFeatureRange(Range featureRange) {
+        prepareChange();
+        Range oldFeatureRange = this.featureRange;
         this.featureRange = Range.copy(featureRange);
+        featureRangeChanged(oldFeatureRange);
     }
 
     @Override
     public void setMandatory() {
+        prepareChange();
+        Range oldFeatureRange = featureRange.clone();
         if (featureRange.getUpperBound() == 0) {
             featureRange = Range.exactly(1);
         } else {
             featureRange.setLowerBound(1);
         }
+        featureRangeChanged(oldFeatureRange);
     }
 
     @Override
     public void setOptional() {
+        prepareChange();
+        Range oldFeatureRange = featureRange.clone();
         featureRange.setLowerBound(0);
+        featureRangeChanged(oldFeatureRange);
+    }
+
+    private void featureRangeChanged(Range oldFeatureRange) {
+        invalidateStructuralHash();
+        FeatureModel featureModel = getContainingFeatureModel();
+        if (featureModel != null) featureModel.featureTreeRangeChanged(this, oldFeatureRange, featureRange.clone());
     }
 
     @Override
     public <S> void setAttributeValue(Attribute<S> attribute, S value) {
+        prepareChange();
         if (value == null) {
             removeAttributeValue(attribute);
             return;
@@ -265,15 +715,26 @@ public class FeatureTree extends ARootedTree<IFeatureTree> implements IMutableFe
         if (attributeValues == null) {
             attributeValues = new LinkedHashMap<>();
         }
-        attributeValues.put(attribute, value);
+        Object oldValue = attributeValues.put(attribute, value);
+        attributeValueChanged(attribute, oldValue, value);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <S> S removeAttributeValue(Attribute<S> attribute) {
+        prepareChange();
         if (attributeValues == null) {
             attributeValues = new LinkedHashMap<>();
         }
-        return (S) attributeValues.remove(attribute);
+        S oldValue = (S) attributeValues.remove(attribute);
+        if (oldValue != null) {
+            attributeValueChanged(attribute, oldValue, null);
+        }
+        return oldValue;
+    }
+
+    private void attributeValueChanged(IAttribute<?> attribute, Object oldValue, Object newValue) {
+        FeatureModel featureModel = getContainingFeatureModel();
+        if (featureModel != null) featureModel.attributeValueChanged(this, attribute, oldValue, newValue);
     }
 }
@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import de.featjar.base.data.Result;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Traverses a forest of {@link IFeatureTree feature trees} in pre-order, post-order, or level-order.
+ * In contrast to streams created with {@link de.featjar.base.tree.Trees#preOrderStream},
+ * a cursor does not allocate per visited node.
+ * Instead, it keeps its traversal state in arrays that only grow with the depth (or, for level-order, the width)
+ * of the traversed trees and can be {@link #reset(List) reused} for further traversals.
+ * Deep trees are traversed without recursion.
+ * The traversed trees must not be changed during a traversal.
+ */
+public final class FeatureTreeCursor implements Iterator<IFeatureTree> {
+
+    /**
+     * The order in which a cursor visits the nodes of a feature tree.
+     */
+    public enum Order {
+        /**
+         * Visits each node before its children.
+         */
+        PRE_ORDER,
+        /**
+         * Visits each node after its children.
+         */
+        POST_ORDER,
+        /**
+         * Visits all nodes of one depth before the nodes of the next depth.
+         */
+        LEVEL_ORDER
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Order order;
+    private List<? extends IFeatureTree> roots;
+    private int rootIndex;
+
+    // stack of nodes and the index of their next child, for pre- and post-order
+    private IFeatureTree[] nodes = new IFeatureTree[INITIAL_CAPACITY];
+    private int[] childIndices = new int[INITIAL_CAPACITY];
+    private int depth;
+
+    // ring buffer of nodes to visit, for level-order
+    private int head;
+    private int size;
+
+    private IFeatureTree next;
+
+    /**
+     * Creates a cursor over the given roots and their descendants.
+     *
+     * @param roots the roots
+     * @param order the traversal order
+     */
+    public FeatureTreeCursor(List<? extends IFeatureTree> roots, Order order) {
+        this.order = Objects.requireNonNull(order);
+        reset(roots);
+    }
+
+    /**
+     * Creates a cursor over the given root and its descendants.
+     *
+     * @param root the root
+     * @param order the traversal order
+     */
+    public FeatureTreeCursor(IFeatureTree root, Order order) {
+        this(List.of(root), order);
+    }
+
+    /**
+     * Restarts this cursor on the given roots, reusing its arrays.
+     *
+     * @param roots the roots
+     */
+    public void reset(List<? extends IFeatureTree> roots) {
+        this.roots = Objects.requireNonNull(roots);
+        rootIndex = 0;
+        Arrays.fill(nodes, null);
+        depth = 0;
+        head = 0;
+        size = 0;
+        next = null;
+        if (order == Order.LEVEL_ORDER) {
+            for (IFeatureTree root : roots) {
+                enqueue(root);
+            }
+        }
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public IFeatureTree next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        IFeatureTree node = next;
+        next = null;
+        return node;
+    }
+
+    private IFeatureTree advance() {
+        switch (order) {
+            case PRE_ORDER:
+                return advancePreOrder();
+            case POST_ORDER:
+                return advancePostOrder();
+            case LEVEL_ORDER:
+                return advanceLevelOrder();
+            default:
+                throw new IllegalStateException(String.valueOf(order));
+        }
+    }
+
+    private IFeatureTree advancePreOrder() {
+        while (true) {
+            if (depth == 0) {
+                if (rootIndex == roots.size()) {
+                    return null;
+                }
+                IFeatureTree root = roots.get(rootIndex++);
+                push(root);
+                return root;
+            }
+            IFeatureTree node = nodes[depth - 1];
+            List<? extends IFeatureTree> children = node.getChildren();
+            int childIndex = childIndices[depth - 1];
+            if (childIndex < children.size()) {
+                childIndices[depth - 1]++;
+                IFeatureTree child = children.get(childIndex);
+                push(child);
+                return child;
+            }
+            nodes[--depth] = null;
+        }
+    }
+
+    private IFeatureTree advancePostOrder() {
+        while (true) {
+            if (depth == 0) {
+                if (rootIndex == roots.size()) {
+                    return null;
+                }
+                push(roots.get(rootIndex++));
+            }
+            IFeatureTree node = nodes[depth - 1];
+            List<? extends IFeatureTree> children = node.getChildren();
+            int childIndex = childIndices[depth - 1];
+            if (childIndex < children.size()) {
+                childIndices[depth - 1]++;
+                push(children.get(childIndex));
+            } else {
+                nodes[--depth] = null;
+                return node;
+            }
+        }
+    }
+
+    private IFeatureTree advanceLevelOrder() {
+        if (size == 0) {
+            return null;
+        }
+        IFeatureTree node = nodes[head];
+        nodes[head] = null;
+        head = (head + 1) & (nodes.length - 1);
+        size--;
+        List<? extends IFeatureTree> children = node.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            enqueue(children.get(i));
+        }
+        return node;
+    }
+
+    private void push(IFeatureTree node) {
+        if (depth == nodes.length) {
+            nodes = Arrays.copyOf(nodes, 2 * depth);
+            childIndices = Arrays.copyOf(childIndices, 2 * depth);
+        }
+        nodes[depth] = node;
+        childIndices[depth] = 0;
+        depth++;
+    }
+
+    private void enqueue(IFeatureTree node) {
+        if (size == nodes.length) {
+            IFeatureTree[] newNodes = new IFeatureTree[2 * size];
+            int headLength = size - head;
+            System.arraycopy(nodes, head, newNodes, 0, headLength);
+            System.arraycopy(nodes, 0, newNodes, headLength, head);
+            nodes = newNodes;
+            head = 0;
+        }
+        nodes[(head + size) & (nodes.length - 1)] = node;
+        size++;
+    }
+
+    /**
+     * Visits the given roots and their descendants.
+     *
+     * @param roots the roots
+     * @param order the traversal order
+     * @param visitor the visitor
+     */
+    public static void forEach(
+            List<? extends IFeatureTree> roots, Order order, Consumer<? super IFeatureTree> visitor) {
+        FeatureTreeCursor cursor = new FeatureTreeCursor(roots, order);
+        IFeatureTree node;
+        while ((node = cursor.advance()) != null) {
+            visitor.accept(node);
+        }
+    }
+
+    /**
+     * {@return the first node in pre-order among the given roots and their descendants that matches a predicate}
+     * Stops the traversal at the first match.
+     *
+     * @param roots the roots
+     * @param predicate the predicate
+     */
+    public static Result<IFeatureTree> findFirst(
+            List<? extends IFeatureTree> roots, Predicate<? super IFeatureTree> predicate) {
+        FeatureTreeCursor cursor = new FeatureTreeCursor(roots, Order.PRE_ORDER);
+        IFeatureTree node;
+        while ((node = cursor.advance()) != null) {
+            if (predicate.test(node)) {
+                return Result.of(node);
+            }
+        }
+        return Result.empty();
+    }
+}
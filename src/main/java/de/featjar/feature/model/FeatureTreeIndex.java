@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import de.featjar.base.data.Result;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Indexes the nodes of a feature forest for constant-time structural queries.
+ * Each node is labeled with its pre-order and post-order number, so that ancestry reduces to comparing intervals.
+ * Lowest common ancestors are found with a range minimum query on the Euler tour of the forest,
+ * answered in constant time by a sparse table.
+ * As ancestors precede their descendants in pre-order, the Euler tour stores pre-order numbers,
+ * whose minimum in a range of the tour is the lowest common ancestor of its ends.
+ * Building the index takes O(n log n) time and space for n nodes.
+ * An index is immutable and describes the feature tree at the time of its creation,
+ * see {@link FeatureModel#getFeatureTreeIndex()} for an index that is rebuilt after the feature tree changes.
+ */
+public final class FeatureTreeIndex {
+
+    private final IFeatureTree[] featureTrees;
+    private final int[] preOrderNumbers;
+    private final int[] postOrderNumbers;
+    private final int[] depths;
+    private final int[] rootNumbers;
+    private final int[] eulerTourIndices;
+    private final int[][] sparseTable;
+
+    /**
+     * Creates an index for the given roots and their descendants.
+     * All nodes must be labeled with {@link Feature features}, which are identified by their
+     * {@link Feature#getIndex() index}.
+     *
+     * @param roots the roots
+     */
+    FeatureTreeIndex(List<? extends IFeatureTree> roots) {
+        int numberOfNodes = 0;
+        int maximumFeatureIndex = -1;
+        FeatureTreeCursor cursor = new FeatureTreeCursor(roots, FeatureTreeCursor.Order.PRE_ORDER);
+        while (cursor.hasNext()) {
+            maximumFeatureIndex = Math.max(maximumFeatureIndex, ((Feature) cursor.next().getFeature()).getIndex());
+            numberOfNodes++;
+        }
+        featureTrees = new IFeatureTree[numberOfNodes];
+        preOrderNumbers = new int[maximumFeatureIndex + 1];
+        Arrays.fill(preOrderNumbers, -1);
+        postOrderNumbers = new int[numberOfNodes];
+        depths = new int[numberOfNodes];
+        rootNumbers = new int[numberOfNodes];
+        eulerTourIndices = new int[numberOfNodes];
+        int[] eulerTour = new int[Math.max(1, 2 * numberOfNodes - 1)];
+        int eulerTourLength = 0;
+
+        int[] stack = new int[Math.max(1, numberOfNodes)];
+        int[] childIndices = new int[Math.max(1, numberOfNodes)];
+        int preOrderNumber = 0;
+        int postOrderNumber = 0;
+        for (IFeatureTree root : roots) {
+            int rootNumber = preOrderNumber;
+            int depth = 0;
+            stack[0] = visit(root, preOrderNumber++, 0, rootNumber);
+            childIndices[0] = 0;
+            eulerTourIndices[stack[0]] = eulerTourLength;
+            eulerTour[eulerTourLength++] = stack[0];
+            while (depth >= 0) {
+                int node = stack[depth];
+                List<? extends IFeatureTree> children = featureTrees[node].getChildren();
+                if (childIndices[depth] < children.size()) {
+                    IFeatureTree child = children.get(childIndices[depth]++);
+                    depth++;
+                    stack[depth] = visit(child, preOrderNumber++, depth, rootNumber);
+                    childIndices[depth] = 0;
+                    eulerTourIndices[stack[depth]] = eulerTourLength;
+                    eulerTour[eulerTourLength++] = stack[depth];
+                } else {
+                    postOrderNumbers[node] = postOrderNumber++;
+                    depth--;
+                    if (depth >= 0) {
+                        eulerTour[eulerTourLength++] = stack[depth];
+                    }
+                }
+            }
+        }
+
+        int levels = 32 - Integer.numberOfLeadingZeros(Math.max(1, eulerTourLength));
+        sparseTable = new int[levels][];
+        sparseTable[0] = Arrays.copyOf(eulerTour, eulerTourLength);
+        for (int level = 1; level < levels; level++) {
+            int[] previousLevel = sparseTable[level - 1];
+            int halfWidth = 1 << (level - 1);
+            int[] currentLevel = new int[eulerTourLength - (1 << level) + 1];
+            for (int i = 0; i < currentLevel.length; i++) {
+                currentLevel[i] = Math.min(previousLevel[i], previousLevel[i + halfWidth]);
+            }
+            sparseTable[level] = currentLevel;
+        }
+    }
+
+    private int visit(IFeatureTree featureTree, int preOrderNumber, int depth, int rootNumber) {
+        featureTrees[preOrderNumber] = featureTree;
+        preOrderNumbers[((Feature) featureTree.getFeature()).getIndex()] = preOrderNumber;
+        depths[preOrderNumber] = depth;
+        rootNumbers[preOrderNumber] = rootNumber;
+        return preOrderNumber;
+    }
+
+    /**
+     * {@return the number of indexed nodes}
+     */
+    public int size() {
+        return featureTrees.length;
+    }
+
+    /**
+     * {@return whether the given feature is part of the indexed feature forest}
+     *
+     * @param feature the feature
+     */
+    public boolean contains(IFeature feature) {
+        return getNumber(feature) >= 0;
+    }
+
+    /**
+     * {@return the node with the given pre-order number}
+     *
+     * @param preOrderNumber the pre-order number
+     */
+    public IFeatureTree getFeatureTree(int preOrderNumber) {
+        return featureTrees[preOrderNumber];
+    }
+
+    public int getPreOrderNumber(IFeature feature) {
+        return getExistingNumber(feature);
+    }
+
+    public int getPostOrderNumber(IFeature feature) {
+        return postOrderNumbers[getExistingNumber(feature)];
+    }
+
+    /**
+     * {@return the depth of the given feature, which is zero for roots}
+     *
+     * @param feature the feature
+     */
+    public int getDepth(IFeature feature) {
+        return depths[getExistingNumber(feature)];
+    }
+
+    /**
+     * {@return the root feature of the tree containing the given feature}
+     *
+     * @param feature the feature
+     */
+    public IFeature getRoot(IFeature feature) {
+        return featureTrees[rootNumbers[getExistingNumber(feature)]].getFeature();
+    }
+
+    /**
+     * {@return whether a feature is a proper ancestor of another feature}
+     * Features that are not part of the indexed feature forest have no ancestors.
+     *
+     * @param ancestor the potential ancestor
+     * @param descendant the potential descendant
+     */
+    public boolean isAncestor(IFeature ancestor, IFeature descendant) {
+        int ancestorNumber = getNumber(ancestor);
+        int descendantNumber = getNumber(descendant);
+        return ancestorNumber >= 0
+                && descendantNumber >= 0
+                && ancestorNumber < descendantNumber
+                && postOrderNumbers[ancestorNumber] > postOrderNumbers[descendantNumber];
+    }
+
+    /**
+     * {@return the lowest common ancestor of two features, empty if they are not part of the same tree}
+     * A feature is considered an ancestor of itself.
+     *
+     * @param feature1 the first feature
+     * @param feature2 the second feature
+     */
+    public Result<IFeature> getLowestCommonAncestor(IFeature feature1, IFeature feature2) {
+        int number1 = getNumber(feature1);
+        int number2 = getNumber(feature2);
+        if (number1 < 0 || number2 < 0 || rootNumbers[number1] != rootNumbers[number2]) {
+            return Result.empty();
+        }
+        int from = Math.min(eulerTourIndices[number1], eulerTourIndices[number2]);
+        int to = Math.max(eulerTourIndices[number1], eulerTourIndices[number2]);
+        int level = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+        int[] levelMinimums = sparseTable[level];
+        return Result.of(featureTrees[Math.min(levelMinimums[from], levelMinimums[to - (1 << level) + 1])]
+                .getFeature());
+    }
+
+    private int getNumber(IFeature feature) {
+        if (!(feature instanceof Feature)) {
+            return -1;
+        }
+        int index = ((Feature) feature).getIndex();
+        if (index < 0 || index >= preOrderNumbers.length) {
+            return -1;
+        }
+        int number = preOrderNumbers[index];
+        return number >= 0 && featureTrees[number].getFeature() == feature ? number : -1;
+    }
+
+    private int getExistingNumber(IFeature feature) {
+        int number = getNumber(feature);
+        if (number < 0) {
+            throw new IllegalArgumentException(
+                    String.format("feature %s is not part of the feature tree", feature.getName().orElse("")));
+        }
+        return number;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Traverses a forest of {@link IFeatureTree feature trees} in pre-order, possibly in parallel on the common
+ * {@link ForkJoinPool}, keeping the pending nodes on an explicit stack.
+ * Whenever the pool has few queued tasks, the bottom half of the pending nodes, which are the roots of the largest
+ * pending subtrees, is forked into a new task.
+ * As the forked nodes follow all remaining nodes in pre-order, {@link #merge(Object, Object) merging} the results
+ * of the forked tasks into the own result in reverse order of forking visits all nodes in pre-order,
+ * so a parallel traversal yields the same result as a sequential one if merging is associative.
+ * The traversed trees must not be changed during a traversal.
+ *
+ * @param <F> the type of the frame computed for each node from the frame of its parent
+ * @param <R> the type of the result
+ */
+public abstract class FeatureTreeTask<F, R> extends RecursiveTask<R> {
+    private static final long serialVersionUID = 1L;
+    private static final int SURPLUS_TASKS = 3;
+
+    private IFeatureTree[] trees = new IFeatureTree[16];
+    private Object[] frames = new Object[16];
+    private int size;
+
+    /**
+     * {@return the result of traversing the given roots with this task}
+     * A task can only be used for one traversal.
+     *
+     * @param roots the roots
+     * @param parallel whether to traverse the trees in parallel on the common {@link ForkJoinPool}
+     */
+    public R traverse(List<IFeatureTree> roots, boolean parallel) {
+        for (int i = roots.size() - 1; i >= 0; i--) {
+            IFeatureTree root = roots.get(i);
+            push(root, newFrame(root, null));
+        }
+        if (parallel) {
+            return ForkJoinPool.commonPool().invoke(this);
+        }
+        R result = newResult();
+        visitPending(result, false);
+        return result;
+    }
+
+    /**
+     * {@return the frame of a node}
+     *
+     * @param tree the node
+     * @param parentFrame the frame of the parent node, null for roots
+     */
+    protected abstract F newFrame(IFeatureTree tree, F parentFrame);
+
+    /**
+     * {@return a new, empty result}
+     */
+    protected abstract R newResult();
+
+    /**
+     * Visits a node.
+     *
+     * @param tree the node
+     * @param frame the frame of the node
+     * @param childFrames the frames of the children of the node, in order
+     * @param result the result of the visiting task
+     */
+    protected abstract void visit(IFeatureTree tree, F frame, List<F> childFrames, R result);
+
+    /**
+     * Merges the result of a forked task, whose nodes follow the nodes of the given result in pre-order.
+     *
+     * @param result the result of the forking task
+     * @param forkedResult the result of the forked task
+     */
+    protected abstract void merge(R result, R forkedResult);
+
+    /**
+     * {@return a new task of the same kind, which pending nodes are split off into}
+     */
+    protected abstract FeatureTreeTask<F, R> newTask();
+
+    @Override
+    protected R compute() {
+        R result = newResult();
+        List<FeatureTreeTask<F, R>> forkedTasks = visitPending(result, true);
+        for (int i = forkedTasks.size() - 1; i >= 0; i--) {
+            merge(result, forkedTasks.get(i).join());
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeatureTreeTask<F, R>> visitPending(R result, boolean parallel) {
+        List<FeatureTreeTask<F, R>> forkedTasks = new ArrayList<>();
+        List<F> childFrames = new ArrayList<>();
+        while (size > 0) {
+            if (parallel && size > 1 && getSurplusQueuedTaskCount() < SURPLUS_TASKS) {
+                FeatureTreeTask<F, R> forkedTask = split();
+                forkedTask.fork();
+                forkedTasks.add(forkedTask);
+            }
+            IFeatureTree tree = trees[--size];
+            F frame = (F) frames[size];
+            trees[size] = null;
+            frames[size] = null;
+            List<IFeatureTree> children = tree.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                IFeatureTree child = children.get(i);
+                push(child, newFrame(child, frame));
+            }
+            childFrames.clear();
+            for (int i = 1; i <= children.size(); i++) {
+                childFrames.add((F) frames[size - i]);
+            }
+            visit(tree, frame, childFrames, result);
+        }
+        return forkedTasks;
+    }
+
+    /**
+     * Moves the bottom half of the pending nodes, which are the roots of the largest pending subtrees,
+     * into a new task.
+     */
+    private FeatureTreeTask<F, R> split() {
+        int splitSize = size / 2;
+        int capacity = Math.max(16, 2 * splitSize);
+        FeatureTreeTask<F, R> task = newTask();
+        task.trees = Arrays.copyOf(trees, capacity);
+        task.frames = Arrays.copyOf(frames, capacity);
+        task.size = splitSize;
+        Arrays.fill(task.trees, splitSize, Math.min(size, capacity), null);
+        Arrays.fill(task.frames, splitSize, Math.min(size, capacity), null);
+        System.arraycopy(trees, splitSize, trees, 0, size - splitSize);
+        System.arraycopy(frames, splitSize, frames, 0, size - splitSize);
+        Arrays.fill(trees, size - splitSize, size, null);
+        Arrays.fill(frames, size - splitSize, size, null);
+        size -= splitSize;
+        return task;
+    }
+
+    private void push(IFeatureTree tree, F frame) {
+        if (size == trees.length) {
+            trees = Arrays.copyOf(trees, 2 * size);
+            frames = Arrays.copyOf(frames, 2 * size);
+        }
+        trees[size] = tree;
+        frames[size] = frame;
+        size++;
+    }
+}
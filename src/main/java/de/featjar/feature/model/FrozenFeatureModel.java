@@ -0,0 +1,785 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import de.featjar.base.data.IAttributable;
+import de.featjar.base.data.IAttribute;
+import de.featjar.base.data.Range;
+import de.featjar.base.data.Result;
+import de.featjar.base.data.identifier.IIdentifier;
+import de.featjar.base.tree.structure.ARootedTree;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.feature.model.FeatureTree.Group;
+import de.featjar.formula.structure.IFormula;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * An immutable, array-backed snapshot of a {@link IFeatureModel}.
+ * All features are numbered densely, starting with the features of the feature tree in pre-order,
+ * followed by all features that are not part of the feature tree.
+ * The tree structure is stored in compressed sparse row layout:
+ * parent indices, child offsets and targets, group IDs, group bounds, and feature ranges
+ * are kept in primitive arrays indexed by feature index.
+ * The {@link IFeatureTree} read API is provided by one lightweight view per node,
+ * which are all created along with the snapshot, so that concurrent readers share the same views.
+ * Features and constraints are copied into read-only {@link FrozenFeature} and {@link FrozenConstraint} objects
+ * that resolve back to the snapshot, so that readers never touch the original feature model.
+ * Only formulas are shared with the original constraints.
+ */
+public class FrozenFeatureModel implements IFeatureModel {
+
+    /**
+     * A read-only view on a single node of a {@link FrozenFeatureModel}.
+     */
+    public final class FrozenFeatureTree extends ARootedTree<IFeatureTree> implements IFeatureTree {
+        private final int index;
+        private final List<IFeatureTree> children;
+        private final List<Group> groupList;
+        private final List<List<IFeatureTree>> groupChildren;
+
+        private FrozenFeatureTree(int index) {
+            this.index = index;
+            int childOffset = childOffsets[index];
+            int childEnd = childOffsets[index + 1];
+            children = new TreeList(childTargets, childOffset, childEnd);
+
+            int groupOffset = groupOffsets[index];
+            int groupCount = groupOffsets[index + 1] - groupOffset;
+            List<Group> groups = new ArrayList<>(groupCount);
+            for (int i = groupOffset; i < groupOffset + groupCount; i++) {
+                groups.add(new Group(groupLowerBounds[i], groupUpperBounds[i]));
+            }
+            groupList = Collections.unmodifiableList(groups);
+
+            int[] groupSizes = new int[groupCount];
+            for (int i = childOffset; i < childEnd; i++) {
+                int groupID = groupIDs[childTargets[i]];
+                if (groupID >= 0 && groupID < groupCount) {
+                    groupSizes[groupID]++;
+                }
+            }
+            int[][] groupTargets = new int[groupCount][];
+            for (int groupID = 0; groupID < groupCount; groupID++) {
+                groupTargets[groupID] = new int[groupSizes[groupID]];
+                groupSizes[groupID] = 0;
+            }
+            for (int i = childOffset; i < childEnd; i++) {
+                int child = childTargets[i];
+                int groupID = groupIDs[child];
+                if (groupID >= 0 && groupID < groupCount) {
+                    groupTargets[groupID][groupSizes[groupID]++] = child;
+                }
+            }
+            List<List<IFeatureTree>> groupChildLists = new ArrayList<>(groupCount);
+            for (int[] targets : groupTargets) {
+                groupChildLists.add(new TreeList(targets, 0, targets.length));
+            }
+            groupChildren = Collections.unmodifiableList(groupChildLists);
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public FrozenFeatureModel getFrozenFeatureModel() {
+            return FrozenFeatureModel.this;
+        }
+
+        @Override
+        public FrozenFeature getFeature() {
+            return features[index];
+        }
+
+        @Override
+        public Result<IFeatureTree> getParent() {
+            int parentIndex = parents[index];
+            return parentIndex < 0 ? Result.empty() : Result.of(getFeatureTree(parentIndex));
+        }
+
+        @Override
+        public List<IFeatureTree> getChildren() {
+            return children;
+        }
+
+        @Override
+        public int getChildrenCount() {
+            return children.size();
+        }
+
+        @Override
+        public List<Group> getGroups() {
+            return groupList;
+        }
+
+        @Override
+        public Group getGroup() {
+            int parentIndex = parents[index];
+            return parentIndex < 0
+                    ? new Group(0, 1)
+                    : getFeatureTree(parentIndex).getGroups().get(groupIDs[index]);
+        }
+
+        @Override
+        public int getGroupID() {
+            return groupIDs[index];
+        }
+
+        @Override
+        public List<IFeatureTree> getGroupSiblings() {
+            int parentIndex = parents[index];
+            return parentIndex < 0 ? List.of(this) : getFeatureTree(parentIndex).getGroupChildren(groupIDs[index]);
+        }
+
+        @Override
+        public List<IFeatureTree> getGroupChildren(int groupID) {
+            return groupID >= 0 && groupID < groupChildren.size() ? groupChildren.get(groupID) : List.of();
+        }
+
+        @Override
+        public int getFeatureRangeLowerBound() {
+            return featureRangeLowerBounds[index];
+        }
+
+        @Override
+        public int getFeatureRangeUpperBound() {
+            return featureRangeUpperBounds[index];
+        }
+
+        @Override
+        public Optional<Map<IAttribute<?>, Object>> getAttributes() {
+            return Optional.ofNullable(treeAttributes.get(index));
+        }
+
+        @Override
+        public List<IFeatureTree> getRoots() {
+            return List.of(this);
+        }
+
+        @Override
+        public IMutableFeatureTree mutate() {
+            throw new UnsupportedOperationException("frozen feature trees cannot be mutated");
+        }
+
+        @Override
+        public ITree<IFeatureTree> cloneNode() {
+            FeatureTree featureTree = new FeatureTree(getFeature());
+            featureTree.setGroups(List.of());
+            for (Group group : getGroups()) {
+                featureTree.addGroup(group.getLowerBound(), group.getUpperBound());
+            }
+            featureTree.setFeatureRange(Range.of(getFeatureRangeLowerBound(), getFeatureRangeUpperBound()));
+            featureTree.groupID = getGroupID();
+            return featureTree;
+        }
+
+        @Override
+        public boolean equalsNode(IFeatureTree other) {
+            return equals(other);
+        }
+
+        @Override
+        public int hashCodeNode() {
+            return hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FrozenFeatureTree other = (FrozenFeatureTree) o;
+            return index == other.index && getFrozenFeatureModel() == other.getFrozenFeatureModel();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(getFrozenFeatureModel()), index);
+        }
+
+        @Override
+        public String toString() {
+            return features[index].getName().orElse("");
+        }
+    }
+
+    private final class TreeList extends AbstractList<IFeatureTree> {
+        private final int[] indices;
+        private final int from, to;
+
+        private TreeList(int[] indices, int from, int to) {
+            this.indices = indices;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public IFeatureTree get(int i) {
+            Objects.checkIndex(i, to - from);
+            return getFeatureTree(indices[from + i]);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    /**
+     * A read-only copy of a single feature of a {@link FrozenFeatureModel}.
+     * Resolves its feature model and feature tree to the snapshot it belongs to.
+     */
+    public final class FrozenFeature implements IFeature {
+        private final int index;
+        private final IIdentifier identifier;
+        private final Class<?> type;
+        private final Map<IAttribute<?>, Object> attributeValues;
+        private final int[] referencingConstraints;
+
+        private FrozenFeature(int index, IFeature feature, int[] referencingConstraints) {
+            this.index = index;
+            identifier = feature.getIdentifier();
+            type = feature.getType();
+            attributeValues = copyAttributes(feature);
+            this.referencingConstraints = referencingConstraints;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public FrozenFeatureModel getFrozenFeatureModel() {
+            return FrozenFeatureModel.this;
+        }
+
+        @Override
+        public FrozenFeatureModel getFeatureModel() {
+            return FrozenFeatureModel.this;
+        }
+
+        @Override
+        public IIdentifier getIdentifier() {
+            return identifier;
+        }
+
+        @Override
+        public Optional<Map<IAttribute<?>, Object>> getAttributes() {
+            return Optional.of(attributeValues);
+        }
+
+        @Override
+        public Result<IFeatureTree> getFeatureTree() {
+            return index < numberOfTreeFeatures ? Result.of(featureTrees[index]) : Result.empty();
+        }
+
+        @Override
+        public Class<?> getType() {
+            return type;
+        }
+
+        @Override
+        public LinkedHashSet<IConstraint> getReferencingConstraints() {
+            LinkedHashSet<IConstraint> referencing = new LinkedHashSet<>();
+            for (int constraint : referencingConstraints) {
+                referencing.add(constraints[constraint]);
+            }
+            return referencing;
+        }
+
+        @Override
+        public FrozenFeature clone() {
+            return this;
+        }
+
+        @Override
+        public IFeature clone(IFeatureModel newFeatureModel) {
+            throw new UnsupportedOperationException("frozen features cannot be copied into other feature models");
+        }
+
+        @Override
+        public IMutableFeature mutate() {
+            throw new UnsupportedOperationException("frozen features cannot be mutated");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return identifier.equals(((FrozenFeature) o).identifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(identifier);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("FrozenFeature{name=%s}", getName().orElse(""));
+        }
+    }
+
+    /**
+     * A read-only copy of a single constraint of a {@link FrozenFeatureModel}.
+     * Shares the formula of the original constraint, which is not mutated by feature models,
+     * and resolves its referenced features to the features of the snapshot.
+     */
+    public final class FrozenConstraint implements IConstraint {
+        private final IIdentifier identifier;
+        private final IFormula formula;
+        private final long structuralHash;
+        private final Map<IAttribute<?>, Object> attributeValues;
+        private final int[] referencedFeatures;
+
+        private FrozenConstraint(IConstraint constraint, int[] referencedFeatures) {
+            identifier = constraint.getIdentifier();
+            formula = constraint.getFormula();
+            structuralHash = constraint.getStructuralHash();
+            Map<IAttribute<?>, Object> attributes = new LinkedHashMap<>(copyAttributes(constraint));
+            attributes.computeIfPresent(Attributes.TAGS, (attribute, tags) -> new LinkedHashSet<>((Collection<?>) tags));
+            attributeValues = Collections.unmodifiableMap(attributes);
+            this.referencedFeatures = referencedFeatures;
+        }
+
+        public FrozenFeatureModel getFrozenFeatureModel() {
+            return FrozenFeatureModel.this;
+        }
+
+        @Override
+        public FrozenFeatureModel getFeatureModel() {
+            return FrozenFeatureModel.this;
+        }
+
+        @Override
+        public IIdentifier getIdentifier() {
+            return identifier;
+        }
+
+        @Override
+        public Optional<Map<IAttribute<?>, Object>> getAttributes() {
+            return Optional.of(attributeValues);
+        }
+
+        @Override
+        public IFormula getFormula() {
+            return formula;
+        }
+
+        @Override
+        public long getStructuralHash() {
+            return structuralHash;
+        }
+
+        @Override
+        public LinkedHashSet<IFeature> getReferencedFeatures() {
+            LinkedHashSet<IFeature> referenced = new LinkedHashSet<>();
+            for (int feature : referencedFeatures) {
+                referenced.add(features[feature]);
+            }
+            return referenced;
+        }
+
+        @Override
+        public LinkedHashSet<String> getTags() {
+            return new LinkedHashSet<>(IConstraint.super.getTags());
+        }
+
+        @Override
+        public FrozenConstraint clone() {
+            return this;
+        }
+
+        @Override
+        public IConstraint clone(IFeatureModel newFeatureModel) {
+            throw new UnsupportedOperationException("frozen constraints cannot be copied into other feature models");
+        }
+
+        @Override
+        public IMutableConstraint mutate() {
+            throw new UnsupportedOperationException("frozen constraints cannot be mutated");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return identifier.equals(((FrozenConstraint) o).identifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(identifier);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("FrozenConstraint{formula=%s}", formula);
+        }
+    }
+
+    protected final IIdentifier identifier;
+    protected final Map<IAttribute<?>, Object> attributeValues;
+
+    protected final FrozenFeature[] features;
+    protected final FrozenConstraint[] constraints;
+    protected final int numberOfTreeFeatures;
+
+    protected final int[] roots;
+    protected final int[] parents;
+    protected final int[] childOffsets;
+    protected final int[] childTargets;
+    protected final int[] groupIDs;
+    protected final int[] groupOffsets;
+    protected final int[] groupLowerBounds;
+    protected final int[] groupUpperBounds;
+    protected final int[] featureRangeLowerBounds;
+    protected final int[] featureRangeUpperBounds;
+    protected final HashMap<Integer, Map<IAttribute<?>, Object>> treeAttributes;
+
+    protected final HashMap<IIdentifier, Integer> identifierIndex;
+    protected final HashMap<String, Integer> nameIndex;
+    protected final FrozenFeatureTree[] featureTrees;
+    protected final List<IFeatureTree> rootList;
+
+    /**
+     * Creates a snapshot of the given feature model.
+     * Later changes to the given feature model, its features, or its constraints are not reflected in the snapshot.
+     *
+     * @param featureModel the feature model
+     */
+    public FrozenFeatureModel(IFeatureModel featureModel) {
+        identifier = featureModel.getIdentifier();
+        attributeValues = Collections.unmodifiableMap(
+                new LinkedHashMap<>(featureModel.getAttributes().orElse(Map.of())));
+
+        List<IFeatureTree> originalRoots = featureModel.getRoots();
+        List<IFeatureTree> nodes = new ArrayList<>(featureModel.getNumberOfFeatures());
+        int[] nodeParents = new int[Math.max(16, featureModel.getNumberOfFeatures())];
+        List<IFeatureTree> stack = new ArrayList<>();
+        int[] stackParents = new int[16];
+        for (int i = originalRoots.size() - 1; i >= 0; i--) {
+            stack.add(originalRoots.get(i));
+            stackParents = grow(stackParents, stack.size());
+            stackParents[stack.size() - 1] = -1;
+        }
+        int childCount = 0;
+        while (!stack.isEmpty()) {
+            int top = stack.size() - 1;
+            IFeatureTree node = stack.remove(top);
+            int index = nodes.size();
+            nodes.add(node);
+            nodeParents = grow(nodeParents, index + 1);
+            nodeParents[index] = stackParents[top];
+            List<? extends IFeatureTree> children = node.getChildren();
+            childCount += children.size();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.add(children.get(i));
+                stackParents = grow(stackParents, stack.size());
+                stackParents[stack.size() - 1] = index;
+            }
+        }
+        numberOfTreeFeatures = nodes.size();
+
+        List<IFeature> featureList = new ArrayList<>(Math.max(numberOfTreeFeatures, featureModel.getNumberOfFeatures()));
+        identifierIndex = new HashMap<>((int) (featureModel.getNumberOfFeatures() * 1.5));
+        for (IFeatureTree node : nodes) {
+            addFeature(featureList, node.getFeature());
+        }
+        for (IFeature feature : featureModel.getFeatures()) {
+            if (!identifierIndex.containsKey(feature.getIdentifier())) {
+                addFeature(featureList, feature);
+            }
+        }
+        List<IConstraint> originalConstraints = new ArrayList<>(featureModel.getConstraints());
+        int[][] referencedFeatures = new int[originalConstraints.size()][];
+        int[] referencingCounts = new int[featureList.size()];
+        for (int i = 0; i < referencedFeatures.length; i++) {
+            referencedFeatures[i] = originalConstraints.get(i).getReferencedFeatures().stream()
+                    .map(IFeature::getIdentifier)
+                    .map(identifierIndex::get)
+                    .filter(Objects::nonNull)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            for (int feature : referencedFeatures[i]) {
+                referencingCounts[feature]++;
+            }
+        }
+        int[][] referencingConstraints = new int[featureList.size()][];
+        for (int i = 0; i < referencingConstraints.length; i++) {
+            referencingConstraints[i] = new int[referencingCounts[i]];
+            referencingCounts[i] = 0;
+        }
+        for (int i = 0; i < referencedFeatures.length; i++) {
+            for (int feature : referencedFeatures[i]) {
+                referencingConstraints[feature][referencingCounts[feature]++] = i;
+            }
+        }
+
+        features = new FrozenFeature[featureList.size()];
+        for (int i = 0; i < features.length; i++) {
+            features[i] = new FrozenFeature(i, featureList.get(i), referencingConstraints[i]);
+        }
+        constraints = new FrozenConstraint[referencedFeatures.length];
+        for (int i = 0; i < constraints.length; i++) {
+            constraints[i] = new FrozenConstraint(originalConstraints.get(i), referencedFeatures[i]);
+        }
+        nameIndex = new HashMap<>((int) (features.length * 1.5));
+        for (int i = 0; i < features.length; i++) {
+            int index = i;
+            features[i].getName().ifPresent(name -> nameIndex.putIfAbsent(name, index));
+        }
+        parents = Arrays.copyOf(nodeParents, features.length);
+        Arrays.fill(parents, numberOfTreeFeatures, features.length, -1);
+        roots = new int[originalRoots.size()];
+        childOffsets = new int[features.length + 1];
+        childTargets = new int[childCount];
+        groupIDs = new int[features.length];
+        groupOffsets = new int[features.length + 1];
+        featureRangeLowerBounds = new int[features.length];
+        featureRangeUpperBounds = new int[features.length];
+        treeAttributes = new HashMap<>();
+
+        int groupCount = 0;
+        for (int i = 0, r = 0; i < numberOfTreeFeatures; i++) {
+            IFeatureTree node = nodes.get(i);
+            if (parents[i] < 0) {
+                roots[r++] = i;
+            } else {
+                groupIDs[i] = node.getGroupID();
+            }
+            childOffsets[i + 1] = childOffsets[i] + node.getChildrenCount();
+            groupCount += node.getGroups().size();
+            groupOffsets[i + 1] = groupCount;
+            featureRangeLowerBounds[i] = node.getFeatureRangeLowerBound();
+            featureRangeUpperBounds[i] = node.getFeatureRangeUpperBound();
+            Optional<Map<IAttribute<?>, Object>> attributes = node.getAttributes();
+            if (attributes.isPresent() && !attributes.get().isEmpty()) {
+                treeAttributes.put(i, Collections.unmodifiableMap(new LinkedHashMap<>(attributes.get())));
+            }
+        }
+        Arrays.fill(childOffsets, numberOfTreeFeatures + 1, features.length + 1, childOffsets[numberOfTreeFeatures]);
+        Arrays.fill(groupOffsets, numberOfTreeFeatures + 1, features.length + 1, groupCount);
+
+        groupLowerBounds = new int[groupCount];
+        groupUpperBounds = new int[groupCount];
+        int[] childFill = new int[numberOfTreeFeatures];
+        for (int i = 0; i < numberOfTreeFeatures; i++) {
+            int parent = parents[i];
+            if (parent >= 0) {
+                childTargets[childOffsets[parent] + childFill[parent]++] = i;
+            }
+            int groupOffset = groupOffsets[i];
+            for (Group group : nodes.get(i).getGroups()) {
+                groupLowerBounds[groupOffset] = group.getLowerBound();
+                groupUpperBounds[groupOffset] = group.getUpperBound();
+                groupOffset++;
+            }
+        }
+
+        featureTrees = new FrozenFeatureTree[numberOfTreeFeatures];
+        for (int i = 0; i < numberOfTreeFeatures; i++) {
+            featureTrees[i] = new FrozenFeatureTree(i);
+        }
+        rootList = new TreeList(roots, 0, roots.length);
+    }
+
+    private void addFeature(List<IFeature> featureList, IFeature feature) {
+        identifierIndex.put(feature.getIdentifier(), featureList.size());
+        featureList.add(feature);
+    }
+
+    private static Map<IAttribute<?>, Object> copyAttributes(IAttributable element) {
+        Map<IAttribute<?>, Object> attributes = element.getAttributes().orElse(Map.of());
+        return attributes.isEmpty() ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+    }
+
+    private static int[] grow(int[] array, int minimumLength) {
+        return array.length >= minimumLength ? array : Arrays.copyOf(array, Math.max(minimumLength, array.length * 2));
+    }
+
+    /**
+     * {@return the dense index of the given feature, or {@code -1} if it is not contained in this snapshot}
+     *
+     * @param feature the feature
+     */
+    public int getIndex(IFeature feature) {
+        return identifierIndex.getOrDefault(feature.getIdentifier(), -1);
+    }
+
+    public FrozenFeature getFeature(int index) {
+        return features[index];
+    }
+
+    public FrozenFeatureTree getFeatureTree(int index) {
+        Objects.checkIndex(index, numberOfTreeFeatures);
+        return featureTrees[index];
+    }
+
+    public int getParentIndex(int index) {
+        return parents[index];
+    }
+
+    public int getChildrenCount(int index) {
+        return childOffsets[index + 1] - childOffsets[index];
+    }
+
+    public int getChildIndex(int index, int childNumber) {
+        Objects.checkIndex(childNumber, getChildrenCount(index));
+        return childTargets[childOffsets[index] + childNumber];
+    }
+
+    public int getGroupID(int index) {
+        return groupIDs[index];
+    }
+
+    public int getGroupCount(int index) {
+        return groupOffsets[index + 1] - groupOffsets[index];
+    }
+
+    public int getGroupLowerBound(int index, int groupID) {
+        Objects.checkIndex(groupID, getGroupCount(index));
+        return groupLowerBounds[groupOffsets[index] + groupID];
+    }
+
+    public int getGroupUpperBound(int index, int groupID) {
+        Objects.checkIndex(groupID, getGroupCount(index));
+        return groupUpperBounds[groupOffsets[index] + groupID];
+    }
+
+    public int getFeatureRangeLowerBound(int index) {
+        return featureRangeLowerBounds[index];
+    }
+
+    public int getFeatureRangeUpperBound(int index) {
+        return featureRangeUpperBounds[index];
+    }
+
+    @Override
+    public FrozenFeatureModel clone() {
+        return this;
+    }
+
+    @Override
+    public IMutableFeatureModel mutate() {
+        throw new UnsupportedOperationException("frozen feature models cannot be mutated");
+    }
+
+    @Override
+    public FrozenFeatureModel getFeatureModel() {
+        return this;
+    }
+
+    @Override
+    public IIdentifier getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public Optional<Map<IAttribute<?>, Object>> getAttributes() {
+        return Optional.of(attributeValues);
+    }
+
+    @Override
+    public List<IFeatureTree> getRoots() {
+        return rootList;
+    }
+
+    @Override
+    public Collection<IFeature> getFeatures() {
+        return Collections.unmodifiableList(Arrays.asList(features));
+    }
+
+    @Override
+    public int getNumberOfFeatures() {
+        return features.length;
+    }
+
+    @Override
+    public Result<IFeature> getFeature(IIdentifier identifier) {
+        Integer index = identifierIndex.get(Objects.requireNonNull(identifier));
+        return index == null ? Result.empty() : Result.of(features[index]);
+    }
+
+    @Override
+    public Result<IFeature> getFeature(String name) {
+        Integer index = nameIndex.get(Objects.requireNonNull(name));
+        return index == null ? Result.empty() : Result.of(features[index]);
+    }
+
+    @Override
+    public boolean hasFeature(IIdentifier identifier) {
+        return identifierIndex.containsKey(identifier);
+    }
+
+    @Override
+    public boolean hasFeature(IFeature feature) {
+        return identifierIndex.containsKey(feature.getIdentifier());
+    }
+
+    @Override
+    public Result<IFeatureTree> getFeatureTree(IFeature feature) {
+        int index = getIndex(feature);
+        return index >= 0 && index < numberOfTreeFeatures ? Result.of(getFeatureTree(index)) : Result.empty();
+    }
+
+    @Override
+    public Result<IFeature> getTreeFeature(IIdentifier identifier) {
+        Integer index = identifierIndex.get(Objects.requireNonNull(identifier));
+        return index != null && index < numberOfTreeFeatures ? Result.of(features[index]) : Result.empty();
+    }
+
+    @Override
+    public boolean hasTreeFeature(IIdentifier identifier) {
+        Integer index = identifierIndex.get(identifier);
+        return index != null && index < numberOfTreeFeatures;
+    }
+
+    @Override
+    public int getNumberOfTreeFeatures() {
+        return numberOfTreeFeatures;
+    }
+
+    @Override
+    public Collection<IConstraint> getConstraints() {
+        return Collections.unmodifiableList(Arrays.asList(constraints));
+    }
+
+    @Override
+    public int getNumberOfConstraints() {
+        return constraints.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "FrozenFeatureModel{features=%d, treeFeatures=%d, constraints=%d}",
+                features.length, numberOfTreeFeatures, constraints.length);
+    }
+}
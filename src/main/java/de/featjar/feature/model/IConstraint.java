@@ -56,6 +56,15 @@ public interface IConstraint extends IFeatureModelElement, IHasCommonAttributes
         return getReferencedFeatures(getFormula(), getFeatureModel());
     }
 
+    /**
+     * {@return a content-based hash of the formula of this constraint}
+     * Computed from the printed formula, so equal formulas have equal hashes
+     * regardless of the feature model or implementation of the constraint.
+     */
+    default long getStructuralHash() {
+        return StructuralHash.nonZero(StructuralHash.hash(getFormula().print()));
+    }
+
     default LinkedHashSet<String> getTags() {
         return getAttributeValue(Attributes.TAGS).get();
     }
@@ -86,5 +86,38 @@ public interface IFeatureModel extends IFeatureModelElement, IHasCommonAttribute
         void removeFeatureTreeRoot(IFeatureTree featureTree);
 
         void removeFeatureTreeRoot(IFeature feature);
+
+        /**
+         * Begins a transaction.
+         * All following mutations of this feature model and its elements can be undone with {@link #rollback()},
+         * in time proportional to the number of mutations.
+         * Transactions can be nested.
+         * Not supported by default.
+         *
+         * @throws UnsupportedOperationException if this feature model does not support transactions
+         */
+        default void begin() {
+            throw new UnsupportedOperationException("transactions are not supported");
+        }
+
+        /**
+         * Ends the innermost transaction, keeping all its mutations.
+         * Not supported by default.
+         *
+         * @throws UnsupportedOperationException if this feature model does not support transactions
+         */
+        default void commit() {
+            throw new UnsupportedOperationException("transactions are not supported");
+        }
+
+        /**
+         * Ends the innermost transaction, undoing all its mutations in reverse order.
+         * Not supported by default.
+         *
+         * @throws UnsupportedOperationException if this feature model does not support transactions
+         */
+        default void rollback() {
+            throw new UnsupportedOperationException("transactions are not supported");
+        }
     }
 }
@@ -26,6 +26,7 @@ import de.featjar.base.data.Result;
 import de.featjar.base.tree.structure.ARootedTree;
 import de.featjar.base.tree.structure.IRootedTree;
 import de.featjar.feature.model.FeatureTree.Group;
+import de.featjar.feature.model.IFeatureModel.IMutableFeatureModel;
 import de.featjar.feature.model.mixins.IHasFeatureTree;
 import java.util.List;
 
@@ -86,8 +87,18 @@ public interface IFeatureTree extends IRootedTree<IFeatureTree>, IAttributable,
             if (parent.isPresent()) {
                 parent.get().replaceChild(this, newTree);
                 newTree.setGroupID(this.getGroupID());
+                newTree.addChild(this);
+            } else {
+                IMutableFeatureModel featureModel = getFeature().getFeatureModel().mutate();
+                boolean isRoot = featureModel.getFeatureTree(getFeature()).orElse(null) == this;
+                if (isRoot) {
+                    featureModel.removeFeatureTreeRoot(this);
+                }
+                newTree.addChild(this);
+                if (isRoot) {
+                    featureModel.addFeatureTreeRoot(newTree);
+                }
             }
-            newTree.addChild(this);
             this.setGroupID(0);
             return newTree;
         }
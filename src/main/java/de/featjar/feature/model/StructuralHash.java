@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+/**
+ * Combines values into 64-bit content-based hashes, as used for structural hashes of
+ * {@link FeatureTree feature trees}, {@link Constraint constraints}, and {@link FeatureModel feature models}.
+ * Hashes are stable across runs, as they do not depend on identity hash codes.
+ */
+final class StructuralHash {
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private StructuralHash() {}
+
+    /**
+     * {@return the hash of a string}
+     *
+     * @param string the string
+     */
+    static long hash(String string) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < string.length(); i++) {
+            hash = (hash ^ string.charAt(i)) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * {@return a hash combining a hash with a further value, depending on the order of combination}
+     *
+     * @param hash the hash
+     * @param value the value
+     */
+    static long combine(long hash, long value) {
+        return mix((hash * FNV_PRIME) ^ value);
+    }
+
+    /**
+     * {@return a well-distributed bijective mapping of a value, as in the finalizer of MurmurHash3}
+     * Summing mixed values gives a hash that does not depend on the order of the summands.
+     *
+     * @param value the value
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * {@return a non-zero hash, so that zero can mark a hash that has not been computed yet}
+     *
+     * @param hash the hash
+     */
+    static long nonZero(long hash) {
+        return hash == 0 ? 1 : hash;
+    }
+}
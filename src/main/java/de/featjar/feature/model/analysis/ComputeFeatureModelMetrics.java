@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.analysis;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.feature.model.FeatureTreeTask;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.feature.model.IFeatureTree;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes the {@link FeatureModelMetrics metrics} of a feature model in a single pass over its feature tree
+ * and constraints.
+ * Large feature trees are traversed in parallel on the common {@link ForkJoinPool}
+ * with a {@link FeatureTreeTask}.
+ */
+public class ComputeFeatureModelMetrics extends AComputation<FeatureModelMetrics> {
+    protected static final Dependency<IFeatureModel> FEATURE_MODEL = Dependency.newDependency(IFeatureModel.class);
+
+    /**
+     * The minimum number of tree features for which the feature tree is traversed in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    public ComputeFeatureModelMetrics(IComputation<IFeatureModel> featureModel) {
+        super(featureModel);
+    }
+
+    protected ComputeFeatureModelMetrics(ComputeFeatureModelMetrics other) {
+        super(other);
+    }
+
+    @Override
+    public Result<FeatureModelMetrics> compute(List<Object> dependencyList, Progress progress) {
+        return Result.of(computeMetrics(FEATURE_MODEL.get(dependencyList)));
+    }
+
+    /**
+     * {@return the metrics of the given feature model}
+     *
+     * @param featureModel the feature model
+     */
+    public static FeatureModelMetrics computeMetrics(IFeatureModel featureModel) {
+        FeatureModelMetrics metrics = new MetricsTask()
+                .traverse(featureModel.getRoots(), featureModel.getNumberOfTreeFeatures() >= PARALLEL_THRESHOLD);
+        metrics.setNumberOfFeatures(featureModel.getNumberOfFeatures());
+        for (IConstraint constraint : featureModel.getConstraints()) {
+            metrics.addConstraint(constraint);
+        }
+        return metrics;
+    }
+
+    /**
+     * Gathers the metrics of a feature tree, using the depth of each node as its frame.
+     */
+    private static final class MetricsTask extends FeatureTreeTask<Integer, FeatureModelMetrics> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected Integer newFrame(IFeatureTree tree, Integer parentDepth) {
+            return parentDepth == null ? 0 : parentDepth + 1;
+        }
+
+        @Override
+        protected FeatureModelMetrics newResult() {
+            return new FeatureModelMetrics();
+        }
+
+        @Override
+        protected void visit(IFeatureTree tree, Integer depth, List<Integer> childDepths, FeatureModelMetrics metrics) {
+            metrics.addFeatureTree(tree, depth);
+        }
+
+        @Override
+        protected void merge(FeatureModelMetrics metrics, FeatureModelMetrics forkedMetrics) {
+            metrics.addFeatureTrees(forkedMetrics);
+        }
+
+        @Override
+        protected MetricsTask newTask() {
+            return new MetricsTask();
+        }
+    }
+}
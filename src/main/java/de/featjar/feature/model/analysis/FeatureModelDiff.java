@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.analysis;
+
+import de.featjar.feature.model.FeatureTree;
+import de.featjar.feature.model.FeatureTree.Group;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeature;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.feature.model.analysis.FeatureModelEdit.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Computes the {@link FeatureModelEdit edits} that transform one feature model into another.
+ * Features are matched by name and constraints by their printed formula,
+ * each in expected constant time per element using the indexes of the feature models
+ * and the {@link IConstraint#getStructuralHash() structural hashes} of the constraints.
+ * This suits feature models that were created or parsed independently, whose identifiers are unrelated.
+ * For feature models that share identifiers, such as a feature model and its
+ * {@link de.featjar.feature.model.FeatureModel#cloneSharingValues() value-sharing clone},
+ * elements can be matched by identifier first, which also detects renamed features and changed constraints.
+ * The feature trees are then compared node by node in pre-order.
+ * If the structural hashes of two matched {@link FeatureTree nodes} agree, their subtrees are identical,
+ * so they are skipped without comparing their descendants.
+ * Thus, the diff runs in time linear in the size of the feature models and, for the feature trees,
+ * is proportional to the size of the changed parts once the structural hashes are cached.
+ * The order of children is not compared.
+ */
+public class FeatureModelDiff {
+
+    protected final IFeatureModel oldFeatureModel;
+    protected final IFeatureModel newFeatureModel;
+    protected final List<FeatureModelEdit> edits = new ArrayList<>();
+    protected final boolean matchByIdentifier;
+    protected final IdentityHashMap<IFeature, IFeature> matchedFeatures;
+
+    /**
+     * {@return the edits that transform the old into the new feature model, matching elements by content}
+     * Feature edits precede tree edits, which precede constraint edits.
+     *
+     * @param oldFeatureModel the old feature model
+     * @param newFeatureModel the new feature model
+     */
+    public static List<FeatureModelEdit> diff(IFeatureModel oldFeatureModel, IFeatureModel newFeatureModel) {
+        return diff(oldFeatureModel, newFeatureModel, false);
+    }
+
+    /**
+     * {@return the edits that transform the old into the new feature model}
+     * Feature edits precede tree edits, which precede constraint edits.
+     *
+     * @param oldFeatureModel the old feature model
+     * @param newFeatureModel the new feature model
+     * @param matchByIdentifier whether to match features and constraints by identifier before matching them by
+     *     content, which should only be used if both feature models share identifiers
+     */
+    public static List<FeatureModelEdit> diff(
+            IFeatureModel oldFeatureModel, IFeatureModel newFeatureModel, boolean matchByIdentifier) {
+        FeatureModelDiff diff = new FeatureModelDiff(oldFeatureModel, newFeatureModel, matchByIdentifier);
+        diff.diffFeatures();
+        diff.diffFeatureTrees();
+        diff.diffConstraints();
+        return diff.edits;
+    }
+
+    protected FeatureModelDiff(
+            IFeatureModel oldFeatureModel, IFeatureModel newFeatureModel, boolean matchByIdentifier) {
+        this.oldFeatureModel = Objects.requireNonNull(oldFeatureModel);
+        this.newFeatureModel = Objects.requireNonNull(newFeatureModel);
+        this.matchByIdentifier = matchByIdentifier;
+        matchedFeatures = new IdentityHashMap<>(oldFeatureModel.getNumberOfFeatures());
+    }
+
+    protected void diffFeatures() {
+        IdentityHashMap<IFeature, IFeature> reverseMatchedFeatures =
+                new IdentityHashMap<>(newFeatureModel.getNumberOfFeatures());
+        List<IFeature> unmatchedFeatures = new ArrayList<>();
+        for (IFeature oldFeature : oldFeatureModel.getFeatures()) {
+            IFeature newFeature = matchByIdentifier
+                    ? newFeatureModel.getFeature(oldFeature.getIdentifier()).orElse(null)
+                    : null;
+            if (newFeature != null) {
+                matchedFeatures.put(oldFeature, newFeature);
+                reverseMatchedFeatures.put(newFeature, oldFeature);
+            } else {
+                unmatchedFeatures.add(oldFeature);
+            }
+        }
+        for (IFeature oldFeature : unmatchedFeatures) {
+            IFeature newFeature = oldFeature.getName().isPresent()
+                    ? newFeatureModel.getFeature(oldFeature.getName().get()).orElse(null)
+                    : null;
+            if (newFeature != null && !reverseMatchedFeatures.containsKey(newFeature)) {
+                matchedFeatures.put(oldFeature, newFeature);
+                reverseMatchedFeatures.put(newFeature, oldFeature);
+            } else {
+                edits.add(new FeatureModelEdit(Type.FEATURE_REMOVED, oldFeature, null));
+            }
+        }
+        for (IFeature newFeature : newFeatureModel.getFeatures()) {
+            IFeature oldFeature = reverseMatchedFeatures.get(newFeature);
+            if (oldFeature == null) {
+                edits.add(new FeatureModelEdit(Type.FEATURE_ADDED, null, newFeature));
+            } else if (!Objects.equals(oldFeature.getName().orElse(null), newFeature.getName().orElse(null))) {
+                edits.add(new FeatureModelEdit(Type.FEATURE_RENAMED, oldFeature, newFeature));
+            }
+        }
+    }
+
+    protected void diffFeatureTrees() {
+        ArrayDeque<IFeatureTree> oldTrees = new ArrayDeque<>();
+        pushChildren(oldFeatureModel.getRoots(), oldTrees);
+        while (!oldTrees.isEmpty()) {
+            IFeatureTree oldTree = oldTrees.pop();
+            IFeature oldFeature = oldTree.getFeature();
+            IFeature newFeature = matchedFeatures.get(oldFeature);
+            IFeatureTree newTree = newFeature == null
+                    ? null
+                    : newFeatureModel.getFeatureTree(newFeature).orElse(null);
+            if (newTree == null) {
+                if (newFeature != null) {
+                    edits.add(new FeatureModelEdit(Type.FEATURE_MOVED, oldFeature, newFeature));
+                }
+                pushChildren(oldTree.getChildren(), oldTrees);
+                continue;
+            }
+            if (!isParentMatched(oldTree, newTree)) {
+                edits.add(new FeatureModelEdit(Type.FEATURE_MOVED, oldFeature, newFeature));
+            } else if (oldTree.getGroupID() != newTree.getGroupID()) {
+                edits.add(new FeatureModelEdit(Type.GROUP_ID_CHANGED, oldFeature, newFeature));
+            }
+            if (isStructurallyEqual(oldTree, newTree)) {
+                continue;
+            }
+            if (oldTree.getFeatureRangeLowerBound() != newTree.getFeatureRangeLowerBound()
+                    || oldTree.getFeatureRangeUpperBound() != newTree.getFeatureRangeUpperBound()) {
+                edits.add(new FeatureModelEdit(Type.FEATURE_RANGE_CHANGED, oldFeature, newFeature));
+            }
+            if (!isGroupsEqual(oldTree.getGroups(), newTree.getGroups())) {
+                edits.add(new FeatureModelEdit(Type.GROUPS_CHANGED, oldFeature, newFeature));
+            }
+            pushChildren(oldTree.getChildren(), oldTrees);
+        }
+        for (IFeature oldFeature : oldFeatureModel.getFeatures()) {
+            IFeature newFeature = matchedFeatures.get(oldFeature);
+            if (newFeature != null
+                    && oldFeatureModel.getFeatureTree(oldFeature).isEmpty()
+                    && newFeatureModel.getFeatureTree(newFeature).isPresent()) {
+                edits.add(new FeatureModelEdit(Type.FEATURE_MOVED, oldFeature, newFeature));
+            }
+        }
+    }
+
+    private static void pushChildren(List<IFeatureTree> trees, ArrayDeque<IFeatureTree> stack) {
+        for (int i = trees.size() - 1; i >= 0; i--) {
+            stack.push(trees.get(i));
+        }
+    }
+
+    private boolean isParentMatched(IFeatureTree oldTree, IFeatureTree newTree) {
+        IFeatureTree oldParent = oldTree.getParent().orElse(null);
+        IFeatureTree newParent = newTree.getParent().orElse(null);
+        if (oldParent == null || newParent == null) {
+            return oldParent == newParent;
+        }
+        return matchedFeatures.get(oldParent.getFeature()) == newParent.getFeature();
+    }
+
+    private static boolean isStructurallyEqual(IFeatureTree oldTree, IFeatureTree newTree) {
+        return oldTree instanceof FeatureTree
+                && newTree instanceof FeatureTree
+                && ((FeatureTree) oldTree).getStructuralHash() == ((FeatureTree) newTree).getStructuralHash();
+    }
+
+    private static boolean isGroupsEqual(List<Group> oldGroups, List<Group> newGroups) {
+        if (oldGroups.size() != newGroups.size()) {
+            return false;
+        }
+        for (int i = 0; i < oldGroups.size(); i++) {
+            if (oldGroups.get(i).getLowerBound() != newGroups.get(i).getLowerBound()
+                    || oldGroups.get(i).getUpperBound() != newGroups.get(i).getUpperBound()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected void diffConstraints() {
+        HashMap<Long, ArrayDeque<IConstraint>> newConstraintsByHash =
+                new HashMap<>((int) (newFeatureModel.getNumberOfConstraints() * 1.5));
+        for (IConstraint newConstraint : newFeatureModel.getConstraints()) {
+            newConstraintsByHash
+                    .computeIfAbsent(newConstraint.getStructuralHash(), hash -> new ArrayDeque<>(1))
+                    .add(newConstraint);
+        }
+        IdentityHashMap<IConstraint, IConstraint> matchedConstraints =
+                new IdentityHashMap<>(newFeatureModel.getNumberOfConstraints());
+        List<IConstraint> unmatchedConstraints = new ArrayList<>();
+        for (IConstraint oldConstraint : oldFeatureModel.getConstraints()) {
+            IConstraint newConstraint = matchByIdentifier
+                    ? newFeatureModel.getConstraint(oldConstraint.getIdentifier()).orElse(null)
+                    : null;
+            if (newConstraint == null) {
+                unmatchedConstraints.add(oldConstraint);
+                continue;
+            }
+            matchedConstraints.put(newConstraint, oldConstraint);
+            newConstraintsByHash.get(newConstraint.getStructuralHash()).remove(newConstraint);
+            if (!isFormulaEqual(oldConstraint, newConstraint)) {
+                edits.add(new FeatureModelEdit(Type.CONSTRAINT_CHANGED, oldConstraint, newConstraint));
+            }
+        }
+        for (IConstraint oldConstraint : unmatchedConstraints) {
+            IConstraint newConstraint =
+                    pollEqualConstraint(newConstraintsByHash.get(oldConstraint.getStructuralHash()), oldConstraint);
+            if (newConstraint != null) {
+                matchedConstraints.put(newConstraint, oldConstraint);
+            } else {
+                edits.add(new FeatureModelEdit(Type.CONSTRAINT_REMOVED, oldConstraint, null));
+            }
+        }
+        for (IConstraint newConstraint : newFeatureModel.getConstraints()) {
+            if (!matchedConstraints.containsKey(newConstraint)) {
+                edits.add(new FeatureModelEdit(Type.CONSTRAINT_ADDED, null, newConstraint));
+            }
+        }
+    }
+
+    private static boolean isFormulaEqual(IConstraint oldConstraint, IConstraint newConstraint) {
+        return oldConstraint.getStructuralHash() == newConstraint.getStructuralHash()
+                && oldConstraint.getFormula().print().equals(newConstraint.getFormula().print());
+    }
+
+    private static IConstraint pollEqualConstraint(ArrayDeque<IConstraint> candidates, IConstraint oldConstraint) {
+        if (candidates == null) {
+            return null;
+        }
+        String formula = oldConstraint.getFormula().print();
+        for (Iterator<IConstraint> iterator = candidates.iterator(); iterator.hasNext(); ) {
+            IConstraint candidate = iterator.next();
+            if (formula.equals(candidate.getFormula().print())) {
+                iterator.remove();
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
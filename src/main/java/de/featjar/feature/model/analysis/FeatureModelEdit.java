@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.analysis;
+
+import de.featjar.base.data.Result;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeature;
+
+/**
+ * A single edit in the difference between two feature models, as computed by {@link FeatureModelDiff}.
+ */
+public final class FeatureModelEdit {
+
+    /**
+     * The type of an edit, which determines which elements it refers to.
+     * Feature edits refer to {@link IFeature features}, constraint edits to {@link IConstraint constraints}.
+     */
+    public enum Type {
+        /**
+         * A feature only exists in the new feature model.
+         */
+        FEATURE_ADDED,
+        /**
+         * A feature only exists in the old feature model.
+         */
+        FEATURE_REMOVED,
+        /**
+         * A feature with the same identifier has a different name in the new feature model.
+         */
+        FEATURE_RENAMED,
+        /**
+         * A feature has a different parent in the new feature model, or was added to or removed from the feature tree.
+         */
+        FEATURE_MOVED,
+        /**
+         * A feature has the same parent, but belongs to a different group of it in the new feature model.
+         */
+        GROUP_ID_CHANGED,
+        /**
+         * A feature has a different feature range in the new feature model.
+         */
+        FEATURE_RANGE_CHANGED,
+        /**
+         * The groups of a feature have different bounds in the new feature model.
+         */
+        GROUPS_CHANGED,
+        /**
+         * A constraint only exists in the new feature model.
+         */
+        CONSTRAINT_ADDED,
+        /**
+         * A constraint only exists in the old feature model.
+         */
+        CONSTRAINT_REMOVED,
+        /**
+         * A constraint with the same identifier has a different formula in the new feature model.
+         */
+        CONSTRAINT_CHANGED
+    }
+
+    private final Type type;
+    private final Object oldElement;
+    private final Object newElement;
+
+    FeatureModelEdit(Type type, Object oldElement, Object newElement) {
+        this.type = type;
+        this.oldElement = oldElement;
+        this.newElement = newElement;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * {@return the edited element in the old feature model, empty for added elements}
+     */
+    public Result<Object> getOldElement() {
+        return Result.ofNullable(oldElement);
+    }
+
+    /**
+     * {@return the edited element in the new feature model, empty for removed elements}
+     */
+    public Result<Object> getNewElement() {
+        return Result.ofNullable(newElement);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FeatureModelEdit{type=%s, old=%s, new=%s}", type, oldElement, newElement);
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.analysis;
+
+import de.featjar.feature.model.FeatureTree.Group;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeatureTree;
+import java.util.List;
+
+/**
+ * Structural statistics of a feature model, as gathered by {@link ComputeFeatureModelMetrics}.
+ * Counts refer to the feature tree unless stated otherwise.
+ * Groups are only counted if they contain at least one child.
+ */
+public class FeatureModelMetrics {
+
+    private int numberOfFeatures;
+    private int numberOfTreeFeatures;
+    private int numberOfRoots;
+    private int numberOfLeaves;
+    private int maximumDepth;
+    private long depthSum;
+    private int maximumBranchingFactor;
+    private long numberOfChildren;
+    private int numberOfMandatoryFeatures;
+    private int numberOfOptionalFeatures;
+    private int numberOfAndGroups;
+    private int numberOfOrGroups;
+    private int numberOfAlternativeGroups;
+    private int numberOfCardinalityGroups;
+    private int numberOfCardinalityGroupFeatures;
+    private int numberOfConstraints;
+    private int maximumVariablesPerConstraint;
+    private long variableSum;
+
+    FeatureModelMetrics() {}
+
+    void setNumberOfFeatures(int numberOfFeatures) {
+        this.numberOfFeatures = numberOfFeatures;
+    }
+
+    /**
+     * Adds a node of the feature tree.
+     *
+     * @param tree the node
+     * @param depth the depth of the node, which is zero for roots
+     */
+    void addFeatureTree(IFeatureTree tree, int depth) {
+        numberOfTreeFeatures++;
+        depthSum += depth;
+        maximumDepth = Math.max(maximumDepth, depth);
+        if (depth == 0) {
+            numberOfRoots++;
+        } else if (tree.isMandatory()) {
+            numberOfMandatoryFeatures++;
+        } else {
+            numberOfOptionalFeatures++;
+        }
+        List<IFeatureTree> children = tree.getChildren();
+        if (children.isEmpty()) {
+            numberOfLeaves++;
+            return;
+        }
+        numberOfChildren += children.size();
+        maximumBranchingFactor = Math.max(maximumBranchingFactor, children.size());
+        List<Group> groups = tree.getGroups();
+        int[] groupSizes = new int[groups.size()];
+        for (IFeatureTree child : children) {
+            int groupID = child.getGroupID();
+            if (groupID >= 0 && groupID < groupSizes.length) {
+                groupSizes[groupID]++;
+            }
+        }
+        for (int groupID = 0; groupID < groups.size(); groupID++) {
+            if (groupSizes[groupID] == 0) {
+                continue;
+            }
+            Group group = groups.get(groupID);
+            if (group.isAnd()) {
+                numberOfAndGroups++;
+            } else if (group.isOr()) {
+                numberOfOrGroups++;
+            } else if (group.isAlternative()) {
+                numberOfAlternativeGroups++;
+            } else {
+                numberOfCardinalityGroups++;
+                numberOfCardinalityGroupFeatures += groupSizes[groupID];
+            }
+        }
+    }
+
+    void addConstraint(IConstraint constraint) {
+        int numberOfVariables = constraint.getReferencedFeatures().size();
+        numberOfConstraints++;
+        variableSum += numberOfVariables;
+        maximumVariablesPerConstraint = Math.max(maximumVariablesPerConstraint, numberOfVariables);
+    }
+
+    /**
+     * Adds the tree statistics of another part of the same feature model.
+     *
+     * @param other the other metrics
+     */
+    void addFeatureTrees(FeatureModelMetrics other) {
+        numberOfTreeFeatures += other.numberOfTreeFeatures;
+        numberOfRoots += other.numberOfRoots;
+        numberOfLeaves += other.numberOfLeaves;
+        maximumDepth = Math.max(maximumDepth, other.maximumDepth);
+        depthSum += other.depthSum;
+        maximumBranchingFactor = Math.max(maximumBranchingFactor, other.maximumBranchingFactor);
+        numberOfChildren += other.numberOfChildren;
+        numberOfMandatoryFeatures += other.numberOfMandatoryFeatures;
+        numberOfOptionalFeatures += other.numberOfOptionalFeatures;
+        numberOfAndGroups += other.numberOfAndGroups;
+        numberOfOrGroups += other.numberOfOrGroups;
+        numberOfAlternativeGroups += other.numberOfAlternativeGroups;
+        numberOfCardinalityGroups += other.numberOfCardinalityGroups;
+        numberOfCardinalityGroupFeatures += other.numberOfCardinalityGroupFeatures;
+    }
+
+    /**
+     * {@return the number of all features, including those not in the feature tree}
+     */
+    public int getNumberOfFeatures() {
+        return numberOfFeatures;
+    }
+
+    public int getNumberOfTreeFeatures() {
+        return numberOfTreeFeatures;
+    }
+
+    public int getNumberOfRoots() {
+        return numberOfRoots;
+    }
+
+    public int getNumberOfLeaves() {
+        return numberOfLeaves;
+    }
+
+    /**
+     * {@return the number of features with children}
+     */
+    public int getNumberOfInnerFeatures() {
+        return numberOfTreeFeatures - numberOfLeaves;
+    }
+
+    /**
+     * {@return the maximum depth of any feature, which is zero for a tree consisting only of a root}
+     */
+    public int getMaximumDepth() {
+        return maximumDepth;
+    }
+
+    public double getAverageDepth() {
+        return numberOfTreeFeatures == 0 ? 0 : (double) depthSum / numberOfTreeFeatures;
+    }
+
+    public int getMaximumBranchingFactor() {
+        return maximumBranchingFactor;
+    }
+
+    /**
+     * {@return the average number of children of features with children}
+     */
+    public double getAverageBranchingFactor() {
+        int numberOfInnerFeatures = getNumberOfInnerFeatures();
+        return numberOfInnerFeatures == 0 ? 0 : (double) numberOfChildren / numberOfInnerFeatures;
+    }
+
+    /**
+     * {@return the number of mandatory features, not counting roots}
+     */
+    public int getNumberOfMandatoryFeatures() {
+        return numberOfMandatoryFeatures;
+    }
+
+    /**
+     * {@return the number of optional features, not counting roots}
+     */
+    public int getNumberOfOptionalFeatures() {
+        return numberOfOptionalFeatures;
+    }
+
+    /**
+     * {@return the ratio of mandatory features to all features except roots}
+     */
+    public double getMandatoryRatio() {
+        int numberOfChildFeatures = numberOfMandatoryFeatures + numberOfOptionalFeatures;
+        return numberOfChildFeatures == 0 ? 0 : (double) numberOfMandatoryFeatures / numberOfChildFeatures;
+    }
+
+    public int getNumberOfAndGroups() {
+        return numberOfAndGroups;
+    }
+
+    public int getNumberOfOrGroups() {
+        return numberOfOrGroups;
+    }
+
+    public int getNumberOfAlternativeGroups() {
+        return numberOfAlternativeGroups;
+    }
+
+    /**
+     * {@return the number of groups that are neither and-, or-, nor alternative-groups}
+     */
+    public int getNumberOfCardinalityGroups() {
+        return numberOfCardinalityGroups;
+    }
+
+    /**
+     * {@return the number of features in cardinality groups}
+     */
+    public int getNumberOfCardinalityGroupFeatures() {
+        return numberOfCardinalityGroupFeatures;
+    }
+
+    /**
+     * {@return the number of cross-tree constraints}
+     */
+    public int getNumberOfConstraints() {
+        return numberOfConstraints;
+    }
+
+    /**
+     * {@return the ratio of cross-tree constraints to all features}
+     */
+    public double getConstraintToFeatureRatio() {
+        return numberOfFeatures == 0 ? 0 : (double) numberOfConstraints / numberOfFeatures;
+    }
+
+    /**
+     * {@return the maximum number of features referenced by a single constraint}
+     */
+    public int getMaximumVariablesPerConstraint() {
+        return maximumVariablesPerConstraint;
+    }
+
+    /**
+     * {@return the average number of features referenced by a constraint}
+     */
+    public double getAverageVariablesPerConstraint() {
+        return numberOfConstraints == 0 ? 0 : (double) variableSum / numberOfConstraints;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "FeatureModelMetrics{features=%d, treeFeatures=%d, roots=%d, leaves=%d, maximumDepth=%d, "
+                        + "averageDepth=%.2f, maximumBranchingFactor=%d, averageBranchingFactor=%.2f, "
+                        + "mandatory=%d, optional=%d, andGroups=%d, orGroups=%d, alternativeGroups=%d, "
+                        + "cardinalityGroups=%d, cardinalityGroupFeatures=%d, constraints=%d, "
+                        + "constraintToFeatureRatio=%.2f, maximumVariablesPerConstraint=%d, "
+                        + "averageVariablesPerConstraint=%.2f}",
+                numberOfFeatures,
+                numberOfTreeFeatures,
+                numberOfRoots,
+                numberOfLeaves,
+                maximumDepth,
+                getAverageDepth(),
+                maximumBranchingFactor,
+                getAverageBranchingFactor(),
+                numberOfMandatoryFeatures,
+                numberOfOptionalFeatures,
+                numberOfAndGroups,
+                numberOfOrGroups,
+                numberOfAlternativeGroups,
+                numberOfCardinalityGroups,
+                numberOfCardinalityGroupFeatures,
+                numberOfConstraints,
+                getConstraintToFeatureRatio(),
+                maximumVariablesPerConstraint,
+                getAverageVariablesPerConstraint());
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.io.dimacs;
+
+import de.featjar.base.data.Problem;
+import de.featjar.base.data.Result;
+import de.featjar.base.io.format.IFormat;
+import de.featjar.feature.model.IFeatureModel;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes feature models to DIMACS CNF files using a {@link DIMACSFeatureModelWriter}.
+ * To write large feature models without holding the output in memory,
+ * use the writer directly with an output stream or channel.
+ */
+public class DIMACSFeatureModelFormat implements IFormat<IFeatureModel> {
+
+    @Override
+    public String getFileExtension() {
+        return "dimacs";
+    }
+
+    @Override
+    public String getName() {
+        return "DIMACS";
+    }
+
+    @Override
+    public boolean supportsSerialize() {
+        return true;
+    }
+
+    @Override
+    public Result<String> serialize(IFeatureModel featureModel) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            new DIMACSFeatureModelWriter(featureModel).write(outputStream);
+        } catch (IOException | RuntimeException e) {
+            return Result.empty(new Problem(e));
+        }
+        return Result.of(new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
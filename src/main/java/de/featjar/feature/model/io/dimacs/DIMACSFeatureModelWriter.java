@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.io.dimacs;
+
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.feature.model.transformer.CardinalityEncoding;
+import de.featjar.feature.model.transformer.ComputeClauses;
+import de.featjar.feature.model.transformer.IClauseSink;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * Writes the clauses of a feature model, as emitted by {@link ComputeClauses}, in DIMACS CNF format
+ * without materializing a formula or clause list.
+ * A first pass only counts clauses and numbers variables,
+ * so that the comment lines naming each feature variable and the problem line can be written up front.
+ * A second pass then encodes each clause directly into a fixed-size buffer.
+ * Thus, apart from the buffer, memory is only needed for the map of variable names.
+ * In comment lines, backslashes, line feeds, and carriage returns in feature names are escaped as
+ * {@code \\}, {@code \n}, and {@code \r}, so that names cannot break the line structure.
+ *
+ * @see DIMACSFeatureModelFormat
+ */
+public class DIMACSFeatureModelWriter {
+
+    /**
+     * The size of the buffer in which clauses are encoded before being written.
+     */
+    public static final int BUFFER_SIZE = 1 << 16;
+
+    private static final int MAXIMUM_LITERAL_LENGTH = 12;
+
+    protected final IFeatureModel featureModel;
+    protected final CardinalityEncoding encoding;
+
+    public DIMACSFeatureModelWriter(IFeatureModel featureModel) {
+        this(featureModel, CardinalityEncoding.AUTOMATIC);
+    }
+
+    public DIMACSFeatureModelWriter(IFeatureModel featureModel, CardinalityEncoding encoding) {
+        this.featureModel = Objects.requireNonNull(featureModel);
+        this.encoding = Objects.requireNonNull(encoding);
+    }
+
+    /**
+     * Writes the clauses of the feature model to an output stream, which is flushed but not closed.
+     *
+     * @param outputStream the output stream
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if a constraint is not propositional
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        write(Channels.newChannel(outputStream));
+        outputStream.flush();
+    }
+
+    /**
+     * Writes the clauses of the feature model to a channel, which is not closed.
+     *
+     * @param channel the channel
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if a constraint is not propositional
+     * @throws IllegalStateException if the feature model changes while it is written
+     */
+    public void write(WritableByteChannel channel) throws IOException {
+        CountingSink countingSink = new CountingSink();
+        ComputeClauses.addClauses(featureModel, encoding, countingSink);
+
+        WritingSink writingSink = new WritingSink(channel, countingSink);
+        for (int i = 0; i < countingSink.variableNames.size(); i++) {
+            String name = countingSink.variableNames.get(i);
+            if (name != null) {
+                writingSink.writeComment(i + 1, name);
+            }
+        }
+        countingSink.variableNames = null;
+        writingSink.writeProblem(countingSink.numberOfVariables, countingSink.numberOfClauses);
+        try {
+            ComputeClauses.addClauses(featureModel, encoding, writingSink);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (writingSink.numberOfClauses != countingSink.numberOfClauses
+                || writingSink.numberOfVariables != countingSink.numberOfVariables) {
+            throw new IllegalStateException("feature model changed while it was written");
+        }
+        writingSink.flush();
+    }
+
+    /**
+     * Numbers variables and counts clauses without storing them.
+     */
+    private static final class CountingSink implements IClauseSink {
+        private final HashMap<String, Integer> variables = new HashMap<>();
+        private final BitSet auxiliaryVariables = new BitSet();
+        private ArrayList<String> variableNames = new ArrayList<>();
+        private int numberOfVariables;
+        private long numberOfClauses;
+
+        @Override
+        public int getVariable(String name) {
+            Integer variable = variables.get(name);
+            if (variable == null) {
+                variable = ++numberOfVariables;
+                variables.put(name, variable);
+                variableNames.add(name);
+            }
+            return variable;
+        }
+
+        @Override
+        public int newAuxiliaryVariable() {
+            auxiliaryVariables.set(++numberOfVariables);
+            variableNames.add(null);
+            return numberOfVariables;
+        }
+
+        @Override
+        public void addClause(int... literals) {
+            numberOfClauses++;
+        }
+    }
+
+    /**
+     * Encodes clauses into a buffer, numbering variables in the same order as the {@link CountingSink}.
+     */
+    private static final class WritingSink implements IClauseSink {
+        private final WritableByteChannel channel;
+        private final HashMap<String, Integer> variables;
+        private final BitSet auxiliaryVariables;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final byte[] digits = new byte[MAXIMUM_LITERAL_LENGTH];
+        private int numberOfVariables;
+        private long numberOfClauses;
+
+        private WritingSink(WritableByteChannel channel, CountingSink countingSink) {
+            this.channel = channel;
+            variables = countingSink.variables;
+            auxiliaryVariables = countingSink.auxiliaryVariables;
+        }
+
+        @Override
+        public int getVariable(String name) {
+            Integer variable = variables.get(name);
+            if (variable == null) {
+                throw new IllegalStateException("feature model changed while it was written");
+            }
+            numberOfVariables = Math.max(numberOfVariables, variable);
+            return variable;
+        }
+
+        @Override
+        public int newAuxiliaryVariable() {
+            int variable = auxiliaryVariables.nextSetBit(numberOfVariables + 1);
+            if (variable < 0) {
+                throw new IllegalStateException("feature model changed while it was written");
+            }
+            numberOfVariables = variable;
+            return variable;
+        }
+
+        @Override
+        public void addClause(int... literals) {
+            try {
+                for (int literal : literals) {
+                    writeNumber(literal);
+                    buffer.put((byte) ' ');
+                }
+                ensureRemaining(2);
+                buffer.put((byte) '0');
+                buffer.put((byte) '\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            numberOfClauses++;
+        }
+
+        private void writeComment(int variable, String name) throws IOException {
+            writeASCII("c ");
+            writeNumber(variable);
+            buffer.put((byte) ' ');
+            byte[] bytes = escape(name).getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > buffer.capacity()) {
+                flush();
+                ByteBuffer nameBuffer = ByteBuffer.wrap(bytes);
+                while (nameBuffer.hasRemaining()) {
+                    channel.write(nameBuffer);
+                }
+            } else {
+                ensureRemaining(bytes.length);
+                buffer.put(bytes);
+            }
+            writeASCII("\n");
+        }
+
+        private static String escape(String name) {
+            if (name.indexOf('\\') < 0 && name.indexOf('\n') < 0 && name.indexOf('\r') < 0) {
+                return name;
+            }
+            StringBuilder escapedName = new StringBuilder(name.length() + 8);
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (c == '\\') {
+                    escapedName.append("\\\\");
+                } else if (c == '\n') {
+                    escapedName.append("\\n");
+                } else if (c == '\r') {
+                    escapedName.append("\\r");
+                } else {
+                    escapedName.append(c);
+                }
+            }
+            return escapedName.toString();
+        }
+
+        private void writeProblem(int numberOfVariables, long numberOfClauses) throws IOException {
+            writeASCII(String.format("p cnf %d %d\n", numberOfVariables, numberOfClauses));
+        }
+
+        private void writeASCII(String string) throws IOException {
+            ensureRemaining(string.length());
+            for (int i = 0; i < string.length(); i++) {
+                buffer.put((byte) string.charAt(i));
+            }
+        }
+
+        private void writeNumber(int number) throws IOException {
+            ensureRemaining(MAXIMUM_LITERAL_LENGTH);
+            long value = number;
+            if (value < 0) {
+                buffer.put((byte) '-');
+                value = -value;
+            }
+            int length = 0;
+            do {
+                digits[length++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            while (length > 0) {
+                buffer.put(digits[--length]);
+            }
+        }
+
+        private void ensureRemaining(int length) throws IOException {
+            if (buffer.remaining() < length) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -23,6 +23,8 @@ package de.featjar.feature.model.io.xml;
 import de.featjar.base.data.Result;
 import de.featjar.base.io.format.IFormat;
 import de.featjar.feature.model.*;
+import de.featjar.feature.model.FeatureTreeCursor.Order;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -51,7 +53,8 @@ public class GraphVizFeatureModelFormat implements IFormat<IFeatureModel> {
     @Override
     public Result<String> serialize(IFeatureModel featureModel) {
         // TODO take multiple roots into account
-        List<IFeatureTree> features = featureModel.getFeatureTreeStream().collect(Collectors.toList());
+        List<IFeatureTree> features = new ArrayList<>();
+        featureModel.forEachFeatureTree(Order.PRE_ORDER, features::add);
         return Result.of(String.format(
                 "digraph {%n  graph%s;%n  node%s;%n  edge%s;%n%s%n%s%n}",
                 options(option("splines", "false"), option("ranksep", "0.2")),
@@ -31,6 +31,7 @@ import de.featjar.base.io.format.ParseException;
 import de.featjar.base.io.input.AInputMapper;
 import de.featjar.feature.model.Attributes;
 import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.FeatureTreeCursor.Order;
 import de.featjar.feature.model.IConstraint;
 import de.featjar.feature.model.IFeature;
 import de.featjar.feature.model.IFeatureModel;
@@ -437,10 +438,10 @@ public class XMLFeatureModelFormat extends AXMLFeatureModelFormat<IFeatureModel,
                     .get();
 
             if (featureOrderList.isEmpty()) {
-                featureOrderList = featureModel
-                        .getFeatureTreeStream()
-                        .map(t -> t.getFeature().getName().get())
-                        .collect(Collectors.toList());
+                List<Object> featureNames = new ArrayList<>();
+                featureModel.forEachFeatureTree(
+                        Order.PRE_ORDER, t -> featureNames.add(t.getFeature().getName().get()));
+                featureOrderList = featureNames;
             }
 
             for (final Object featureName : featureOrderList) {
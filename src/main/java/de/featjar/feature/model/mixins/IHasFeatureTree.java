@@ -22,13 +22,17 @@ package de.featjar.feature.model.mixins;
 
 import de.featjar.base.data.*;
 import de.featjar.base.data.identifier.IIdentifier;
-import de.featjar.base.tree.Trees;
 import de.featjar.feature.model.*;
+import de.featjar.feature.model.FeatureTreeCursor.Order;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implements a {@link IFeatureModel} mixin for common operations on the {@link IFeatureTree}.
@@ -38,13 +42,39 @@ import java.util.stream.Stream;
 public interface IHasFeatureTree {
     List<IFeatureTree> getRoots();
 
+    /**
+     * {@return a stream of all nodes of the feature tree in pre-order}
+     * Prefer {@link #forEachFeatureTree(Order, Consumer)} for traversals that do not need a stream.
+     */
     default Stream<IFeatureTree> getFeatureTreeStream() {
-        return getRoots().stream().flatMap(Trees::preOrderStream);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(
+                        getFeatureTreeCursor(Order.PRE_ORDER), Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * {@return a cursor over all nodes of the feature tree}
+     *
+     * @param order the traversal order
+     */
+    default FeatureTreeCursor getFeatureTreeCursor(Order order) {
+        return new FeatureTreeCursor(getRoots(), order);
+    }
+
+    /**
+     * Visits all nodes of the feature tree without allocating per node.
+     *
+     * @param order the traversal order
+     * @param visitor the visitor
+     */
+    default void forEachFeatureTree(Order order, Consumer<? super IFeatureTree> visitor) {
+        FeatureTreeCursor.forEach(getRoots(), order, visitor);
     }
 
     default LinkedHashSet<IFeature> getTreeFeatures() {
         LinkedHashSet<IFeature> featureSet = new LinkedHashSet<>();
-        getFeatureTreeStream().map(IFeatureTree::getFeature).forEach(featureSet::add);
+        forEachFeatureTree(Order.PRE_ORDER, tree -> featureSet.add(tree.getFeature()));
         return featureSet;
     }
 
@@ -58,32 +88,25 @@ public interface IHasFeatureTree {
 
     default Result<IFeature> getTreeFeature(IIdentifier identifier) {
         Objects.requireNonNull(identifier);
-        return Result.ofOptional(getFeatureTreeStream()
-                .map(IFeatureTree::getFeature)
-                .filter(feature -> feature.getIdentifier().equals(identifier))
-                .findFirst());
+        return FeatureTreeCursor.findFirst(
+                        getRoots(), tree -> tree.getFeature().getIdentifier().equals(identifier))
+                .map(IFeatureTree::getFeature);
     }
 
     default Result<IFeature> getTreeFeature(String name) {
         Objects.requireNonNull(name);
-        return Result.ofOptional(getFeatureTreeStream()
-                .map(IFeatureTree::getFeature)
-                .filter(feature -> feature.getName().valueEquals(name))
-                .findFirst());
+        return getFeatureTree(name).map(IFeatureTree::getFeature);
     }
 
     default Result<IFeatureTree> getFeatureTree(String name) {
         Objects.requireNonNull(name);
-        return Result.ofOptional(getFeatureTreeStream()
-                .filter(tree -> tree.getFeature().getName().valueEquals(name))
-                .findFirst());
+        return FeatureTreeCursor.findFirst(
+                getRoots(), tree -> tree.getFeature().getName().valueEquals(name));
     }
 
     default Result<IFeatureTree> getFeatureTree(IFeature feature) {
         Objects.requireNonNull(feature);
-        return Result.ofOptional(getFeatureTreeStream()
-                .filter(tree -> tree.getFeature().equals(feature))
-                .findFirst());
+        return FeatureTreeCursor.findFirst(getRoots(), tree -> tree.getFeature().equals(feature));
     }
 
     default boolean hasTreeFeature(IIdentifier identifier) {
@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+/**
+ * Encodes cardinality constraints of groups into clauses, as used by {@link ComputeClauses}.
+ * Each encoding reduces a group with n children to at-most-k constraints:
+ * an upper bound u is at most u of the children, and a lower bound l is at most n - l of their negations.
+ * The encodings differ in the number of clauses and auxiliary variables they need for an at-most-k constraint.
+ */
+public enum CardinalityEncoding {
+    /**
+     * Forbids every subset of k + 1 literals, needing no auxiliary variables, but binomially many clauses.
+     */
+    PAIRWISE {
+        @Override
+        void addAtMost(int[] literals, int k, int condition, IClauseSink sink) {
+            addPairwiseAtMost(literals, k, condition, sink);
+        }
+    },
+    /**
+     * Counts true literals in unary with auxiliary variables for each literal and count up to k,
+     * needing O(n k) clauses and auxiliary variables (Sinz 2005).
+     */
+    SEQUENTIAL_COUNTER {
+        @Override
+        void addAtMost(int[] literals, int k, int condition, IClauseSink sink) {
+            addSequentialCounterAtMost(literals, k, condition, sink);
+        }
+    },
+    /**
+     * Splits at-most-one constraints into small groups with a commander variable each
+     * and recursively constrains the commanders, needing O(n) clauses and n / 2 auxiliary variables
+     * (Klieber and Kwon 2007).
+     * Other at-most-k constraints are encoded with a {@link #SEQUENTIAL_COUNTER}.
+     */
+    COMMANDER {
+        @Override
+        void addAtMost(int[] literals, int k, int condition, IClauseSink sink) {
+            if (k == 1) {
+                addCommanderAtMostOne(literals, condition, sink);
+            } else {
+                addSequentialCounterAtMost(literals, k, condition, sink);
+            }
+        }
+    },
+    /**
+     * Sums the literals in unary along a balanced binary tree, truncating each sum at k + 1,
+     * needing O(n log n) auxiliary variables and O(n k) clauses (Bailleux and Boufkhad 2003).
+     */
+    TOTALIZER {
+        @Override
+        void addAtMost(int[] literals, int k, int condition, IClauseSink sink) {
+            int[] sum = addTotalizer(literals, 0, literals.length, k + 1, sink);
+            sink.addClause(withCondition(condition, -sum[k]));
+        }
+    },
+    /**
+     * Chooses an encoding for each constraint by its size, so that the number of clauses stays linear in the
+     * number of literals for bounded k:
+     * {@link #PAIRWISE} for at most {@link #PAIRWISE_LIMIT} literals or if a single clause suffices,
+     * {@link #COMMANDER} for at-most-one constraints, and {@link #SEQUENTIAL_COUNTER} otherwise.
+     */
+    AUTOMATIC {
+        @Override
+        void addAtMost(int[] literals, int k, int condition, IClauseSink sink) {
+            if (literals.length <= PAIRWISE_LIMIT || k == 0 || k == literals.length - 1) {
+                PAIRWISE.addAtMost(literals, k, condition, sink);
+            } else if (k == 1) {
+                COMMANDER.addAtMost(literals, k, condition, sink);
+            } else {
+                SEQUENTIAL_COUNTER.addAtMost(literals, k, condition, sink);
+            }
+        }
+    };
+
+    /**
+     * The maximum number of literals for which {@link #AUTOMATIC} chooses the {@link #PAIRWISE} encoding.
+     */
+    public static final int PAIRWISE_LIMIT = 6;
+
+    private static final int COMMANDER_GROUP_SIZE = 3;
+
+    /**
+     * Adds clauses stating that, if the condition is true, between the given bounds of the given variables are true.
+     * Upper bounds are not conditioned, as the variables of a group are assumed to imply the condition.
+     *
+     * @param condition the condition variable
+     * @param variables the variables
+     * @param lowerBound the lower bound, at least 0
+     * @param upperBound the upper bound, at least the lower bound and at most the number of variables
+     * @param sink the sink
+     */
+    void addCardinalityClauses(int condition, int[] variables, int lowerBound, int upperBound, IClauseSink sink) {
+        int n = variables.length;
+        if (lowerBound > 0) {
+            int[] negatedVariables = new int[n];
+            for (int i = 0; i < n; i++) {
+                negatedVariables[i] = -variables[i];
+            }
+            addAtMost(negatedVariables, n - lowerBound, condition, sink);
+        }
+        if (upperBound < n) {
+            addAtMost(variables, upperBound, 0, sink);
+        }
+    }
+
+    /**
+     * Adds clauses stating that, if the condition is true, at most k of the given literals are true.
+     *
+     * @param literals the literals
+     * @param k the bound, at least 0 and less than the number of literals
+     * @param condition the condition variable, or 0 for an unconditional constraint
+     * @param sink the sink
+     */
+    abstract void addAtMost(int[] literals, int k, int condition, IClauseSink sink);
+
+    private static int[] withCondition(int condition, int... literals) {
+        if (condition == 0) {
+            return literals;
+        }
+        int[] clause = new int[literals.length + 1];
+        clause[0] = -condition;
+        System.arraycopy(literals, 0, clause, 1, literals.length);
+        return clause;
+    }
+
+    private static void addPairwiseAtMost(int[] literals, int k, int condition, IClauseSink sink) {
+        int subsetSize = k + 1;
+        int offset = condition == 0 ? 0 : 1;
+        int[] indices = new int[subsetSize];
+        for (int i = 0; i < subsetSize; i++) {
+            indices[i] = i;
+        }
+        while (true) {
+            int[] clause = new int[subsetSize + offset];
+            if (offset == 1) {
+                clause[0] = -condition;
+            }
+            for (int i = 0; i < subsetSize; i++) {
+                clause[i + offset] = -literals[indices[i]];
+            }
+            sink.addClause(clause);
+            int i = subsetSize - 1;
+            while (i >= 0 && indices[i] == literals.length - subsetSize + i) {
+                i--;
+            }
+            if (i < 0) {
+                return;
+            }
+            indices[i]++;
+            for (int j = i + 1; j < subsetSize; j++) {
+                indices[j] = indices[j - 1] + 1;
+            }
+        }
+    }
+
+    private static void addSequentialCounterAtMost(int[] literals, int k, int condition, IClauseSink sink) {
+        int n = literals.length;
+        if (k == 0) {
+            for (int literal : literals) {
+                sink.addClause(withCondition(condition, -literal));
+            }
+            return;
+        }
+        // counter[j] is true if at least j + 1 of the literals seen so far are true
+        int[] counter = new int[k];
+        int[] nextCounter = new int[k];
+        for (int j = 0; j < k; j++) {
+            counter[j] = sink.newAuxiliaryVariable();
+        }
+        sink.addClause(-literals[0], counter[0]);
+        for (int j = 1; j < k; j++) {
+            sink.addClause(-counter[j]);
+        }
+        for (int i = 1; i < n - 1; i++) {
+            for (int j = 0; j < k; j++) {
+                nextCounter[j] = sink.newAuxiliaryVariable();
+            }
+            sink.addClause(-literals[i], nextCounter[0]);
+            sink.addClause(-counter[0], nextCounter[0]);
+            for (int j = 1; j < k; j++) {
+                sink.addClause(-literals[i], -counter[j - 1], nextCounter[j]);
+                sink.addClause(-counter[j], nextCounter[j]);
+            }
+            sink.addClause(withCondition(condition, -literals[i], -counter[k - 1]));
+            int[] swap = counter;
+            counter = nextCounter;
+            nextCounter = swap;
+        }
+        sink.addClause(withCondition(condition, -literals[n - 1], -counter[k - 1]));
+    }
+
+    private static void addCommanderAtMostOne(int[] literals, int condition, IClauseSink sink) {
+        while (literals.length > COMMANDER_GROUP_SIZE + 1) {
+            int[] commanders = new int[(literals.length + COMMANDER_GROUP_SIZE - 1) / COMMANDER_GROUP_SIZE];
+            for (int group = 0; group < commanders.length; group++) {
+                int start = group * COMMANDER_GROUP_SIZE;
+                int end = Math.min(start + COMMANDER_GROUP_SIZE, literals.length);
+                int commander = sink.newAuxiliaryVariable();
+                commanders[group] = commander;
+                for (int i = start; i < end; i++) {
+                    sink.addClause(-literals[i], commander);
+                    for (int j = i + 1; j < end; j++) {
+                        sink.addClause(withCondition(condition, -literals[i], -literals[j]));
+                    }
+                }
+            }
+            literals = commanders;
+        }
+        if (literals.length > 1) {
+            addPairwiseAtMost(literals, 1, condition, sink);
+        }
+    }
+
+    /**
+     * {@return unary output variables for the number of true literals in the given range, truncated at the limit}
+     * The i-th output variable is true if at least i + 1 literals are true.
+     */
+    private static int[] addTotalizer(int[] literals, int start, int end, int limit, IClauseSink sink) {
+        if (end - start == 1) {
+            return new int[] {literals[start]};
+        }
+        int middle = (start + end) >>> 1;
+        int[] left = addTotalizer(literals, start, middle, limit, sink);
+        int[] right = addTotalizer(literals, middle, end, limit, sink);
+        int[] sum = new int[Math.min(left.length + right.length, limit)];
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] = sink.newAuxiliaryVariable();
+        }
+        for (int i = 0; i <= left.length; i++) {
+            for (int j = 0; j <= right.length; j++) {
+                int count = i + j;
+                if (count == 0 || count > sum.length) {
+                    continue;
+                }
+                if (i == 0) {
+                    sink.addClause(-right[j - 1], sum[count - 1]);
+                } else if (j == 0) {
+                    sink.addClause(-left[i - 1], sum[count - 1]);
+                } else {
+                    sink.addClause(-left[i - 1], -right[j - 1], sum[count - 1]);
+                }
+            }
+        }
+        return sum;
+    }
+}
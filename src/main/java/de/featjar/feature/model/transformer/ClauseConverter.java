@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.IExpression;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.BiImplies;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
+import de.featjar.formula.structure.connective.Or;
+import de.featjar.formula.structure.connective.Reference;
+import de.featjar.formula.structure.predicate.Literal;
+import de.featjar.formula.structure.term.value.Variable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Converts arbitrary propositional formulas into clauses.
+ * Negations are pushed to the literals on the fly, and disjunctions are distributed over conjunctions.
+ * If distributing would exceed {@link #MAXIMUM_DISTRIBUTED_CLAUSES} clauses,
+ * the disjunct is replaced by an auxiliary variable that implies it (Plaisted-Greenbaum),
+ * so the number of clauses stays linear in the size of the formula.
+ * The result is then equisatisfiable instead of equivalent.
+ */
+final class ClauseConverter {
+
+    /**
+     * The maximum number of clauses produced by distributing a single disjunction.
+     */
+    static final int MAXIMUM_DISTRIBUTED_CLAUSES = 64;
+
+    private static final int[] EMPTY_CLAUSE = new int[0];
+
+    private final IClauseSink sink;
+
+    ClauseConverter(IClauseSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Adds the clauses of a formula to the sink.
+     *
+     * @param formula the formula
+     * @throws IllegalArgumentException if the formula is not propositional
+     */
+    void addClauses(IExpression formula) {
+        for (int[] clause : toClauses(formula, true)) {
+            sink.addClause(clause);
+        }
+    }
+
+    /**
+     * {@return the clauses of a formula or its negation}
+     * The formula is traversed with an explicit stack, so deeply nested formulas do not overflow the call stack.
+     *
+     * @param formula the formula
+     * @param positive whether to convert the formula or its negation
+     */
+    private List<int[]> toClauses(IExpression formula, boolean positive) {
+        ArrayDeque<Operation> stack = new ArrayDeque<>();
+        List<int[]> clauses = null;
+        IExpression operand = formula;
+        boolean operandPositive = positive;
+        while (true) {
+            if (operand != null) {
+                while (operand instanceof Reference || operand instanceof Not) {
+                    operandPositive ^= operand instanceof Not;
+                    operand = operand.getChildren().get(0);
+                }
+                clauses = toLiteralClauses(operand, operandPositive);
+                if (clauses == null) {
+                    stack.push(new Operation(operand, operandPositive));
+                }
+                operand = null;
+            }
+            Operation operation = stack.peek();
+            if (operation == null) {
+                return clauses;
+            }
+            if (clauses != null) {
+                operation.operandClauses.add(clauses);
+                clauses = null;
+            }
+            int index = operation.operandClauses.size();
+            if (index < operation.operands.length) {
+                operand = operation.operands[index];
+                operandPositive = operation.polarities[index];
+            } else {
+                stack.pop();
+                clauses = combine(operation);
+            }
+        }
+    }
+
+    /**
+     * {@return the clauses of a literal, variable, or constant, null if the formula has operands}
+     */
+    private List<int[]> toLiteralClauses(IExpression formula, boolean positive) {
+        if (formula instanceof Literal) {
+            IExpression variable = formula.getChildren().get(0);
+            int literal = sink.getVariable(((Variable) variable).getName());
+            return List.of(new int[] {((Literal) formula).isPositive() == positive ? literal : -literal});
+        }
+        if (formula instanceof Variable) {
+            int literal = sink.getVariable(((Variable) formula).getName());
+            return List.of(new int[] {positive ? literal : -literal});
+        }
+        if (formula.getClass() == Expressions.True.getClass() || formula.getClass() == Expressions.False.getClass()) {
+            return (formula.getClass() == Expressions.True.getClass()) == positive
+                    ? List.of()
+                    : List.of(EMPTY_CLAUSE);
+        }
+        return null;
+    }
+
+    private List<int[]> combine(Operation operation) {
+        IExpression formula = operation.formula;
+        List<List<int[]>> operandClauses = operation.operandClauses;
+        if (formula instanceof And || formula instanceof Or) {
+            return (formula instanceof And) == operation.positive ? conjoin(operandClauses) : disjoin(operandClauses);
+        }
+        if (formula instanceof Implies) {
+            return operation.positive ? disjoin(operandClauses) : conjoin(operandClauses);
+        }
+        return conjoin(List.of(
+                disjoin(List.of(operandClauses.get(1), operandClauses.get(2))),
+                disjoin(List.of(operandClauses.get(0), operandClauses.get(3)))));
+    }
+
+    /**
+     * A connective on the stack of {@link #toClauses(IExpression, boolean)},
+     * together with the operands to convert and the clauses of the operands converted so far.
+     */
+    private static final class Operation {
+        private final IExpression formula;
+        private final boolean positive;
+        private final IExpression[] operands;
+        private final boolean[] polarities;
+        private final List<List<int[]>> operandClauses;
+
+        private Operation(IExpression formula, boolean positive) {
+            this.formula = formula;
+            this.positive = positive;
+            List<? extends IExpression> children = formula.getChildren();
+            if (formula instanceof And || formula instanceof Or) {
+                operands = children.toArray(new IExpression[0]);
+                polarities = new boolean[operands.length];
+                Arrays.fill(polarities, positive);
+            } else if (formula instanceof Implies) {
+                operands = new IExpression[] {children.get(0), children.get(1)};
+                polarities = new boolean[] {!positive, positive};
+            } else if (formula instanceof BiImplies) {
+                IExpression left = children.get(0);
+                IExpression right = children.get(1);
+                operands = new IExpression[] {left, left, right, right};
+                polarities = new boolean[] {true, false, positive, !positive};
+            } else {
+                throw new IllegalArgumentException(String.format("cannot convert %s to clauses", formula.print()));
+            }
+            operandClauses = new ArrayList<>(operands.length);
+        }
+    }
+
+    private static List<int[]> conjoin(List<List<int[]>> conjuncts) {
+        if (conjuncts.size() == 1) {
+            return conjuncts.get(0);
+        }
+        List<int[]> clauses = new ArrayList<>();
+        for (List<int[]> conjunct : conjuncts) {
+            clauses.addAll(conjunct);
+        }
+        return clauses;
+    }
+
+    private List<int[]> disjoin(List<List<int[]>> disjuncts) {
+        List<int[]> clauses = List.of(EMPTY_CLAUSE);
+        for (List<int[]> disjunct : disjuncts) {
+            if (disjunct.size() > 1 && clauses.size() * disjunct.size() > MAXIMUM_DISTRIBUTED_CLAUSES) {
+                int auxiliaryVariable = sink.newAuxiliaryVariable();
+                for (int[] clause : disjunct) {
+                    sink.addClause(merge(new int[] {-auxiliaryVariable}, clause));
+                }
+                disjunct = List.of(new int[] {auxiliaryVariable});
+            }
+            List<int[]> product = new ArrayList<>(clauses.size() * disjunct.size());
+            for (int[] clause : clauses) {
+                for (int[] otherClause : disjunct) {
+                    int[] mergedClause = merge(clause, otherClause);
+                    if (mergedClause != null) {
+                        product.add(mergedClause);
+                    }
+                }
+            }
+            clauses = product;
+        }
+        return clauses;
+    }
+
+    /**
+     * {@return the disjunction of two clauses without duplicate literals, null if it is a tautology}
+     */
+    private static int[] merge(int[] clause, int[] otherClause) {
+        int[] mergedClause = new int[clause.length + otherClause.length];
+        System.arraycopy(clause, 0, mergedClause, 0, clause.length);
+        int length = clause.length;
+        outer:
+        for (int literal : otherClause) {
+            for (int i = 0; i < clause.length; i++) {
+                if (clause[i] == literal) {
+                    continue outer;
+                } else if (clause[i] == -literal) {
+                    return null;
+                }
+            }
+            mergedClause[length++] = literal;
+        }
+        return length == mergedClause.length ? mergedClause : Arrays.copyOf(mergedClause, length);
+    }
+}
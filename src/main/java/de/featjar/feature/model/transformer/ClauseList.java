@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+import de.featjar.base.data.Result;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link IClauseSink} that keeps all clauses in memory, together with a dense map of variable names.
+ */
+public class ClauseList implements IClauseSink {
+
+    protected final ArrayList<String> variableNames;
+    protected final HashMap<String, Integer> variables;
+    protected final ArrayList<int[]> clauses;
+
+    public ClauseList() {
+        this(16, 16);
+    }
+
+    /**
+     * Creates an empty clause list sized for the given number of variables and clauses.
+     *
+     * @param expectedNumberOfVariables the expected number of variables
+     * @param expectedNumberOfClauses the expected number of clauses
+     */
+    public ClauseList(int expectedNumberOfVariables, int expectedNumberOfClauses) {
+        variableNames = new ArrayList<>(expectedNumberOfVariables);
+        variables = new HashMap<>((int) (expectedNumberOfVariables * 1.5));
+        clauses = new ArrayList<>(expectedNumberOfClauses);
+    }
+
+    @Override
+    public int getVariable(String name) {
+        Integer variable = variables.get(Objects.requireNonNull(name));
+        if (variable == null) {
+            variableNames.add(name);
+            variable = variableNames.size();
+            variables.put(name, variable);
+        }
+        return variable;
+    }
+
+    @Override
+    public int newAuxiliaryVariable() {
+        variableNames.add(null);
+        return variableNames.size();
+    }
+
+    @Override
+    public void addClause(int... literals) {
+        clauses.add(literals);
+    }
+
+    /**
+     * {@return the number of the variable with the given name, if it exists}
+     *
+     * @param name the name
+     */
+    public Result<Integer> findVariable(String name) {
+        return Result.ofNullable(variables.get(name));
+    }
+
+    /**
+     * {@return the name of the given variable, empty for auxiliary variables and variables that do not exist}
+     *
+     * @param variable the variable
+     */
+    public Result<String> getVariableName(int variable) {
+        if (variable < 1 || variable > variableNames.size()) {
+            return Result.empty();
+        }
+        return Result.ofNullable(variableNames.get(variable - 1));
+    }
+
+    public int getNumberOfVariables() {
+        return variableNames.size();
+    }
+
+    public int getNumberOfClauses() {
+        return clauses.size();
+    }
+
+    /**
+     * {@return an unmodifiable view of all clauses, in the order they were added}
+     * The returned arrays should not be modified.
+     */
+    public List<int[]> getClauses() {
+        return Collections.unmodifiableList(clauses);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Computations;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Range;
+import de.featjar.base.data.Result;
+import de.featjar.feature.model.FeatureTree.Group;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeatureModel;
+import de.featjar.feature.model.IFeatureTree;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Transforms a feature model into clauses over integer variables.
+ * In contrast to {@link ComputeFormula}, the clauses of the feature tree are emitted directly,
+ * as the feature tree is already clausal:
+ * each feature implies its parent, a mandatory feature is implied by its parent, a dead feature is negated,
+ * and each group that is not an and-group is encoded as a cardinality constraint over its children,
+ * using the given {@link CardinalityEncoding} ({@link CardinalityEncoding#AUTOMATIC} by default).
+ * Only the cross-tree constraints are converted by general CNF conversion.
+ * The features of the feature tree are assigned the first variables, in the order of a traversal of the tree.
+ */
+public class ComputeClauses extends AComputation<ClauseList> {
+    protected static final Dependency<IFeatureModel> FEATURE_MODEL = Dependency.newDependency(IFeatureModel.class);
+    protected static final Dependency<CardinalityEncoding> CARDINALITY_ENCODING =
+            Dependency.newDependency(CardinalityEncoding.class);
+
+    private static final class TreeFrame {
+        private final IFeatureTree tree;
+        private final int variable;
+        private final int parentVariable;
+
+        private TreeFrame(IFeatureTree tree, int parentVariable, IClauseSink sink) {
+            this.tree = tree;
+            variable = sink.getVariable(tree.getFeature().getName().orElse(""));
+            this.parentVariable = parentVariable;
+        }
+    }
+
+    public ComputeClauses(IComputation<IFeatureModel> featureModel) {
+        this(featureModel, CardinalityEncoding.AUTOMATIC);
+    }
+
+    public ComputeClauses(IComputation<IFeatureModel> featureModel, CardinalityEncoding encoding) {
+        super(featureModel, Computations.of(encoding));
+    }
+
+    protected ComputeClauses(ComputeClauses other) {
+        super(other);
+    }
+
+    @Override
+    public Result<ClauseList> compute(List<Object> dependencyList, Progress progress) {
+        return Result.of(
+                computeClauses(FEATURE_MODEL.get(dependencyList), CARDINALITY_ENCODING.get(dependencyList)));
+    }
+
+    /**
+     * {@return the clauses of the given feature model}
+     *
+     * @param featureModel the feature model
+     */
+    public static ClauseList computeClauses(IFeatureModel featureModel) {
+        return computeClauses(featureModel, CardinalityEncoding.AUTOMATIC);
+    }
+
+    /**
+     * {@return the clauses of the given feature model}
+     *
+     * @param featureModel the feature model
+     * @param encoding the encoding of group cardinalities
+     */
+    public static ClauseList computeClauses(IFeatureModel featureModel, CardinalityEncoding encoding) {
+        int numberOfFeatures = featureModel.getNumberOfFeatures();
+        ClauseList clauseList =
+                new ClauseList(numberOfFeatures, 2 * numberOfFeatures + featureModel.getNumberOfConstraints());
+        addClauses(featureModel, encoding, clauseList);
+        return clauseList;
+    }
+
+    /**
+     * Adds the clauses of the given feature model to a sink.
+     *
+     * @param featureModel the feature model
+     * @param encoding the encoding of group cardinalities
+     * @param sink the sink
+     * @throws IllegalArgumentException if a constraint is not propositional
+     */
+    public static void addClauses(IFeatureModel featureModel, CardinalityEncoding encoding, IClauseSink sink) {
+        addTreeClauses(featureModel.getRoots(), encoding, sink);
+        ClauseConverter converter = new ClauseConverter(sink);
+        for (IConstraint constraint : featureModel.getConstraints()) {
+            converter.addClauses(constraint.getFormula());
+        }
+    }
+
+    /**
+     * Adds the clauses of the given feature trees to a sink.
+     *
+     * @param roots the roots of the feature trees
+     * @param encoding the encoding of group cardinalities
+     * @param sink the sink
+     */
+    public static void addTreeClauses(List<IFeatureTree> roots, CardinalityEncoding encoding, IClauseSink sink) {
+        ArrayDeque<TreeFrame> stack = new ArrayDeque<>();
+        for (int i = roots.size() - 1; i >= 0; i--) {
+            stack.push(new TreeFrame(roots.get(i), 0, sink));
+        }
+        TreeFrame[] childFrames = new TreeFrame[0];
+        while (!stack.isEmpty()) {
+            TreeFrame frame = stack.pop();
+            IFeatureTree tree = frame.tree;
+            int variable = frame.variable;
+            if (tree.getFeatureRangeUpperBound() == 0) {
+                sink.addClause(-variable);
+            }
+            if (frame.parentVariable == 0) {
+                if (tree.isMandatory()) {
+                    sink.addClause(variable);
+                }
+            } else {
+                sink.addClause(-variable, frame.parentVariable);
+                if (tree.isMandatory()) {
+                    sink.addClause(-frame.parentVariable, variable);
+                }
+            }
+            List<IFeatureTree> children = tree.getChildren();
+            int childrenCount = children.size();
+            if (childrenCount == 0) {
+                continue;
+            }
+            if (childFrames.length < childrenCount) {
+                childFrames = new TreeFrame[Math.max(childrenCount, 2 * childFrames.length)];
+            }
+            for (int i = 0; i < childrenCount; i++) {
+                childFrames[i] = new TreeFrame(children.get(i), variable, sink);
+            }
+            addGroupClauses(tree, variable, childFrames, childrenCount, encoding, sink);
+            for (int i = childrenCount - 1; i >= 0; i--) {
+                stack.push(childFrames[i]);
+                childFrames[i] = null;
+            }
+        }
+    }
+
+    private static void addGroupClauses(
+            IFeatureTree tree,
+            int variable,
+            TreeFrame[] childFrames,
+            int childrenCount,
+            CardinalityEncoding encoding,
+            IClauseSink sink) {
+        List<Group> groups = tree.getGroups();
+        int[] groupSizes = new int[groups.size()];
+        for (int i = 0; i < childrenCount; i++) {
+            int groupID = childFrames[i].tree.getGroupID();
+            if (groupID >= 0 && groupID < groupSizes.length) {
+                groupSizes[groupID]++;
+            }
+        }
+        int[][] groupVariables = new int[groups.size()][];
+        for (int groupID = 0; groupID < groupVariables.length; groupID++) {
+            groupVariables[groupID] = groups.get(groupID).isAnd() ? null : new int[groupSizes[groupID]];
+            groupSizes[groupID] = 0;
+        }
+        for (int i = 0; i < childrenCount; i++) {
+            int groupID = childFrames[i].tree.getGroupID();
+            if (groupID >= 0 && groupID < groupVariables.length && groupVariables[groupID] != null) {
+                groupVariables[groupID][groupSizes[groupID]++] = childFrames[i].variable;
+            }
+        }
+        for (int groupID = 0; groupID < groupVariables.length; groupID++) {
+            if (groupVariables[groupID] != null) {
+                Group group = groups.get(groupID);
+                addCardinalityClauses(
+                        variable,
+                        groupVariables[groupID],
+                        group.getLowerBound(),
+                        group.getUpperBound(),
+                        encoding,
+                        sink);
+            }
+        }
+    }
+
+    private static void addCardinalityClauses(
+            int parentVariable,
+            int[] variables,
+            int lowerBound,
+            int upperBound,
+            CardinalityEncoding encoding,
+            IClauseSink sink) {
+        int n = variables.length;
+        if (lowerBound == Range.OPEN) {
+            lowerBound = 0;
+        }
+        if (upperBound == Range.OPEN || upperBound > n) {
+            upperBound = n;
+        }
+        if (lowerBound > upperBound) {
+            sink.addClause(-parentVariable);
+        } else {
+            encoding.addCardinalityClauses(parentVariable, variables, lowerBound, upperBound, sink);
+        }
+    }
+}
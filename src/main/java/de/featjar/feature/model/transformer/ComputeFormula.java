@@ -26,6 +26,7 @@ import de.featjar.base.computation.IComputation;
 import de.featjar.base.computation.Progress;
 import de.featjar.base.data.Result;
 import de.featjar.feature.model.FeatureTree.Group;
+import de.featjar.feature.model.FeatureTreeTask;
 import de.featjar.feature.model.IConstraint;
 import de.featjar.feature.model.IFeature;
 import de.featjar.feature.model.IFeatureModel;
@@ -37,21 +38,48 @@ import de.featjar.formula.structure.connective.AtLeast;
 import de.featjar.formula.structure.connective.Between;
 import de.featjar.formula.structure.connective.Choose;
 import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
 import de.featjar.formula.structure.connective.Reference;
 import de.featjar.formula.structure.predicate.Literal;
 import de.featjar.formula.structure.term.value.Variable;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Transforms a feature model into a boolean formula.
+ * Each feature implies its parent, and a feature whose feature range has a positive lower bound
+ * is implied by its parent (or is a root that must be selected).
+ * A feature whose feature range has an upper bound of zero is never selected.
+ * Each group that is not an and-group constrains the number of selected children in that group
+ * whenever its parent is selected.
+ * The feature tree is traversed once, the children of each node are bucketed by group in a single pass,
+ * and each literal is created only once per feature, so this takes time linear in the size of the feature model.
+ * Large feature trees are traversed in parallel with a {@link FeatureTreeTask}.
  *
  * @author Sebastian Krieter
  */
 public class ComputeFormula extends AComputation<IFormula> {
     protected static final Dependency<IFeatureModel> FEATURE_MODEL = Dependency.newDependency(IFeatureModel.class);
 
+    /**
+     * The minimum number of tree features for which the feature tree is traversed in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private static final class TreeFrame {
+        private final String name;
+        private final Literal literal;
+        private final Literal parentLiteral;
+
+        private TreeFrame(IFeatureTree tree, Literal parentLiteral) {
+            name = tree.getFeature().getName().orElse("");
+            literal = Expressions.literal(name);
+            this.parentLiteral = parentLiteral;
+        }
+    }
+
     public ComputeFormula(IComputation<IFeatureModel> formula) {
         super(formula);
     }
@@ -62,62 +90,180 @@ public class ComputeFormula extends AComputation<IFormula> {
 
     @Override
     public Result<IFormula> compute(List<Object> dependencyList, Progress progress) {
-        IFeatureModel featureModel = FEATURE_MODEL.get(dependencyList);
-        HashSet<IFeatureModel> featureModels = new HashSet<>();
-        ArrayList<IFormula> constraints = new ArrayList<>();
-        HashSet<Variable> variables = new HashSet<>();
-        featureModel.getFeatureTreeStream().forEach(tree -> {
-            // TODO use better error value
-            IFeature feature = tree.getFeature();
-            String featureName = feature.getName().orElse("");
-            Variable variable = new Variable(featureName, feature.getType());
-            variables.add(variable);
-
-            // TODO take featureRanges into Account
-            Result<IFeatureTree> potentialParentTree = tree.getParent();
-            if (potentialParentTree.isEmpty()) {
-                if (tree.isMandatory()) {
-                    constraints.add(Expressions.literal(featureName));
-                }
-            } else {
-                IFeatureTree parentTree = potentialParentTree.get();
-                Literal literal = Expressions.literal(featureName);
-                Literal parentLiteral =
-                        Expressions.literal(parentTree.getFeature().getName().orElse(""));
-                constraints.add(new Implies(literal, parentLiteral));
-                for (Group group : parentTree.getGroups()) {
-                    if (!group.isAnd()) {
-                        List<IFormula> groupLiterals = new ArrayList<>();
-                        for (IFeatureTree childTree : parentTree.getChildren()) {
-                            if (childTree.getGroup() == group) {
-                                groupLiterals.add(Expressions.literal(
-                                        childTree.getFeature().getName().orElse("")));
-                            }
-                        }
-                        if (group.isOr()) {
-                            constraints.add(new Implies(parentLiteral, new AtLeast(1, groupLiterals)));
-                        } else if (group.isAlternative()) {
-                            constraints.add(new Implies(parentLiteral, new Choose(1, groupLiterals)));
-                        } else {
-                            constraints.add(new Implies(
-                                    parentLiteral,
-                                    new Between(group.getLowerBound(), group.getUpperBound(), groupLiterals)));
-                        }
-                    }
-                }
+        return Result.of(computeFormula(FEATURE_MODEL.get(dependencyList)));
+    }
+
+    /**
+     * {@return the formula of the given feature model}
+     * As the formulas of constraints are shared with the feature model, neither they nor the returned formula
+     * should be mutated in place.
+     * Large feature trees are traversed in parallel on the common {@link ForkJoinPool},
+     * which yields the same formula as a sequential traversal.
+     *
+     * @param featureModel the feature model
+     */
+    public static IFormula computeFormula(IFeatureModel featureModel) {
+        List<FormulaBlock> blocks = new FormulaTask()
+                .traverse(featureModel.getRoots(), featureModel.getNumberOfTreeFeatures() >= PARALLEL_THRESHOLD);
+        int numberOfConstraints = featureModel.getNumberOfConstraints();
+        int numberOfVariables = 0;
+        for (FormulaBlock block : blocks) {
+            numberOfConstraints += block.constraints.size();
+            numberOfVariables += block.variables.size();
+        }
+        ArrayList<IFormula> constraints = new ArrayList<>(numberOfConstraints);
+        HashSet<Variable> variables = new HashSet<>((int) (numberOfVariables * 1.5));
+        for (FormulaBlock block : blocks) {
+            constraints.addAll(block.constraints);
+            variables.addAll(block.variables);
+        }
+        for (IConstraint constraint : featureModel.getConstraints()) {
+            constraints.add(constraint.getFormula());
+        }
+        Reference reference = new Reference(new And(constraints));
+        reference.setFreeVariables(variables);
+        return reference;
+    }
+
+    /**
+     * The constraints and variables contributed by a set of subtrees.
+     */
+    private static final class FormulaBlock {
+        private final ArrayList<IFormula> constraints;
+        private final ArrayList<Variable> variables;
+
+        private FormulaBlock(int expectedNumberOfFeatures) {
+            constraints = new ArrayList<>(2 * expectedNumberOfFeatures);
+            variables = new ArrayList<>(expectedNumberOfFeatures);
+        }
+    }
+
+    /**
+     * Collects the constraints and variables of a feature tree in blocks, which are concatenated in pre-order.
+     */
+    private static final class FormulaTask extends FeatureTreeTask<TreeFrame, List<FormulaBlock>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Literal> childLiterals = new ArrayList<>();
+
+        @Override
+        protected TreeFrame newFrame(IFeatureTree tree, TreeFrame parentFrame) {
+            return new TreeFrame(tree, parentFrame == null ? null : parentFrame.literal);
+        }
+
+        @Override
+        protected List<FormulaBlock> newResult() {
+            List<FormulaBlock> blocks = new ArrayList<>();
+            blocks.add(new FormulaBlock(16));
+            return blocks;
+        }
+
+        @Override
+        protected void visit(
+                IFeatureTree tree, TreeFrame frame, List<TreeFrame> childFrames, List<FormulaBlock> blocks) {
+            FormulaBlock block = blocks.get(0);
+            block.variables.add(new Variable(frame.name, tree.getFeature().getType()));
+            childLiterals.clear();
+            for (TreeFrame childFrame : childFrames) {
+                childLiterals.add(childFrame.literal);
+            }
+            addTreeConstraints(tree, frame.literal, frame.parentLiteral, childLiterals, block.constraints);
+        }
+
+        @Override
+        protected void merge(List<FormulaBlock> blocks, List<FormulaBlock> forkedBlocks) {
+            blocks.addAll(forkedBlocks);
+        }
+
+        @Override
+        protected FormulaTask newTask() {
+            return new FormulaTask();
+        }
+    }
+
+    /**
+     * {@return the variable representing a feature}
+     *
+     * @param feature the feature
+     */
+    public static Variable getVariable(IFeature feature) {
+        // TODO use better error value
+        return new Variable(feature.getName().orElse(""), feature.getType());
+    }
+
+    /**
+     * Adds the constraints contributed by a single node of a feature tree, that is,
+     * the constraints relating the node to its parent and its groups to their children.
+     * All constraints of a feature tree are obtained by calling this for each of its nodes.
+     *
+     * @param tree the node
+     * @param constraints the list to add the constraints to
+     */
+    public static void addTreeConstraints(IFeatureTree tree, List<IFormula> constraints) {
+        Literal parentLiteral = tree.getParent()
+                .map(parentTree -> Expressions.literal(
+                        parentTree.getFeature().getName().orElse("")))
+                .orElse(null);
+        List<IFeatureTree> children = tree.getChildren();
+        List<Literal> childLiterals = new ArrayList<>(children.size());
+        for (IFeatureTree child : children) {
+            childLiterals.add(Expressions.literal(child.getFeature().getName().orElse("")));
+        }
+        addTreeConstraints(
+                tree,
+                Expressions.literal(tree.getFeature().getName().orElse("")),
+                parentLiteral,
+                childLiterals,
+                constraints);
+    }
+
+    private static void addTreeConstraints(
+            IFeatureTree tree,
+            Literal literal,
+            Literal parentLiteral,
+            List<Literal> childLiterals,
+            List<IFormula> constraints) {
+        if (tree.getFeatureRangeUpperBound() == 0) {
+            constraints.add(new Not(literal));
+        }
+        if (parentLiteral == null) {
+            if (tree.isMandatory()) {
+                constraints.add(literal);
             }
-            for (IFeatureTree child : tree.getChildren()) {
-                child.getGroup();
+        } else {
+            constraints.add(new Implies(literal, parentLiteral));
+            if (tree.isMandatory()) {
+                constraints.add(new Implies(parentLiteral, literal));
             }
-            IFeatureModel featureModel2 = feature.getFeatureModel();
-            if (featureModels.add(featureModel)) {
-                featureModel2.getConstraints().stream()
-                        .map(IConstraint::getFormula)
-                        .forEach(constraints::add);
+        }
+        if (childLiterals.isEmpty()) {
+            return;
+        }
+        List<Group> groups = tree.getGroups();
+        List<List<IFormula>> groupLiterals = new ArrayList<>(groups.size());
+        for (Group group : groups) {
+            groupLiterals.add(group.isAnd() ? null : new ArrayList<>());
+        }
+        List<IFeatureTree> children = tree.getChildren();
+        for (int i = 0; i < childLiterals.size(); i++) {
+            int groupID = children.get(i).getGroupID();
+            if (groupID >= 0 && groupID < groupLiterals.size() && groupLiterals.get(groupID) != null) {
+                groupLiterals.get(groupID).add(childLiterals.get(i));
             }
-        });
-        Reference reference = new Reference(new And(constraints));
-        reference.setFreeVariables(variables);
-        return Result.of(reference);
+        }
+        for (int groupID = 0; groupID < groups.size(); groupID++) {
+            Group group = groups.get(groupID);
+            List<IFormula> literals = groupLiterals.get(groupID);
+            if (literals != null) {
+                if (group.isOr()) {
+                    constraints.add(new Implies(literal, new AtLeast(1, literals)));
+                } else if (group.isAlternative()) {
+                    constraints.add(new Implies(literal, new Choose(1, literals)));
+                } else {
+                    constraints.add(
+                            new Implies(literal, new Between(group.getLowerBound(), group.getUpperBound(), literals)));
+                }
+            }
+        }
     }
 }
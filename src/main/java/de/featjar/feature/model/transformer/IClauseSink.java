@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+/**
+ * Receives clauses over integer variables, as emitted by {@link ComputeClauses}.
+ * Variables are numbered densely from 1, and a literal is a variable or its negation.
+ * Each named variable is assigned a number once, on its first request.
+ */
+public interface IClauseSink {
+
+    /**
+     * {@return the number of the variable with the given name, which is added if it does not exist yet}
+     *
+     * @param name the name
+     */
+    int getVariable(String name);
+
+    /**
+     * {@return the number of a new unnamed variable}
+     * Auxiliary variables are introduced by encodings that would otherwise emit too many clauses.
+     */
+    int newAuxiliaryVariable();
+
+    /**
+     * Adds a clause, that is, a disjunction of literals.
+     * The sink takes ownership of the given array.
+     *
+     * @param literals the literals
+     */
+    void addClause(int... literals);
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+import de.featjar.base.data.Result;
+import de.featjar.base.data.identifier.IIdentifier;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.FeatureModelChange;
+import de.featjar.feature.model.FeatureTreeCursor;
+import de.featjar.feature.model.FeatureTreeCursor.Order;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeature;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.Reference;
+import de.featjar.formula.structure.term.value.Variable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Maintains the boolean formula of a {@link FeatureModel} across changes.
+ * Keeps one block of constraints per node of the feature tree (as computed by
+ * {@link ComputeFormula#addTreeConstraints(IFeatureTree, List)}) and one block per constraint.
+ * On each query, pulls all changes since the last query from the
+ * {@link FeatureModel#getJournal() journal}, which is enabled on construction,
+ * and regenerates only the blocks of affected nodes and constraints.
+ * The constraints of all blocks are kept in a single list, which is patched in place when a block changes,
+ * so {@link #getConstraints()} and {@link #getVariables()} take time proportional to the changes.
+ * Only {@link #get()} takes time linear in the size of the feature model to build a new formula.
+ * The returned formula is equivalent to the one computed by {@link ComputeFormula},
+ * although its constraints may be ordered differently.
+ * As in {@link ComputeFormula}, formulas of constraints are shared with the feature model,
+ * and neither they nor the returned formula should be mutated in place.
+ */
+public class IncrementalFormula {
+
+    /**
+     * The constraints of a node of the feature tree or of a constraint,
+     * together with their positions in the list of all constraints.
+     */
+    private static final class Block {
+        private final IFeatureTree tree;
+        private final Variable variable;
+        private final int[] positions;
+
+        private Block(IFeatureTree tree, Variable variable, int numberOfConstraints) {
+            this.tree = tree;
+            this.variable = variable;
+            positions = new int[numberOfConstraints];
+        }
+    }
+
+    protected final FeatureModel featureModel;
+    private final LinkedHashMap<IIdentifier, Block> treeBlocks = new LinkedHashMap<>();
+    private final LinkedHashMap<IIdentifier, Block> constraintBlocks = new LinkedHashMap<>();
+    private final ArrayList<IFormula> constraints = new ArrayList<>();
+    private final ArrayList<Block> owners = new ArrayList<>();
+    private final HashMap<Variable, Integer> variables = new HashMap<>();
+    private long version = -1;
+    private IFormula formula;
+
+    public IncrementalFormula(FeatureModel featureModel) {
+        this.featureModel = Objects.requireNonNull(featureModel);
+        featureModel.getJournal().setEnabled(true);
+    }
+
+    /**
+     * {@return the formula of the current feature model}
+     * If the feature model has not changed since the last call, returns the same formula.
+     */
+    public IFormula get() {
+        update();
+        if (formula == null) {
+            Reference reference = new Reference(new And(new ArrayList<>(constraints)));
+            reference.setFreeVariables(new HashSet<>(variables.keySet()));
+            formula = reference;
+        }
+        return formula;
+    }
+
+    /**
+     * {@return an unmodifiable view of the constraints of the current feature model, in no particular order}
+     * The view reflects later changes of the feature model after the next query.
+     */
+    public List<IFormula> getConstraints() {
+        update();
+        return Collections.unmodifiableList(constraints);
+    }
+
+    /**
+     * {@return an unmodifiable view of the variables of the features in the feature tree of the current feature model}
+     * The view reflects later changes of the feature model after the next query.
+     */
+    public Set<Variable> getVariables() {
+        update();
+        return Collections.unmodifiableSet(variables.keySet());
+    }
+
+    private void update() {
+        long currentVersion = featureModel.getJournal().getVersion();
+        if (version == currentVersion) {
+            return;
+        }
+        Result<List<FeatureModelChange>> changes =
+                version < 0 ? Result.empty() : featureModel.getJournal().getChangesSince(version);
+        if (changes.isPresent()) {
+            update(changes.get());
+        } else {
+            rebuild();
+        }
+        version = currentVersion;
+        formula = null;
+    }
+
+    protected void rebuild() {
+        treeBlocks.clear();
+        constraintBlocks.clear();
+        constraints.clear();
+        owners.clear();
+        variables.clear();
+        featureModel.forEachFeatureTree(Order.PRE_ORDER, this::putTreeBlock);
+        for (IConstraint constraint : featureModel.getConstraints()) {
+            putConstraintBlock(constraint);
+        }
+    }
+
+    protected void update(List<FeatureModelChange> changes) {
+        Set<IFeatureTree> changedTrees = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<IFeatureTree> detachedTrees = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<IConstraint> changedConstraints = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (FeatureModelChange change : changes) {
+            switch (change.getType()) {
+                case FEATURE_TREE_ADDED:
+                    change.getParentTree().ifPresent(changedTrees::add);
+                    FeatureTreeCursor.forEach(
+                            List.of((IFeatureTree) change.getElement()), Order.PRE_ORDER, changedTrees::add);
+                    break;
+                case FEATURE_TREE_REMOVED:
+                    change.getParentTree().ifPresent(changedTrees::add);
+                    FeatureTreeCursor.forEach(
+                            List.of((IFeatureTree) change.getElement()), Order.PRE_ORDER, detachedTrees::add);
+                    break;
+                case GROUP_ID_CHANGED:
+                    ((IFeatureTree) change.getElement()).getParent().ifPresent(changedTrees::add);
+                    break;
+                case GROUPS_CHANGED:
+                case FEATURE_RANGE_CHANGED:
+                    changedTrees.add((IFeatureTree) change.getElement());
+                    break;
+                case FEATURE_TYPE_CHANGED:
+                    featureModel.getFeatureTree((IFeature) change.getElement()).ifPresent(changedTrees::add);
+                    break;
+                case FEATURE_RENAMED:
+                    featureModel
+                            .getFeatureTree((IFeature) change.getElement())
+                            .ifPresent(tree -> {
+                                changedTrees.add(tree);
+                                tree.getParent().ifPresent(changedTrees::add);
+                                changedTrees.addAll(tree.getChildren());
+                            });
+                    break;
+                case CONSTRAINT_ADDED:
+                case CONSTRAINT_REMOVED:
+                case FORMULA_CHANGED:
+                    changedConstraints.add((IConstraint) change.getElement());
+                    break;
+                default:
+                    break;
+            }
+        }
+        for (IFeatureTree tree : detachedTrees) {
+            if (!changedTrees.contains(tree)) {
+                updateTreeBlock(tree);
+            }
+        }
+        for (IFeatureTree tree : changedTrees) {
+            updateTreeBlock(tree);
+        }
+        for (IConstraint constraint : changedConstraints) {
+            IIdentifier identifier = constraint.getIdentifier();
+            Block block = constraintBlocks.remove(identifier);
+            if (block != null) {
+                removeBlock(block);
+            }
+            if (featureModel.getConstraint(identifier).orElse(null) == constraint) {
+                putConstraintBlock(constraint);
+            }
+        }
+    }
+
+    private void updateTreeBlock(IFeatureTree tree) {
+        IIdentifier identifier = tree.getFeature().getIdentifier();
+        if (featureModel.getFeatureTree(tree.getFeature()).orElse(null) == tree) {
+            putTreeBlock(tree);
+        } else {
+            Block block = treeBlocks.get(identifier);
+            if (block != null && block.tree == tree) {
+                treeBlocks.remove(identifier);
+                removeBlock(block);
+            }
+        }
+    }
+
+    private void putTreeBlock(IFeatureTree tree) {
+        List<IFormula> treeConstraints = new ArrayList<>(2);
+        ComputeFormula.addTreeConstraints(tree, treeConstraints);
+        Block block = new Block(tree, ComputeFormula.getVariable(tree.getFeature()), treeConstraints.size());
+        Block oldBlock = treeBlocks.put(tree.getFeature().getIdentifier(), block);
+        if (oldBlock != null) {
+            removeBlock(oldBlock);
+        }
+        addBlock(block, treeConstraints);
+    }
+
+    private void putConstraintBlock(IConstraint constraint) {
+        Block block = new Block(null, null, 1);
+        constraintBlocks.put(constraint.getIdentifier(), block);
+        addBlock(block, List.of(constraint.getFormula()));
+    }
+
+    private void addBlock(Block block, List<IFormula> blockConstraints) {
+        for (int i = 0; i < blockConstraints.size(); i++) {
+            block.positions[i] = constraints.size();
+            constraints.add(blockConstraints.get(i));
+            owners.add(block);
+        }
+        if (block.variable != null) {
+            variables.merge(block.variable, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Removes the constraints of a block by moving the last constraints into their positions.
+     * The positions are processed in descending order, so no constraint of the block itself is moved.
+     */
+    private void removeBlock(Block block) {
+        int[] positions = block.positions.clone();
+        Arrays.sort(positions);
+        for (int i = positions.length - 1; i >= 0; i--) {
+            int position = positions[i];
+            int lastPosition = constraints.size() - 1;
+            if (position != lastPosition) {
+                Block lastOwner = owners.get(lastPosition);
+                constraints.set(position, constraints.get(lastPosition));
+                owners.set(position, lastOwner);
+                for (int j = 0; j < lastOwner.positions.length; j++) {
+                    if (lastOwner.positions[j] == lastPosition) {
+                        lastOwner.positions[j] = position;
+                        break;
+                    }
+                }
+            }
+            constraints.remove(lastPosition);
+            owners.remove(lastPosition);
+        }
+        if (block.variable != null) {
+            variables.computeIfPresent(block.variable, (variable, count) -> count == 1 ? null : count - 1);
+        }
+    }
+}
@@ -28,7 +28,9 @@ import de.featjar.base.data.IAttributable;
 import de.featjar.base.data.IAttribute;
 import de.featjar.base.data.Result;
 import de.featjar.base.data.identifier.Identifiers;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.Assertions;
@@ -116,4 +118,168 @@ public class AttributeTest {
         Assertions.assertTrue(addFeature.isHidden());
         Assertions.assertFalse(addFeature.mutate().toggleHidden());
     }
+
+    @Test
+    public void attributeStore() {
+        Attribute<Integer> intAttribute = new Attribute<>("any", "int", Integer.class);
+        Attribute<Double> doubleAttribute = new Attribute<>("any", "double", Double.class);
+        IFeature feature1 = featureModel.addFeature("feature1");
+        IFeature feature2 = featureModel.addFeature("feature2");
+        feature1.mutate().setAttributeValue(intAttribute, 42);
+        feature2.mutate().setAttributeValue(doubleAttribute, 0.5);
+        feature2.mutate().setAbstract();
+        Assertions.assertEquals(Result.of(42), feature1.getAttributeValue(intAttribute));
+        Assertions.assertTrue(feature2.getAttributeValue(intAttribute).isEmpty());
+        Assertions.assertEquals(Result.of(0.5), feature2.getAttributeValue(doubleAttribute));
+        Assertions.assertFalse(feature1.isAbstract());
+        Assertions.assertTrue(feature2.isAbstract());
+        assertEquals(
+                Map.of(Attributes.NAME, "feature2", doubleAttribute, 0.5, Attributes.ABSTRACT, true),
+                feature2.getAttributes().get());
+        Assertions.assertEquals(0.5, feature2.mutate().removeAttributeValue(doubleAttribute));
+        Assertions.assertTrue(feature2.getAttributeValue(doubleAttribute).isEmpty());
+
+        FeatureModel clone = featureModel.cloneSharingValues();
+        IFeature clonedFeature1 = clone.getFeature("feature1").get();
+        clonedFeature1.mutate().setAttributeValue(intAttribute, 7);
+        Assertions.assertEquals(Result.of(7), clonedFeature1.getAttributeValue(intAttribute));
+        Assertions.assertEquals(Result.of(42), feature1.getAttributeValue(intAttribute));
+    }
+
+    @Test
+    public void attributesID() throws InterruptedException {
+        int id = Attributes.getID(Attributes.NAME);
+        Assertions.assertEquals(id, Attributes.getID(new Attribute<>(Attributes.NAMESPACE, "name", String.class)));
+        Assertions.assertNotEquals(id, Attributes.getID(Attributes.DESCRIPTION));
+        int numberOfIDs = Attributes.getNumberOfIDs();
+        Assertions.assertEquals(-1, Attributes.getID(new Attribute<>("unregistered", "name", String.class)));
+        Assertions.assertEquals(numberOfIDs, Attributes.getNumberOfIDs());
+
+        List<Attribute<?>> attributes = new ArrayList<>();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    Attribute<?> attribute = Attributes.get("concurrent", "attribute" + j, Integer.class);
+                    Attributes.getID(attribute);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int j = 0; j < 100; j++) {
+            attributes.add(Attributes.get("concurrent", "attribute" + j, Integer.class));
+        }
+        Assertions.assertEquals(
+                100, attributes.stream().mapToInt(Attributes::getID).distinct().count());
+        attributes.forEach(attribute -> Assertions.assertTrue(Attributes.getID(attribute) < Attributes.getNumberOfIDs()));
+        int previousID = -1;
+        for (Attribute<?> attribute : Attributes.getAllAttributes()) {
+            Assertions.assertEquals(previousID + 1, Attributes.getID(attribute));
+            previousID++;
+        }
+        Assertions.assertSame(Attributes.getAllAttributes(), Attributes.getAllAttributes());
+    }
+
+    @Test
+    public void attributeRegisteredAfterWrite() {
+        Attribute<Integer> attribute = new Attribute<>("late", "attribute", Integer.class);
+        IFeature feature = featureModel.mutate().addFeature("feature");
+        feature.mutate().setAttributeValue(attribute, 1);
+        Assertions.assertEquals(-1, Attributes.getID(attribute));
+
+        Attribute<Integer> registeredAttribute = Attributes.get("late", "attribute", Integer.class);
+        Assertions.assertEquals(Result.of(1), feature.getAttributeValue(registeredAttribute));
+        feature.mutate().setAttributeValue(registeredAttribute, 2);
+        Assertions.assertEquals(Result.of(2), feature.getAttributeValue(attribute));
+        Assertions.assertEquals(
+                1,
+                feature.getAttributes().get().keySet().stream()
+                        .filter(attribute::equals)
+                        .count());
+    }
+
+    @Test
+    public void stringColumnDropsUnreferencedStrings() {
+        AttributeStore.StringColumn column = new AttributeStore.StringColumn();
+        column.set(0, "a");
+        column.set(1, "a");
+        column.set(2, "b");
+        Assertions.assertEquals(2, column.getNumberOfStrings());
+        column.set(2, "c");
+        Assertions.assertEquals(2, column.getNumberOfStrings());
+        column.clear(0);
+        column.set(1, "d");
+        Assertions.assertEquals(2, column.getNumberOfStrings());
+        Assertions.assertNull(column.get(0));
+        Assertions.assertEquals("d", column.get(1));
+        Assertions.assertEquals("c", column.get(2));
+    }
+
+    @Test
+    public void attributeStoreCopiesWrittenChunksOnly() {
+        AttributeStore attributeStore = new AttributeStore();
+        int numberOfElements = 3 * AttributeStore.Column.CHUNK_SIZE;
+        for (int i = 0; i < numberOfElements; i++) {
+            attributeStore.set(attributeStore.newIndex(), Attributes.DESCRIPTION, "description" + (i % 10));
+            attributeStore.set(i, Attributes.ABSTRACT, i % 2 == 0);
+        }
+        AttributeStore clonedAttributeStore = attributeStore.cloneSharingValues();
+        clonedAttributeStore.set(5, Attributes.DESCRIPTION, "changed");
+        clonedAttributeStore.remove(6, Attributes.ABSTRACT);
+
+        Assertions.assertEquals("description5", attributeStore.get(5, Attributes.DESCRIPTION));
+        Assertions.assertEquals(true, attributeStore.get(6, Attributes.ABSTRACT));
+        Assertions.assertEquals("changed", clonedAttributeStore.get(5, Attributes.DESCRIPTION));
+        Assertions.assertNull(clonedAttributeStore.get(6, Attributes.ABSTRACT));
+        Assertions.assertEquals("description7", clonedAttributeStore.get(7, Attributes.DESCRIPTION));
+
+        AttributeStore.Column column = attributeStore.getColumn(Attributes.DESCRIPTION);
+        AttributeStore.Column clonedColumn = clonedAttributeStore.getColumn(Attributes.DESCRIPTION);
+        Assertions.assertNotSame(column.chunks[0], clonedColumn.chunks[0]);
+        Assertions.assertSame(column.chunks[1], clonedColumn.chunks[1]);
+        Assertions.assertSame(column.chunks[2], clonedColumn.chunks[2]);
+    }
+
+    @Test
+    public void attributeStoreReusesReleasedIndices() {
+        IFeature feature1 = featureModel.addFeature("feature1");
+        feature1.mutate().setDescription("description");
+        int index = ((Feature) feature1).getIndex();
+        featureModel.removeFeature(feature1);
+        Assertions.assertEquals(-1, ((Feature) feature1).getIndex());
+        Assertions.assertNotEquals(Result.of("feature1"), feature1.getName());
+
+        IFeature feature2 = featureModel.addFeature("feature2");
+        Assertions.assertEquals(index, ((Feature) feature2).getIndex());
+        Assertions.assertTrue(feature2.getDescription().isEmpty());
+        Assertions.assertThrows(IllegalStateException.class, () -> feature1.mutate()
+                .setDescription("description"));
+
+        IFeature feature3 = featureModel.addFeature("feature3");
+        IFeatureTree tree = featureModel.mutate().addFeatureTreeRoot(feature3);
+        featureModel.removeFeature(feature3);
+        Assertions.assertEquals(Result.of("feature3"), feature3.getName());
+        featureModel.mutate().removeFeatureTreeRoot(tree);
+        Assertions.assertEquals(-1, ((Feature) feature3).getIndex());
+    }
+
+    @Test
+    public void attributeStoreKeepsIndicesDuringTransactions() {
+        IFeature feature = featureModel.addFeature("feature");
+        int index = ((Feature) feature).getIndex();
+        featureModel.begin();
+        featureModel.removeFeature(feature);
+        Assertions.assertEquals(index, ((Feature) feature).getIndex());
+        featureModel.rollback();
+        Assertions.assertEquals(index, ((Feature) feature).getIndex());
+        Assertions.assertEquals(Result.of(feature), featureModel.getFeature("feature"));
+
+        featureModel.begin();
+        featureModel.removeFeature(feature);
+        featureModel.commit();
+        Assertions.assertEquals(-1, ((Feature) feature).getIndex());
+    }
 }
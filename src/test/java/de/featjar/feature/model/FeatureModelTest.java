@@ -22,10 +22,18 @@ package de.featjar.feature.model;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import de.featjar.base.data.Range;
 import de.featjar.base.data.Result;
 import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.feature.model.FeatureTree.Group;
 import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -99,4 +107,700 @@ public class FeatureModelTest {
         childTree.mutate().removeFromTree();
         assertEquals(List.of(), rootFeature.getFeatureTree().get().getChildren());
     }
+
+    @Test
+    public void featureModelFeatureNameIndex() {
+        IFeature feature = featureModel.mutate().addFeature("a");
+        Assertions.assertEquals(Result.of(feature), featureModel.getFeature("a"));
+        feature.mutate().setName("b");
+        Assertions.assertTrue(featureModel.getFeature("a").isEmpty());
+        Assertions.assertEquals(Result.of(feature), featureModel.getFeature("b"));
+        feature.mutate().removeAttributeValue(Attributes.NAME);
+        Assertions.assertTrue(featureModel.getFeature("b").isEmpty());
+        Assertions.assertEquals(
+                Result.of(feature), featureModel.getFeature("@" + feature.getIdentifier()));
+        feature.mutate().setName("c");
+        featureModel.mutate().removeFeature(feature);
+        Assertions.assertTrue(featureModel.getFeature("c").isEmpty());
+    }
+
+    @Test
+    public void featureModelFeatureTreeIndex() {
+        IFeature rootFeature = featureModel.mutate().addFeature("root");
+        IFeature childFeature = featureModel.mutate().addFeature("child");
+        IFeature newRootFeature = featureModel.mutate().addFeature("newRoot");
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(rootFeature);
+        IFeatureTree childTree = rootTree.mutate().addFeatureBelow(childFeature);
+        assertTrue(featureModel.hasTreeFeature(childFeature));
+        assertSame(childFeature, featureModel.getTreeFeature(childFeature.getIdentifier()).get());
+        assertFalse(featureModel.hasTreeFeature(newRootFeature));
+        IFeatureTree newRootTree = rootTree.mutate().addFeatureAbove(newRootFeature);
+        assertEquals(List.of(newRootTree), featureModel.getRoots());
+        assertSame(newRootTree, newRootFeature.getFeatureTree().get());
+        assertSame(childTree, childFeature.getFeatureTree().get());
+        rootTree.mutate().removeFromTree();
+        assertFalse(featureModel.hasTreeFeature(rootFeature));
+        assertSame(newRootTree, childTree.getParent().get());
+        assertSame(childTree, childFeature.getFeatureTree().get());
+        featureModel.mutate().removeFeatureTreeRoot(newRootTree);
+        assertEquals(0, featureModel.getNumberOfTreeFeatures());
+        assertTrue(childFeature.getFeatureTree().isEmpty());
+    }
+
+    @Test
+    public void featureModelReferencingConstraints() {
+        IFeature a = featureModel.mutate().addFeature("a");
+        IFeature b = featureModel.mutate().addFeature("b");
+        IConstraint constraint1 = featureModel.mutate().addConstraint(Expressions.literal("a"));
+        IConstraint constraint2 =
+                featureModel.mutate().addConstraint(Expressions.or(Expressions.literal("a"), Expressions.literal("b")));
+        assertEquals(Set.of(constraint1, constraint2), a.getReferencingConstraints());
+        assertEquals(Set.of(constraint2), b.getReferencingConstraints());
+        constraint1.mutate().setFormula(Expressions.literal("b"));
+        assertEquals(Set.of(constraint2), a.getReferencingConstraints());
+        assertEquals(Set.of(constraint2, constraint1), b.getReferencingConstraints());
+        constraint2.mutate().remove();
+        assertEquals(Set.of(), a.getReferencingConstraints());
+        assertEquals(Set.of(constraint1), b.getReferencingConstraints());
+    }
+
+    @Test
+    public void featureModelCloneSharingValues() {
+        FeatureModel original = (FeatureModel) featureModel;
+        IFeature root = original.addFeature("root");
+        IFeature child = original.addFeature("child");
+        original.addFeatureTreeRoot(root).mutate().addFeatureBelow(child);
+        IConstraint constraint = original.addConstraint(Expressions.literal("child"));
+        constraint.mutate().setTags(new LinkedHashSet<>(List.of("tag")));
+
+        FeatureModel clone = original.cloneSharingValues();
+        IFeature clonedChild = clone.getFeature("child").get();
+        IConstraint clonedConstraint = clone.getConstraint(constraint.getIdentifier()).get();
+        assertNotSame(child, clonedChild);
+        assertEquals(child.getIdentifier(), clonedChild.getIdentifier());
+        assertSame(clone, clonedChild.getFeatureModel());
+        assertSame(constraint.getFormula(), clonedConstraint.getFormula());
+        assertEquals(Set.of(clonedConstraint), clonedChild.getReferencingConstraints());
+        assertSame(clonedChild, clonedChild.getFeatureTree().get().getFeature());
+
+        clonedChild.mutate().setName("renamed");
+        clonedChild.mutate().setAbstract();
+        clonedConstraint.mutate().addTag("other");
+        assertEquals(Result.of("child"), child.getName());
+        assertFalse(child.isAbstract());
+        assertEquals(Set.of("tag"), constraint.getTags());
+        assertEquals(Set.of("tag", "other"), clonedConstraint.getTags());
+        assertTrue(clone.getFeature("child").isEmpty());
+        assertSame(child, original.getFeature("child").get());
+
+        original.getFeature("root").get().mutate().setName("root2");
+        assertEquals(Result.of("root"), clone.getFeature("root").get().getName());
+    }
+
+    @Test
+    public void featureModelCloneSharingValuesIsMaterializedLazily() {
+        FeatureModel original = (FeatureModel) featureModel;
+        IFeature root = original.addFeature("root");
+        original.addFeatureTreeRoot(root);
+        IConstraint constraint = original.addConstraint(Expressions.literal("root"));
+
+        FeatureModel clone = original.cloneSharingValues();
+        FeatureModel cloneOfClone = clone.cloneSharingValues();
+        assertTrue(clone.isPending());
+        assertTrue(cloneOfClone.isPending());
+        IFeature child = original.addFeature("child");
+        original.getRoots().get(0).mutate().addFeatureBelow(child);
+        assertFalse(clone.isPending());
+        assertFalse(cloneOfClone.isPending());
+        assertEquals(1, clone.getNumberOfFeatures());
+        assertEquals(1, cloneOfClone.getNumberOfFeatures());
+        assertEquals(0, cloneOfClone.getRoots().get(0).getChildrenCount());
+
+        FeatureModel treeClone = original.cloneSharingValues();
+        original.getFeatureTree(child).get().mutate().setMandatory();
+        assertTrue(treeClone.getFeature("child").get().getFeatureTree().get().isOptional());
+
+        FeatureModel constraintClone = original.cloneSharingValues();
+        constraint.mutate().addTag("tag");
+        assertEquals(
+                Set.of(), constraintClone.getConstraint(constraint.getIdentifier()).get().getTags());
+
+        Class<?> type = root.getType();
+        FeatureModel typeClone = original.cloneSharingValues();
+        root.mutate().setType(Integer.class);
+        assertEquals(type, typeClone.getFeature("root").get().getType());
+
+        FeatureModel mutatedClone = original.cloneSharingValues();
+        mutatedClone.addFeature("other");
+        assertFalse(mutatedClone.isPending());
+        assertEquals(2, original.getNumberOfFeatures());
+        assertEquals(3, mutatedClone.getNumberOfFeatures());
+    }
+
+    @Test
+    public void featureModelCloneDeepFeatureTree() {
+        FeatureModelBuilder builder = new FeatureModelBuilder(Identifiers.newCounterIdentifier(), 50_001, 0);
+        builder.addRoot(builder.addFeature("0"));
+        for (int i = 1; i < 50_000; i++) {
+            builder.addChild(i - 1, builder.addFeature(String.valueOf(i)));
+        }
+        builder.addChild(0, builder.addFeature("sibling"));
+        FeatureModel deepFeatureModel = builder.build();
+        for (FeatureModel clone : List.of(deepFeatureModel.clone(), deepFeatureModel.cloneSharingValues())) {
+            int[] count = new int[1];
+            clone.forEachFeatureTree(FeatureTreeCursor.Order.PRE_ORDER, tree -> count[0]++);
+            assertEquals(50_001, count[0]);
+            IFeatureTree root = clone.getRoots().get(0);
+            assertEquals(
+                    List.of("1", "sibling"),
+                    root.getChildren().stream()
+                            .map(tree -> tree.getFeature().getName().get())
+                            .collect(Collectors.toList()));
+            IFeatureTree leaf = clone.getFeatureTree("49999").get();
+            assertSame(clone.getFeature("49999").get(), leaf.getFeature());
+            assertEquals(
+                    Result.of("49998"), leaf.getParent().get().getFeature().getName());
+        }
+    }
+
+    @Test
+    public void featureModelBuilder() {
+        FeatureModelBuilder builder = new FeatureModelBuilder(Identifiers.newCounterIdentifier(), 4, 1);
+        int root = builder.addFeature("root");
+        int a = builder.addFeature("a");
+        int b = builder.addFeature("b");
+        int c = builder.addFeature("c");
+        int alternative = builder.addGroup(root, 1, 1);
+        builder.addRoot(root)
+                .addChild(root, a)
+                .addChild(root, b, alternative)
+                .addChild(root, c, alternative)
+                .setMandatory(a)
+                .setAttributeValue(b, Attributes.ABSTRACT, true)
+                .addConstraint(Expressions.or(Expressions.literal("a"), Expressions.literal("c")));
+        FeatureModel builtFeatureModel = builder.build();
+
+        assertEquals(4, builtFeatureModel.getNumberOfFeatures());
+        assertEquals(4, builtFeatureModel.getNumberOfTreeFeatures());
+        IFeatureTree rootTree = builtFeatureModel.getRoots().get(0);
+        assertEquals("root", rootTree.getFeature().getName().get());
+        assertEquals(3, rootTree.getChildrenCount());
+        IFeatureTree aTree = rootTree.getChildren().get(0);
+        IFeatureTree bTree = rootTree.getChildren().get(1);
+        assertTrue(aTree.isMandatory());
+        assertTrue(bTree.getGroup().isAlternative());
+        assertTrue(bTree.getFeature().isAbstract());
+        assertSame(bTree, builtFeatureModel.getFeature("b").get().getFeatureTree().get());
+        IFeature cFeature = builtFeatureModel.getFeature("c").get();
+        assertEquals(1, builtFeatureModel.getReferencingConstraints(cFeature).size());
+
+        FeatureModelBuilder duplicateBuilder = new FeatureModelBuilder();
+        duplicateBuilder.addRoot(duplicateBuilder.addFeature("x"));
+        duplicateBuilder.addFeature("x");
+        assertThrows(IllegalArgumentException.class, duplicateBuilder::build);
+
+        FeatureModelBuilder cycleBuilder = new FeatureModelBuilder();
+        int x = cycleBuilder.addFeature("x");
+        int y = cycleBuilder.addFeature("y");
+        cycleBuilder.addChild(x, y).addChild(y, x);
+        assertThrows(IllegalArgumentException.class, cycleBuilder::build);
+
+        FeatureModelBuilder groupBuilder = new FeatureModelBuilder();
+        int z = groupBuilder.addFeature("z");
+        groupBuilder.addRoot(z).addChild(z, groupBuilder.addFeature("w"), 1);
+        assertThrows(IllegalArgumentException.class, groupBuilder::build);
+
+        FeatureModelBuilder missingFeatureBuilder = new FeatureModelBuilder();
+        int v = missingFeatureBuilder.addFeature("v");
+        missingFeatureBuilder.addRoot(v).setMandatory(1).setFeatureRange(-1, 0, 1).setGroupRange(v, 1, 1, 1);
+        assertEquals(-1, missingFeatureBuilder.addGroup(2, 1, 1));
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, missingFeatureBuilder::build);
+        assertEquals(4, exception.getMessage().split("\n").length);
+
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    public void featureTreeGroupChildren() {
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        rootTree.mutate().addGroup(1, 1);
+        IFeatureTree a = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a"));
+        IFeatureTree b = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("b"), 1, 1);
+        IFeatureTree c = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("c"), 2, 1);
+        assertEquals(List.of(a), rootTree.getGroupChildren(0));
+        assertEquals(List.of(b, c), rootTree.getGroupChildren(1));
+        assertSame(rootTree.getGroupChildren(1), b.getGroupSiblings());
+        assertEquals(List.of(), rootTree.getGroupChildren(2));
+        assertThrows(UnsupportedOperationException.class, () -> rootTree.getGroupChildren(1).clear());
+
+        a.mutate().setGroupID(1);
+        assertEquals(List.of(), rootTree.getGroupChildren(0));
+        assertEquals(List.of(a, b, c), rootTree.getGroupChildren(1));
+        rootTree.mutate().removeChild(b);
+        assertEquals(List.of(a, c), c.getGroupSiblings());
+        assertEquals(List.of(rootTree), rootTree.getGroupSiblings());
+
+        List<IFeatureTree> groupChildren = rootTree.getGroupChildren(1);
+        IFeatureTree d = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("d"), 1, 1);
+        IFeatureTree e = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("e"), 0);
+        assertEquals(List.of(a, d, c), groupChildren);
+        assertEquals(List.of(e), rootTree.getGroupChildren(0));
+        IFeatureTree f = new FeatureTree(featureModel.mutate().addFeature("f"));
+        rootTree.mutate().replaceChild(d, f);
+        assertEquals(List.of(a, c), groupChildren);
+        assertEquals(List.of(e, f), rootTree.getGroupChildren(0));
+        f.mutate().setGroupID(1);
+        assertEquals(List.of(a, f, c), groupChildren);
+        rootTree.mutate().setGroups(List.of(new Group(0, Range.OPEN)));
+        assertEquals(List.of(), rootTree.getGroupChildren(1));
+        rootTree.mutate().addGroup(1, 1);
+        assertEquals(List.of(a, f, c), rootTree.getGroupChildren(1));
+    }
+
+    @Test
+    public void concurrentFeatureModel() throws InterruptedException {
+        FeatureModel original = new FeatureModel(Identifiers.newCounterIdentifier());
+        original.addFeatureTreeRoot(original.addFeature("root"));
+        ConcurrentFeatureModel concurrentFeatureModel = new ConcurrentFeatureModel(original);
+        IFeatureModel initialSnapshot = concurrentFeatureModel.getSnapshot();
+
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                String name = "feature" + i;
+                concurrentFeatureModel.mutate(featureModel -> featureModel
+                        .getRoots()
+                        .get(0)
+                        .mutate()
+                        .addFeatureBelow(featureModel.addFeature(name)));
+            }
+        });
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 1000; j++) {
+                        IFeatureModel snapshot = concurrentFeatureModel.getSnapshot();
+                        int numberOfFeatures = snapshot.getNumberOfFeatures();
+                        assertEquals(numberOfFeatures, snapshot.getNumberOfTreeFeatures());
+                        assertEquals(
+                                numberOfFeatures - 1,
+                                snapshot.getRoots().get(0).getChildrenCount());
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+            readers[i].start();
+        }
+        writer.start();
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertEquals(List.of(), errors);
+
+        assertEquals(100, concurrentFeatureModel.getVersion());
+        assertEquals(101, concurrentFeatureModel.getSnapshot().getNumberOfFeatures());
+        assertEquals(1, initialSnapshot.getNumberOfFeatures());
+        assertEquals(1, original.getNumberOfFeatures());
+        assertEquals(
+                original.getFeature("root").get().getIdentifier(),
+                concurrentFeatureModel.getSnapshot().getFeature("root").get().getIdentifier());
+
+        FrozenFeatureModel snapshot = concurrentFeatureModel.getSnapshot();
+        assertThrows(UnsupportedOperationException.class, snapshot::mutate);
+        assertThrows(IllegalStateException.class, () -> concurrentFeatureModel.mutate(featureModel -> {
+            featureModel.addFeature("discarded");
+            throw new IllegalStateException();
+        }));
+        assertEquals(100, concurrentFeatureModel.getVersion());
+        assertSame(snapshot, concurrentFeatureModel.getSnapshot());
+        assertTrue(concurrentFeatureModel
+                .mutateAndGet(featureModel -> featureModel.getFeature("discarded"))
+                .isEmpty());
+    }
+
+    @Test
+    public void featureModelJournal() {
+        FeatureModel journaledFeatureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        FeatureModelJournal journal = journaledFeatureModel.getJournal();
+        assertEquals(0, journal.getVersion());
+        assertFalse(journal.isEnabled());
+
+        IFeature root = journaledFeatureModel.addFeature("root");
+        assertEquals(1, journal.getVersion());
+        assertTrue(journal.getChangesSince(0).isEmpty());
+        assertTrue(journal.getChangesSince(1).get().isEmpty());
+        journal.setEnabled(true);
+        IFeatureTree rootTree = journaledFeatureModel.addFeatureTreeRoot(root);
+        long version = journal.getVersion();
+        IFeature child = journaledFeatureModel.addFeature("child");
+        IFeatureTree childTree = rootTree.mutate().addFeatureBelow(child);
+        childTree.mutate().setMandatory();
+        childTree.mutate().setAlternative();
+        child.mutate().setName("renamed");
+        child.mutate().setAbstract();
+        IConstraint constraint = journaledFeatureModel.addConstraint(Expressions.literal("root"));
+        constraint.mutate().setFormula(Expressions.literal("renamed"));
+
+        List<FeatureModelChange> changes = journal.getChangesSince(version).get();
+        assertEquals(
+                List.of(
+                        FeatureModelChange.Type.FEATURE_ADDED,
+                        FeatureModelChange.Type.FEATURE_TREE_ADDED,
+                        FeatureModelChange.Type.FEATURE_RANGE_CHANGED,
+                        FeatureModelChange.Type.GROUPS_CHANGED,
+                        FeatureModelChange.Type.FEATURE_RENAMED,
+                        FeatureModelChange.Type.ATTRIBUTE_CHANGED,
+                        FeatureModelChange.Type.CONSTRAINT_ADDED,
+                        FeatureModelChange.Type.FORMULA_CHANGED),
+                changes.stream().map(FeatureModelChange::getType).collect(Collectors.toList()));
+        assertEquals(version + changes.size(), journal.getVersion());
+        assertSame(childTree, changes.get(1).getElement());
+        assertSame(rootTree, changes.get(1).getParentTree().get());
+        assertEquals(0, changes.get(1).getIndex());
+        assertEquals("child", changes.get(4).getOldValue());
+        assertEquals("renamed", changes.get(4).getNewValue());
+        assertEquals(Attributes.ABSTRACT, changes.get(5).getAttribute().get());
+        assertTrue(journal.getChangesSince(journal.getVersion()).get().isEmpty());
+
+        journal.setCapacity(2);
+        assertTrue(journal.getChangesSince(version).isEmpty());
+        assertEquals(1, journal.getChangesSince(journal.getVersion() - 1).get().size());
+        assertEquals(0, journaledFeatureModel.clone().getJournal().getVersion());
+        assertFalse(journaledFeatureModel.clone().getJournal().isEnabled());
+
+        journal.setEnabled(false);
+        child.mutate().setType(Integer.class);
+        assertTrue(journal.getChangesSince(journal.getVersion() - 1).isEmpty());
+    }
+
+    @Test
+    public void featureModelTransaction() {
+        FeatureModel transactionalFeatureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeature root = transactionalFeatureModel.addFeature("root");
+        IFeatureTree rootTree = transactionalFeatureModel.addFeatureTreeRoot(root);
+        IFeature a = transactionalFeatureModel.addFeature("a");
+        IFeatureTree aTree = rootTree.mutate().addFeatureBelow(a);
+        IFeature b = transactionalFeatureModel.addFeature("b");
+        IFeatureTree bTree = rootTree.mutate().addFeatureBelow(b);
+        IConstraint constraint = transactionalFeatureModel.addConstraint(Expressions.literal("a"));
+        constraint.mutate().setDescription("description");
+        String printedFeatureModel = transactionalFeatureModel.toString();
+        Class<?> type = a.getType();
+
+        transactionalFeatureModel.begin();
+        IFeature c = transactionalFeatureModel.addFeature("c");
+        aTree.mutate().addFeatureBelow(c);
+        rootTree.mutate().removeChild(bTree);
+        aTree.mutate().addChild(bTree);
+        rootTree.mutate().addGroup(1, 1);
+        aTree.mutate().setGroupID(1);
+        aTree.mutate().setMandatory();
+        a.mutate().setName("renamed");
+        a.mutate().setAbstract();
+        a.mutate().setType(Integer.class);
+        constraint.mutate().setFormula(Expressions.literal("c"));
+        constraint.mutate().setDescription("changed");
+        constraint.mutate().setTags(new LinkedHashSet<>(List.of("tag")));
+        constraint.mutate().addTag("other");
+        b.mutate().setDescription("changed");
+        transactionalFeatureModel.removeConstraint(constraint);
+        transactionalFeatureModel.removeFeature(b);
+        transactionalFeatureModel.mutate().setName("transaction");
+
+        transactionalFeatureModel.begin();
+        transactionalFeatureModel.removeFeature(c);
+        transactionalFeatureModel.rollback();
+        assertSame(c, transactionalFeatureModel.getFeature("c").get());
+        transactionalFeatureModel.rollback();
+
+        assertEquals(printedFeatureModel, transactionalFeatureModel.toString());
+        assertEquals(3, transactionalFeatureModel.getNumberOfFeatures());
+        assertTrue(transactionalFeatureModel.getFeature("c").isEmpty());
+        assertSame(a, transactionalFeatureModel.getFeature("a").get());
+        assertSame(b, transactionalFeatureModel.getFeature("b").get());
+        assertFalse(a.isAbstract());
+        assertSame(type, a.getType());
+        assertEquals(List.of(aTree, bTree), rootTree.getChildren());
+        assertSame(rootTree, bTree.getParent().get());
+        assertEquals(1, rootTree.getGroups().size());
+        assertEquals(0, aTree.getGroupID());
+        assertTrue(aTree.isOptional());
+        assertSame(constraint, transactionalFeatureModel.getConstraints().iterator().next());
+        assertEquals(Set.of(a), constraint.getReferencedFeatures());
+        assertTrue(constraint.getTags().isEmpty());
+        assertFalse(constraint.getAttributes().get().containsKey(Attributes.TAGS));
+        assertEquals("description", constraint.getDescription().get());
+        assertTrue(b.getDescription().isEmpty());
+        assertEquals(Set.of(constraint), transactionalFeatureModel.getReferencingConstraints(a));
+        assertEquals("@1", transactionalFeatureModel.getName().get());
+
+        transactionalFeatureModel.begin();
+        transactionalFeatureModel.addFeature("d");
+        transactionalFeatureModel.commit();
+        assertTrue(transactionalFeatureModel.getFeature("d").isPresent());
+        assertThrows(IllegalStateException.class, transactionalFeatureModel::rollback);
+        assertFalse(transactionalFeatureModel.getJournal().isEnabled());
+    }
+
+    @Test
+    public void featureModelSlice() {
+        FeatureModelBuilder builder = new FeatureModelBuilder(Identifiers.newCounterIdentifier(), 8, 2);
+        int root = builder.addFeature("root");
+        int a = builder.addFeature("a");
+        int b = builder.addFeature("b");
+        int c = builder.addFeature("c");
+        int d = builder.addFeature("d");
+        int e = builder.addFeature("e");
+        int f = builder.addFeature("f");
+        int g = builder.addFeature("g");
+        int alternative = builder.addGroup(a, 1, 1);
+        builder.addRoot(root)
+                .setMandatory(root)
+                .addChild(root, a)
+                .setMandatory(a)
+                .addChild(a, b, alternative)
+                .addChild(a, c, alternative)
+                .addChild(a, d, alternative)
+                .addChild(root, e)
+                .addChild(e, f)
+                .setMandatory(f)
+                .addChild(e, g)
+                .addConstraint(new Implies(Expressions.literal("b"), Expressions.literal("f")))
+                .addConstraint(new Implies(Expressions.literal("c"), Expressions.literal("g")));
+        FeatureModel originalFeatureModel = builder.build();
+        List<IFeature> keptFeatures = Stream.of("root", "b", "c", "f")
+                .map(name -> originalFeatureModel.getFeature(name).get())
+                .collect(Collectors.toList());
+
+        keptFeatures.get(2).mutate().setAbstract(true);
+        FeatureModel slicedFeatureModel = originalFeatureModel.slice(keptFeatures);
+        assertEquals(8, originalFeatureModel.getNumberOfFeatures());
+        assertEquals(4, slicedFeatureModel.getNumberOfFeatures());
+        assertEquals(4, slicedFeatureModel.featureAttributeStore.getNumberOfIndices());
+        assertEquals(
+                List.of(0, 1, 2, 3),
+                slicedFeatureModel.getFeatures().stream()
+                        .map(feature -> ((Feature) feature).getIndex())
+                        .collect(Collectors.toList()));
+        assertTrue(slicedFeatureModel.getFeature("c").get().isAbstract());
+        assertFalse(slicedFeatureModel.getFeature("f").get().isAbstract());
+        assertEquals(
+                keptFeatures.get(1).getIdentifier(),
+                slicedFeatureModel.getFeature("b").get().getIdentifier());
+        IFeatureTree rootTree = slicedFeatureModel.getRoots().get(0);
+        assertTrue(rootTree.isMandatory());
+        assertEquals(
+                List.of("b", "c", "f"),
+                rootTree.getChildren().stream()
+                        .map(tree -> tree.getFeature().getName().get())
+                        .collect(Collectors.toList()));
+        IFeatureTree bTree = rootTree.getChildren().get(0);
+        IFeatureTree fTree = rootTree.getChildren().get(2);
+        assertEquals(List.of(bTree, rootTree.getChildren().get(1)), bTree.getGroupSiblings());
+        assertEquals(0, bTree.getGroup().getLowerBound());
+        assertEquals(1, bTree.getGroup().getUpperBound());
+        assertTrue(fTree.getGroup().isAnd());
+        assertFalse(fTree.isMandatory());
+        assertEquals(1, slicedFeatureModel.getNumberOfConstraints());
+        assertEquals(
+                1,
+                slicedFeatureModel
+                        .getReferencingConstraints(fTree.getFeature())
+                        .size());
+
+        FeatureModel rootlessFeatureModel = originalFeatureModel.slice(List.of(
+                originalFeatureModel.getFeature("b").get(),
+                originalFeatureModel.getFeature("g").get()));
+        assertEquals(2, rootlessFeatureModel.getRoots().size());
+        assertEquals(0, rootlessFeatureModel.getNumberOfConstraints());
+
+        FeatureModel otherFeatureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeature otherFeature = otherFeatureModel.mutate().addFeature("b");
+        assertThrows(IllegalArgumentException.class, () -> originalFeatureModel.slice(List.of(otherFeature)));
+    }
+
+    @Test
+    public void featureTreeCursor() {
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        IFeatureTree a = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a"));
+        IFeatureTree b = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("b"));
+        IFeatureTree c = a.mutate().addFeatureBelow(featureModel.mutate().addFeature("c"));
+        IFeatureTree d = a.mutate().addFeatureBelow(featureModel.mutate().addFeature("d"));
+        List<IFeatureTree> preOrder = new ArrayList<>();
+        featureModel.forEachFeatureTree(FeatureTreeCursor.Order.PRE_ORDER, preOrder::add);
+        assertEquals(List.of(rootTree, a, c, d, b), preOrder);
+        List<IFeatureTree> postOrder = new ArrayList<>();
+        featureModel.forEachFeatureTree(FeatureTreeCursor.Order.POST_ORDER, postOrder::add);
+        assertEquals(List.of(c, d, a, b, rootTree), postOrder);
+        List<IFeatureTree> levelOrder = new ArrayList<>();
+        featureModel.getFeatureTreeCursor(FeatureTreeCursor.Order.LEVEL_ORDER).forEachRemaining(levelOrder::add);
+        assertEquals(List.of(rootTree, a, b, c, d), levelOrder);
+        assertEquals(List.of(rootTree, a, c, d, b), featureModel.getFeatureTreeStream().collect(Collectors.toList()));
+        assertSame(d, featureModel.getFeatureTree("d").get());
+
+        FeatureTreeCursor cursor = new FeatureTreeCursor(a, FeatureTreeCursor.Order.POST_ORDER);
+        assertSame(c, cursor.next());
+        cursor.reset(List.of(b));
+        assertSame(b, cursor.next());
+        assertFalse(cursor.hasNext());
+        assertThrows(NoSuchElementException.class, cursor::next);
+
+        FeatureModelBuilder builder = new FeatureModelBuilder(Identifiers.newCounterIdentifier(), 100_000, 0);
+        builder.addRoot(builder.addFeature("0"));
+        for (int i = 1; i < 50_000; i++) {
+            builder.addChild(i - 1, builder.addFeature(String.valueOf(i)));
+        }
+        for (int i = 50_000; i < 100_000; i++) {
+            builder.addChild(49_999, builder.addFeature(String.valueOf(i)));
+        }
+        FeatureModel largeFeatureModel = builder.build();
+        for (FeatureTreeCursor.Order order : FeatureTreeCursor.Order.values()) {
+            int[] count = new int[1];
+            largeFeatureModel.forEachFeatureTree(order, tree -> count[0]++);
+            assertEquals(100_000, count[0]);
+        }
+    }
+
+    @Test
+    public void featureTreeIndex() {
+        IFeatureTree rootTree = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        IFeatureTree a = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("a"));
+        IFeatureTree b = rootTree.mutate().addFeatureBelow(featureModel.mutate().addFeature("b"));
+        IFeatureTree c = a.mutate().addFeatureBelow(featureModel.mutate().addFeature("c"));
+        IFeatureTree d = a.mutate().addFeatureBelow(featureModel.mutate().addFeature("d"));
+        IFeatureTree x = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("x"));
+        IFeature unattached = featureModel.mutate().addFeature("unattached");
+
+        FeatureTreeIndex index = featureModel.getFeatureTreeIndex();
+        assertSame(index, featureModel.getFeatureTreeIndex());
+        assertEquals(6, index.size());
+        assertTrue(index.isAncestor(rootTree.getFeature(), c.getFeature()));
+        assertTrue(index.isAncestor(a.getFeature(), d.getFeature()));
+        assertFalse(index.isAncestor(a.getFeature(), b.getFeature()));
+        assertFalse(index.isAncestor(c.getFeature(), c.getFeature()));
+        assertFalse(index.isAncestor(c.getFeature(), a.getFeature()));
+        assertFalse(index.isAncestor(unattached, c.getFeature()));
+        assertEquals(2, index.getDepth(c.getFeature()));
+        assertEquals(0, index.getDepth(x.getFeature()));
+        assertSame(rootTree.getFeature(), index.getRoot(d.getFeature()));
+        assertSame(a.getFeature(), index.getLowestCommonAncestor(c.getFeature(), d.getFeature()).get());
+        assertSame(rootTree.getFeature(), index.getLowestCommonAncestor(d.getFeature(), b.getFeature()).get());
+        assertSame(a.getFeature(), index.getLowestCommonAncestor(c.getFeature(), a.getFeature()).get());
+        assertSame(x.getFeature(), index.getLowestCommonAncestor(x.getFeature(), x.getFeature()).get());
+        assertTrue(index.getLowestCommonAncestor(c.getFeature(), x.getFeature()).isEmpty());
+        assertTrue(index.getLowestCommonAncestor(c.getFeature(), unattached).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.getDepth(unattached));
+
+        rootTree.mutate().removeChild(b);
+        c.mutate().addChild(b);
+        FeatureTreeIndex newIndex = featureModel.getFeatureTreeIndex();
+        assertNotSame(index, newIndex);
+        assertEquals(3, newIndex.getDepth(b.getFeature()));
+        assertSame(a.getFeature(), newIndex.getLowestCommonAncestor(b.getFeature(), d.getFeature()).get());
+        assertTrue(newIndex.isAncestor(c.getFeature(), b.getFeature()));
+    }
+
+    private static FeatureModel createStructuralHashFeatureModel(boolean reverseConstraints) {
+        FeatureModel hashedFeatureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeatureTree rootTree = hashedFeatureModel.addFeatureTreeRoot(hashedFeatureModel.addFeature("root"));
+        rootTree.mutate().setMandatory();
+        IFeatureTree a = rootTree.mutate().addFeatureBelow(hashedFeatureModel.addFeature("a"));
+        a.mutate().addFeatureBelow(hashedFeatureModel.addFeature("b"));
+        a.mutate().addFeatureBelow(hashedFeatureModel.addFeature("c")).mutate().setAlternative();
+        a.mutate().addGroup(1, 2);
+        List<String> constraints = reverseConstraints ? List.of("c", "b") : List.of("b", "c");
+        constraints.forEach(name -> hashedFeatureModel.addConstraint(Expressions.literal(name)));
+        return hashedFeatureModel;
+    }
+
+    @Test
+    public void structuralHash() {
+        FeatureModel featureModel1 = createStructuralHashFeatureModel(false);
+        FeatureModel featureModel2 = createStructuralHashFeatureModel(true);
+        assertNotEquals(featureModel1.getIdentifier(), featureModel2.getIdentifier());
+        assertEquals(featureModel1.getStructuralHash(), featureModel2.getStructuralHash());
+        FeatureTree a1 = (FeatureTree) featureModel1.getFeatureTree("a").get();
+        FeatureTree a2 = (FeatureTree) featureModel2.getFeatureTree("a").get();
+        assertEquals(a1.getStructuralHash(), a2.getStructuralHash());
+        long hash = featureModel1.getStructuralHash();
+
+        FeatureTree b1 = (FeatureTree) featureModel1.getFeatureTree("b").get();
+        long bHash = b1.getStructuralHash();
+        featureModel1.getFeatureTree("c").get().mutate().setMandatory();
+        assertNotEquals(hash, featureModel1.getStructuralHash());
+        assertEquals(bHash, b1.getStructuralHash());
+        featureModel1.getFeatureTree("c").get().mutate().setOptional();
+        assertEquals(hash, featureModel1.getStructuralHash());
+
+        b1.getFeature().mutate().setName("renamed");
+        assertNotEquals(hash, featureModel1.getStructuralHash());
+        b1.getFeature().mutate().setName("b");
+        assertEquals(hash, featureModel1.getStructuralHash());
+
+        b1.mutate().setGroupID(1);
+        assertNotEquals(hash, featureModel1.getStructuralHash());
+        b1.mutate().setGroupID(0);
+        assertEquals(hash, featureModel1.getStructuralHash());
+
+        IConstraint constraint = featureModel1.getConstraints().iterator().next();
+        constraint.mutate().setFormula(Expressions.literal("a"));
+        assertNotEquals(hash, featureModel1.getStructuralHash());
+        constraint.mutate().setFormula(Expressions.literal("b"));
+        assertEquals(hash, featureModel1.getStructuralHash());
+        assertEquals(hash, featureModel1.cloneSharingValues().getStructuralHash());
+    }
+
+    @Test
+    public void duplicateConstraints() {
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        featureModel.addFeature("a");
+        featureModel.addFeature("b");
+        featureModel.addFeature("c");
+        IConstraint constraint1 =
+                featureModel.addConstraint(Expressions.or(Expressions.literal("a"), Expressions.literal("b")));
+        IConstraint constraint2 =
+                featureModel.addConstraint(Expressions.or(Expressions.literal("a"), Expressions.literal("b")));
+        assertNotSame(constraint1.getFormula(), constraint2.getFormula());
+        assertEquals(List.of(List.of(constraint1, constraint2)), featureModel.getDuplicateConstraints());
+
+        IConstraint constraint3 =
+                featureModel.addConstraint(Expressions.or(Expressions.literal("b"), Expressions.literal("a")));
+        assertSame(
+                constraint1,
+                featureModel
+                        .getEquivalentConstraint(Expressions.or(Expressions.literal("b"), Expressions.literal("a")))
+                        .get());
+        assertTrue(featureModel
+                .addConstraintIfAbsent(Expressions.or(Expressions.literal("a"), Expressions.literal("b")))
+                .isEmpty());
+        assertEquals(3, featureModel.getNumberOfConstraints());
+        assertEquals(List.of(List.of(constraint1, constraint2, constraint3)), featureModel.getDuplicateConstraints());
+
+        constraint2.mutate().setFormula(Expressions.literal("c"));
+        featureModel.removeConstraint(constraint3);
+        assertEquals(List.of(), featureModel.getDuplicateConstraints());
+        assertTrue(featureModel.addConstraintIfAbsent(Expressions.literal("c")).isEmpty());
+        assertTrue(featureModel.addConstraintIfAbsent(Expressions.literal("a")).isPresent());
+        assertEquals(List.of(), featureModel.cloneSharingValues().getDuplicateConstraints());
+
+        IConstraint constraint4 = featureModel.addConstraint(new Implies(
+                new Not(new And(List.<IFormula>of(Expressions.literal("a"), Expressions.literal("b")))),
+                Expressions.or(Expressions.literal("b"), Expressions.literal("c"))));
+        assertSame(
+                constraint4,
+                featureModel
+                        .getEquivalentConstraint(new Implies(
+                                new Not(new And(List.<IFormula>of(Expressions.literal("b"), Expressions.literal("a")))),
+                                Expressions.or(Expressions.literal("c"), Expressions.literal("b"))))
+                        .get());
+        assertTrue(featureModel
+                .getEquivalentConstraint(new Implies(
+                        Expressions.or(Expressions.literal("b"), Expressions.literal("c")),
+                        new Not(new And(List.<IFormula>of(Expressions.literal("a"), Expressions.literal("b"))))))
+                .isEmpty());
+    }
 }
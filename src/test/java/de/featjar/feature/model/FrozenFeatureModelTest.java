@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.connective.Implies;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link FrozenFeatureModel}.
+ */
+public class FrozenFeatureModelTest {
+
+    @Test
+    public void frozenFeatureModel() {
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeature root = featureModel.addFeature("root");
+        IFeature a = featureModel.addFeature("a");
+        IFeature b = featureModel.addFeature("b");
+        IFeature c = featureModel.addFeature("c");
+        IFeature unused = featureModel.addFeature("unused");
+        IFeatureTree rootTree = featureModel.addFeatureTreeRoot(root);
+        rootTree.mutate().addFeatureBelow(a).mutate().addFeatureBelow(c);
+        rootTree.mutate().addGroup(1, 1);
+        rootTree.mutate().addFeatureBelow(b, 1, 1);
+        rootTree.getChildren().get(0).mutate().setMandatory();
+
+        FrozenFeatureModel frozenFeatureModel = new FrozenFeatureModel(featureModel);
+        assertEquals(5, frozenFeatureModel.getNumberOfFeatures());
+        assertEquals(4, frozenFeatureModel.getNumberOfTreeFeatures());
+        assertEquals(0, frozenFeatureModel.getIndex(root));
+        assertEquals(1, frozenFeatureModel.getIndex(a));
+        assertEquals(2, frozenFeatureModel.getIndex(c));
+        assertEquals(3, frozenFeatureModel.getIndex(b));
+        assertEquals(4, frozenFeatureModel.getIndex(unused));
+        assertEquals(-1, frozenFeatureModel.getParentIndex(0));
+        assertEquals(0, frozenFeatureModel.getParentIndex(3));
+        assertEquals(2, frozenFeatureModel.getChildrenCount(0));
+        assertEquals(3, frozenFeatureModel.getChildIndex(0, 1));
+        assertEquals(1, frozenFeatureModel.getGroupID(3));
+        assertEquals(2, frozenFeatureModel.getGroupCount(0));
+        assertEquals(1, frozenFeatureModel.getGroupUpperBound(0, 1));
+        assertEquals(1, frozenFeatureModel.getFeatureRangeLowerBound(1));
+
+        IFeature frozenB = frozenFeatureModel.getFeature("b").get();
+        assertNotSame(b, frozenB);
+        assertEquals(b.getIdentifier(), frozenB.getIdentifier());
+        assertSame(frozenFeatureModel, frozenB.getFeatureModel());
+        assertSame(frozenFeatureModel.getFeature(3), frozenB);
+        assertTrue(frozenFeatureModel.getFeatureTree(unused).isEmpty());
+        assertTrue(frozenFeatureModel.getFeature(4).getFeatureTree().isEmpty());
+        IFeatureTree frozenTree = frozenFeatureModel.getFeatureTree(b).get();
+        assertSame(frozenTree, frozenB.getFeatureTree().get());
+        assertSame(frozenB, frozenTree.getFeature());
+        assertEquals(root.getIdentifier(), frozenTree.getParent().get().getFeature().getIdentifier());
+        assertTrue(frozenTree.getGroup().isAlternative());
+        assertEquals(
+                List.of(root.getIdentifier(), a.getIdentifier(), c.getIdentifier(), b.getIdentifier()),
+                frozenFeatureModel
+                        .getFeatureTreeStream()
+                        .map(tree -> tree.getFeature().getIdentifier())
+                        .collect(Collectors.toList()));
+        assertThrows(UnsupportedOperationException.class, frozenB::mutate);
+        assertThrows(UnsupportedOperationException.class, frozenFeatureModel::mutate);
+
+        IFeatureTree frozenRoot = frozenFeatureModel.getRoots().get(0);
+        assertSame(frozenRoot, frozenTree.getParent().get());
+        assertSame(frozenRoot.getChildren(), frozenRoot.getChildren());
+        assertSame(frozenRoot.getGroups(), frozenRoot.getGroups());
+        assertEquals(List.of(frozenTree), frozenRoot.getGroupChildren(1));
+        assertSame(frozenRoot.getGroupChildren(1), frozenTree.getGroupSiblings());
+        assertEquals(List.of(), frozenRoot.getGroupChildren(2));
+    }
+
+    @Test
+    public void frozenFeatureModelCopiesFeaturesAndConstraints() {
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeature root = featureModel.addFeature("root");
+        IFeature a = featureModel.addFeature("a");
+        featureModel.addFeatureTreeRoot(root).mutate().addFeatureBelow(a);
+        IConstraint constraint = featureModel.addConstraint(new Implies(Expressions.literal("a"), Expressions.literal("root")));
+        constraint.mutate().addTag("tag");
+
+        FrozenFeatureModel frozenFeatureModel = new FrozenFeatureModel(featureModel);
+        a.mutate().setName("renamed");
+        a.mutate().setAbstract(true);
+        constraint.mutate().addTag("other");
+
+        IFeature frozenA = frozenFeatureModel.getFeature(1);
+        assertEquals("a", frozenA.getName().get());
+        assertFalse(frozenA.isAbstract());
+        assertTrue(frozenFeatureModel.getFeature("renamed").isEmpty());
+
+        IConstraint frozenConstraint = frozenFeatureModel.getConstraints().iterator().next();
+        assertNotSame(constraint, frozenConstraint);
+        assertSame(frozenFeatureModel, frozenConstraint.getFeatureModel());
+        assertSame(constraint.getFormula(), frozenConstraint.getFormula());
+        assertEquals(Set.of("tag"), frozenConstraint.getTags());
+        frozenConstraint.getTags().add("ignored");
+        assertEquals(Set.of("tag"), frozenConstraint.getTags());
+        assertEquals(
+                new LinkedHashSet<>(List.of(frozenA, frozenFeatureModel.getFeature(0))),
+                frozenConstraint.getReferencedFeatures());
+        assertEquals(Set.of(frozenConstraint), frozenA.getReferencingConstraints());
+        assertThrows(UnsupportedOperationException.class, frozenConstraint::mutate);
+    }
+
+    @Test
+    public void frozenFeatureModelSharesNodesBetweenThreads() throws InterruptedException {
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeatureTree rootTree = featureModel.addFeatureTreeRoot(featureModel.addFeature("root"));
+        for (int i = 0; i < 100; i++) {
+            rootTree.mutate().addFeatureBelow(featureModel.addFeature("feature" + i));
+        }
+        FrozenFeatureModel frozenFeatureModel = new FrozenFeatureModel(featureModel);
+
+        IFeatureTree[][] seen = new IFeatureTree[4][];
+        Thread[] threads = new Thread[seen.length];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> seen[thread] = frozenFeatureModel.getFeatureTreeStream()
+                    .toArray(IFeatureTree[]::new));
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (IFeatureTree[] trees : seen) {
+            assertEquals(101, trees.length);
+            for (int i = 0; i < trees.length; i++) {
+                assertSame(seen[0][i], trees[i]);
+            }
+        }
+    }
+}
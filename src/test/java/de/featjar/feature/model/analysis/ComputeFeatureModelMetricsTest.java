@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.FeatureModelBuilder;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.connective.Implies;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ComputeFeatureModelMetrics}.
+ */
+public class ComputeFeatureModelMetricsTest {
+
+    @Test
+    public void featureModelMetrics() {
+        FeatureModelBuilder builder = new FeatureModelBuilder(Identifiers.newCounterIdentifier(), 10, 2);
+        int root = builder.addFeature("root");
+        int alternative = builder.addGroup(root, 1, 1);
+        int cardinality = builder.addGroup(root, 1, 2);
+        builder.addRoot(root);
+        int a = builder.addFeature("a");
+        builder.addChild(root, a).setMandatory(a);
+        builder.addChild(root, builder.addFeature("b"));
+        int c = builder.addFeature("c");
+        builder.addChild(root, c, alternative);
+        builder.addChild(root, builder.addFeature("d"), alternative);
+        builder.addChild(root, builder.addFeature("e"), cardinality);
+        builder.addChild(root, builder.addFeature("f"), cardinality);
+        builder.addChild(root, builder.addFeature("g"), cardinality);
+        builder.addChild(c, builder.addFeature("h"));
+        builder.addFeature("unattached");
+        builder.addConstraint(new Implies(Expressions.literal("c"), Expressions.literal("h")));
+        builder.addConstraint(Expressions.literal("a"));
+        FeatureModelMetrics metrics = ComputeFeatureModelMetrics.computeMetrics(builder.build());
+
+        assertEquals(10, metrics.getNumberOfFeatures());
+        assertEquals(9, metrics.getNumberOfTreeFeatures());
+        assertEquals(1, metrics.getNumberOfRoots());
+        assertEquals(7, metrics.getNumberOfLeaves());
+        assertEquals(2, metrics.getNumberOfInnerFeatures());
+        assertEquals(2, metrics.getMaximumDepth());
+        assertEquals(1.0, metrics.getAverageDepth());
+        assertEquals(7, metrics.getMaximumBranchingFactor());
+        assertEquals(4.0, metrics.getAverageBranchingFactor());
+        assertEquals(1, metrics.getNumberOfMandatoryFeatures());
+        assertEquals(7, metrics.getNumberOfOptionalFeatures());
+        assertEquals(2, metrics.getNumberOfAndGroups());
+        assertEquals(0, metrics.getNumberOfOrGroups());
+        assertEquals(1, metrics.getNumberOfAlternativeGroups());
+        assertEquals(1, metrics.getNumberOfCardinalityGroups());
+        assertEquals(3, metrics.getNumberOfCardinalityGroupFeatures());
+        assertEquals(2, metrics.getNumberOfConstraints());
+        assertEquals(0.2, metrics.getConstraintToFeatureRatio());
+        assertEquals(2, metrics.getMaximumVariablesPerConstraint());
+        assertEquals(1.5, metrics.getAverageVariablesPerConstraint());
+    }
+
+    @Test
+    public void featureModelMetricsIgnoreChildrenOfRemovedGroups() {
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeatureTree root = featureModel.mutate().addFeatureTreeRoot(featureModel.mutate().addFeature("root"));
+        root.mutate().addGroup(1, 1);
+        root.mutate().addFeatureBelow(featureModel.mutate().addFeature("a"));
+        root.mutate().addFeatureBelow(featureModel.mutate().addFeature("b"), 1, 1);
+        root.mutate().setGroups(List.of(root.getGroups().get(0)));
+        FeatureModelMetrics metrics = ComputeFeatureModelMetrics.computeMetrics(featureModel);
+
+        assertEquals(2, metrics.getNumberOfLeaves());
+        assertEquals(1, metrics.getNumberOfAndGroups());
+        assertEquals(0, metrics.getNumberOfAlternativeGroups());
+    }
+
+    @Test
+    public void parallelFeatureModelMetrics() {
+        int depth = 20_000;
+        int numberOfFeatures = 2 * ComputeFeatureModelMetrics.PARALLEL_THRESHOLD + depth;
+        FeatureModelBuilder builder = new FeatureModelBuilder(Identifiers.newCounterIdentifier(), numberOfFeatures, 0);
+        builder.addRoot(builder.addFeature("0"));
+        for (int i = 1; i < depth; i++) {
+            builder.addChild(i - 1, builder.addFeature(String.valueOf(i)));
+        }
+        for (int i = depth; i < numberOfFeatures; i++) {
+            builder.addChild((i - depth) % depth, builder.addFeature(String.valueOf(i)));
+        }
+        FeatureModel featureModel = builder.build();
+        FeatureModelMetrics metrics = ComputeFeatureModelMetrics.computeMetrics(featureModel);
+
+        assertEquals(numberOfFeatures, metrics.getNumberOfTreeFeatures());
+        assertEquals(numberOfFeatures - depth, metrics.getNumberOfLeaves());
+        assertEquals(depth, metrics.getMaximumDepth());
+        assertEquals(numberOfFeatures - 1, metrics.getNumberOfOptionalFeatures());
+        assertEquals(depth, metrics.getNumberOfAndGroups());
+    }
+}
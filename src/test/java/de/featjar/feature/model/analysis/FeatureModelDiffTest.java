@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.FrozenFeatureModel;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeature;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.feature.model.analysis.FeatureModelEdit.Type;
+import de.featjar.formula.structure.Expressions;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link FeatureModelDiff}.
+ */
+public class FeatureModelDiffTest {
+
+    private static FeatureModel createFeatureModel() {
+        return createFeatureModel(false);
+    }
+
+    private static FeatureModel createFeatureModel(boolean withInsertedFeature) {
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeature insertedFeature = withInsertedFeature ? featureModel.addFeature("inserted") : null;
+        IFeatureTree rootTree = featureModel.addFeatureTreeRoot(featureModel.addFeature("root"));
+        IFeatureTree a = rootTree.mutate().addFeatureBelow(featureModel.addFeature("a"));
+        a.mutate().addFeatureBelow(featureModel.addFeature("c"));
+        rootTree.mutate().addFeatureBelow(featureModel.addFeature("b"));
+        rootTree.mutate().addFeatureBelow(featureModel.addFeature("e"));
+        if (insertedFeature != null) {
+            rootTree.mutate().addFeatureBelow(insertedFeature);
+        }
+        featureModel.addConstraint(Expressions.literal("a"));
+        featureModel.addConstraint(Expressions.literal("b"));
+        return featureModel;
+    }
+
+    private static Set<String> describe(List<FeatureModelEdit> edits) {
+        return edits.stream()
+                .map(edit -> {
+                    Object element = edit.getOldElement().isPresent()
+                            ? edit.getOldElement().get()
+                            : edit.getNewElement().get();
+                    return edit.getType() + " "
+                            + (element instanceof IFeature
+                                    ? ((IFeature) element).getName().get()
+                                    : ((IConstraint) element).getFormula().print());
+                })
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void identicalFeatureModels() {
+        assertEquals(List.of(), FeatureModelDiff.diff(createFeatureModel(), createFeatureModel()));
+        FeatureModel featureModel = createFeatureModel();
+        assertEquals(List.of(), FeatureModelDiff.diff(featureModel, featureModel.cloneSharingValues()));
+        assertEquals(List.of(), FeatureModelDiff.diff(featureModel, featureModel.cloneSharingValues(), true));
+        assertEquals(List.of(), FeatureModelDiff.diff(featureModel, new FrozenFeatureModel(featureModel)));
+        assertEquals(List.of(), FeatureModelDiff.diff(new FrozenFeatureModel(featureModel), createFeatureModel()));
+    }
+
+    @Test
+    public void separatelyCreatedFeatureModels() {
+        FeatureModel oldFeatureModel = createFeatureModel();
+        FeatureModel newFeatureModel = createFeatureModel(true);
+        List<FeatureModelEdit> edits = FeatureModelDiff.diff(oldFeatureModel, newFeatureModel);
+        assertEquals(1, edits.size());
+        assertEquals(Type.FEATURE_ADDED, edits.get(0).getType());
+        assertSame(
+                newFeatureModel.getFeature("inserted").get(),
+                edits.get(0).getNewElement().get());
+    }
+
+    @Test
+    public void featureModelDiff() {
+        FeatureModel oldFeatureModel = createFeatureModel();
+        FeatureModel newFeatureModel = oldFeatureModel.cloneSharingValues();
+        IFeatureTree rootTree = newFeatureModel.getRoots().get(0);
+        IFeatureTree a = newFeatureModel.getFeatureTree("a").get();
+        IFeatureTree b = newFeatureModel.getFeatureTree("b").get();
+        IFeatureTree c = newFeatureModel.getFeatureTree("c").get();
+        IFeatureTree e = newFeatureModel.getFeatureTree("e").get();
+        c.getFeature().mutate().setName("renamed");
+        a.mutate().removeChild(c);
+        b.mutate().addChild(c);
+        b.mutate().setMandatory();
+        rootTree.mutate().addGroup(1, 1);
+        rootTree.mutate().removeChild(e);
+        newFeatureModel.removeFeature(e.getFeature());
+        rootTree.mutate().addFeatureBelow(newFeatureModel.addFeature("d"));
+        List<IConstraint> constraints = List.copyOf(newFeatureModel.getConstraints());
+        constraints.get(0).mutate().setFormula(Expressions.literal("d"));
+        constraints.get(1).mutate().remove();
+        newFeatureModel.addConstraint(Expressions.literal("root"));
+
+        assertEquals(
+                Set.of(
+                        "FEATURE_RENAMED c",
+                        "FEATURE_REMOVED e",
+                        "FEATURE_ADDED d",
+                        "FEATURE_MOVED c",
+                        "FEATURE_RANGE_CHANGED b",
+                        "GROUPS_CHANGED root",
+                        "CONSTRAINT_CHANGED a",
+                        "CONSTRAINT_REMOVED b",
+                        "CONSTRAINT_ADDED root"),
+                describe(FeatureModelDiff.diff(oldFeatureModel, newFeatureModel, true)));
+        assertEquals(
+                Set.of(
+                        "FEATURE_REMOVED c",
+                        "FEATURE_ADDED renamed",
+                        "FEATURE_REMOVED e",
+                        "FEATURE_ADDED d",
+                        "FEATURE_RANGE_CHANGED b",
+                        "GROUPS_CHANGED root",
+                        "CONSTRAINT_REMOVED a",
+                        "CONSTRAINT_REMOVED b",
+                        "CONSTRAINT_ADDED d",
+                        "CONSTRAINT_ADDED root"),
+                describe(FeatureModelDiff.diff(oldFeatureModel, newFeatureModel)));
+    }
+}
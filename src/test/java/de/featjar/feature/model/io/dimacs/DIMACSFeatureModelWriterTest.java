@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.io.dimacs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.FeatureModelBuilder;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.transformer.ClauseList;
+import de.featjar.feature.model.transformer.ComputeClauses;
+import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.connective.Implies;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link DIMACSFeatureModelWriter} and {@link DIMACSFeatureModelFormat}.
+ */
+public class DIMACSFeatureModelWriterTest {
+
+    private static FeatureModel createFeatureModel(int width) {
+        FeatureModelBuilder builder = new FeatureModelBuilder(Identifiers.newCounterIdentifier(), width * 10, 1);
+        int root = builder.addFeature("root");
+        builder.addRoot(root);
+        builder.setMandatory(root);
+        for (int i = 0; i < width; i++) {
+            int child = builder.addFeature("c" + i);
+            builder.addChild(root, child);
+            int alternative = builder.addGroup(child, 1, 1);
+            for (int j = 0; j < 10; j++) {
+                builder.addChild(child, builder.addFeature("c" + i + "_" + j), alternative);
+            }
+        }
+        builder.addConstraint(new Implies(Expressions.literal("c0_0"), Expressions.literal("c1")));
+        return builder.build();
+    }
+
+    private static String print(ClauseList clauseList) {
+        StringBuilder dimacs = new StringBuilder();
+        for (int variable = 1; variable <= clauseList.getNumberOfVariables(); variable++) {
+            int finalVariable = variable;
+            clauseList
+                    .getVariableName(variable)
+                    .ifPresent(name -> dimacs.append("c ")
+                            .append(finalVariable)
+                            .append(' ')
+                            .append(name)
+                            .append('\n'));
+        }
+        dimacs.append("p cnf ")
+                .append(clauseList.getNumberOfVariables())
+                .append(' ')
+                .append(clauseList.getNumberOfClauses())
+                .append('\n');
+        for (int[] clause : clauseList.getClauses()) {
+            for (int literal : clause) {
+                dimacs.append(literal).append(' ');
+            }
+            dimacs.append("0\n");
+        }
+        return dimacs.toString();
+    }
+
+    private static String write(FeatureModel featureModel) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new DIMACSFeatureModelWriter(featureModel).write(outputStream);
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void dimacsFeatureModelWriter() throws IOException {
+        FeatureModel featureModel = createFeatureModel(2);
+        String dimacs = write(featureModel);
+        assertTrue(dimacs.startsWith("c 1 root\nc 2 c0\n"));
+        assertTrue(dimacs.endsWith("-4 3 0\n"));
+        assertEquals(print(ComputeClauses.computeClauses(featureModel)), dimacs);
+    }
+
+    @Test
+    public void largeDimacsFeatureModelWriter() throws IOException {
+        FeatureModel featureModel = createFeatureModel(5000);
+        assertEquals(print(ComputeClauses.computeClauses(featureModel)), write(featureModel));
+    }
+
+    @Test
+    public void dimacsFeatureModelWriterToChannel() throws IOException {
+        FeatureModel featureModel = createFeatureModel(3);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new DIMACSFeatureModelWriter(featureModel).write(Channels.newChannel(outputStream));
+        assertEquals(write(featureModel), new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void dimacsFeatureModelFormat() throws IOException {
+        FeatureModel featureModel = createFeatureModel(2);
+        assertEquals(write(featureModel), new DIMACSFeatureModelFormat().serialize(featureModel).get());
+    }
+
+    @Test
+    public void escapedFeatureNames() throws IOException {
+        FeatureModelBuilder builder = new FeatureModelBuilder(Identifiers.newCounterIdentifier(), 2, 0);
+        int root = builder.addFeature("root\\\r\nx");
+        builder.addRoot(root);
+        builder.addChild(root, builder.addFeature("a\nc 2 b"));
+        String dimacs = write(builder.build());
+        assertTrue(dimacs.startsWith("c 1 root\\\\\\r\\nx\nc 2 a\\nc 2 b\np cnf 2 "));
+    }
+
+    @Test
+    public void featureModelChangedWhileWriting() {
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier()) {
+            private int calls;
+
+            @Override
+            public Collection<IConstraint> getConstraints() {
+                return calls++ == 0 ? List.of() : super.getConstraints();
+            }
+        };
+        featureModel.addFeatureTreeRoot(featureModel.addFeature("root"));
+        featureModel.addFeature("a");
+        featureModel.addConstraint(Expressions.literal("a"));
+        assertThrows(IllegalStateException.class, () -> new DIMACSFeatureModelWriter(featureModel)
+                .write(new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link CardinalityEncoding}.
+ */
+public class CardinalityEncodingTest {
+
+    /**
+     * {@return whether the clauses are satisfiable under a partial assignment, indexed by variable}
+     * Unassigned variables are zero and are restored to zero before returning.
+     */
+    static boolean isSatisfiable(List<int[]> clauses, int[] assignment) {
+        for (int[] clause : clauses) {
+            boolean satisfied = false;
+            int unassignedLiteral = 0;
+            for (int literal : clause) {
+                int value = assignment[Math.abs(literal)];
+                if (value == 0) {
+                    unassignedLiteral = literal;
+                } else if ((value > 0) == (literal > 0)) {
+                    satisfied = true;
+                    break;
+                }
+            }
+            if (!satisfied) {
+                if (unassignedLiteral == 0) {
+                    return false;
+                }
+                int variable = Math.abs(unassignedLiteral);
+                int value = Integer.signum(unassignedLiteral);
+                assignment[variable] = value;
+                boolean satisfiable = isSatisfiable(clauses, assignment);
+                if (!satisfiable) {
+                    assignment[variable] = -value;
+                    satisfiable = isSatisfiable(clauses, assignment);
+                }
+                assignment[variable] = 0;
+                return satisfiable;
+            }
+        }
+        return true;
+    }
+
+    private static void assertEncodes(CardinalityEncoding encoding, int n, int lowerBound, int upperBound) {
+        ClauseList clauseList = new ClauseList();
+        int parent = clauseList.getVariable("parent");
+        int[] variables = new int[n];
+        for (int i = 0; i < n; i++) {
+            variables[i] = clauseList.getVariable("x" + i);
+        }
+        encoding.addCardinalityClauses(parent, variables, lowerBound, upperBound, clauseList);
+        for (int selection = 0; selection < 1 << n; selection++) {
+            int[] assignment = new int[clauseList.getNumberOfVariables() + 1];
+            assignment[parent] = 1;
+            for (int i = 0; i < n; i++) {
+                assignment[variables[i]] = (selection & (1 << i)) != 0 ? 1 : -1;
+            }
+            int count = Integer.bitCount(selection);
+            assertEquals(
+                    lowerBound <= count && count <= upperBound,
+                    isSatisfiable(clauseList.getClauses(), assignment),
+                    String.format("%s with %d of %d in [%d, %d]", encoding, count, n, lowerBound, upperBound));
+        }
+        int[] assignment = new int[clauseList.getNumberOfVariables() + 1];
+        assignment[parent] = -1;
+        for (int variable : variables) {
+            assignment[variable] = -1;
+        }
+        assertTrue(isSatisfiable(clauseList.getClauses(), assignment));
+    }
+
+    @Test
+    public void cardinalityEncodings() {
+        for (CardinalityEncoding encoding : CardinalityEncoding.values()) {
+            assertEncodes(encoding, 8, 1, 1);
+            assertEncodes(encoding, 8, 2, 5);
+            assertEncodes(encoding, 8, 0, 3);
+            assertEncodes(encoding, 9, 1, 8);
+            assertEncodes(encoding, 3, 0, 1);
+        }
+    }
+
+    @Test
+    public void largeAlternativeGroup() {
+        int n = 500;
+        ClauseList clauseList = new ClauseList();
+        int parent = clauseList.getVariable("parent");
+        int[] variables = new int[n];
+        for (int i = 0; i < n; i++) {
+            variables[i] = clauseList.getVariable("x" + i);
+        }
+        CardinalityEncoding.AUTOMATIC.addCardinalityClauses(parent, variables, 1, 1, clauseList);
+        assertTrue(clauseList.getNumberOfClauses() <= 4 * n);
+        assertTrue(clauseList.getNumberOfVariables() <= 2 * n);
+    }
+}
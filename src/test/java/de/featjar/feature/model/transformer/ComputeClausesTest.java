@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.featjar.base.data.Range;
+import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.And;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ComputeClauses}.
+ */
+public class ComputeClausesTest {
+
+    @Test
+    public void computeClauses() {
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeatureTree rootTree = featureModel.addFeatureTreeRoot(featureModel.addFeature("root"));
+        rootTree.mutate().setMandatory();
+        rootTree.mutate().addFeatureBelow(featureModel.addFeature("a")).mutate().setMandatory();
+        rootTree.mutate().addFeatureBelow(featureModel.addFeature("b")).mutate().setFeatureRange(Range.of(0, 0));
+        rootTree.mutate().addGroup(1, 1);
+        rootTree.mutate().addFeatureBelow(featureModel.addFeature("c"), 2, 1);
+        rootTree.mutate().addFeatureBelow(featureModel.addFeature("d"), 3, 1);
+        featureModel.addConstraint(new Implies(
+                Expressions.literal("c"), Expressions.or(Expressions.literal("a"), new Not(Expressions.literal("b")))));
+        featureModel.addConstraint(Expressions.or(
+                new And(List.<IFormula>of(Expressions.literal("a"), Expressions.literal("b"))),
+                new And(List.<IFormula>of(Expressions.literal("c"), Expressions.literal("d")))));
+
+        ClauseList clauseList = ComputeClauses.computeClauses(featureModel);
+        assertEquals(5, clauseList.getNumberOfVariables());
+        assertEquals(4, clauseList.findVariable("c").get());
+        assertEquals("d", clauseList.getVariableName(5).get());
+        assertEquals(
+                List.of(
+                        "[1]", "[-1, 4, 5]", "[-4, -5]", "[-2, 1]", "[-1, 2]", "[-3]", "[-3, 1]", "[-4, 1]", "[-5, 1]",
+                        "[-4, 2, -3]", "[2, 4]", "[2, 5]", "[3, 4]", "[3, 5]"),
+                clauseList.getClauses().stream().map(Arrays::toString).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void auxiliaryVariables() {
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFormula[] conjunctions = new IFormula[8];
+        for (int i = 0; i < conjunctions.length; i++) {
+            featureModel.addFeature("x" + i);
+            featureModel.addFeature("y" + i);
+            conjunctions[i] = new And(List.<IFormula>of(
+                    Expressions.literal("x" + i), Expressions.literal("y" + i)));
+        }
+        featureModel.addConstraint(Expressions.or(conjunctions));
+
+        ClauseList clauseList = ComputeClauses.computeClauses(featureModel);
+        assertTrue(clauseList.getNumberOfVariables() > 16);
+        assertTrue(clauseList.getVariableName(clauseList.getNumberOfVariables()).isEmpty());
+        assertTrue(clauseList.getNumberOfClauses() < 1 << 8);
+        assertTrue(clauseList.getVariableName(clauseList.getNumberOfVariables() + 1).isEmpty());
+        assertTrue(clauseList.getVariableName(0).isEmpty());
+
+        for (int selection = 0; selection < 1 << (2 * conjunctions.length); selection++) {
+            int[] assignment = new int[clauseList.getNumberOfVariables() + 1];
+            boolean satisfied = false;
+            for (int i = 0; i < conjunctions.length; i++) {
+                boolean x = (selection & (1 << (2 * i))) != 0;
+                boolean y = (selection & (1 << (2 * i + 1))) != 0;
+                assignment[clauseList.findVariable("x" + i).get()] = x ? 1 : -1;
+                assignment[clauseList.findVariable("y" + i).get()] = y ? 1 : -1;
+                satisfied |= x && y;
+            }
+            assertEquals(satisfied, CardinalityEncodingTest.isSatisfiable(clauseList.getClauses(), assignment));
+        }
+    }
+
+    @Test
+    public void deeplyNestedFormula() {
+        IFormula formula = Expressions.literal("a");
+        for (int i = 0; i < 50_000; i++) {
+            formula = new And(List.<IFormula>of(new Not(formula), Expressions.literal("b")));
+            formula = new Not(new Not(new Not(formula)));
+        }
+        ClauseList clauseList = new ClauseList();
+        new ClauseConverter(clauseList).addClauses(formula);
+
+        assertEquals(
+                List.of("[1, -2]"),
+                clauseList.getClauses().stream().map(Arrays::toString).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.featjar.base.data.Range;
+import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.FeatureModelBuilder;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.IFormula;
+import de.featjar.formula.structure.connective.Choose;
+import de.featjar.formula.structure.connective.Implies;
+import de.featjar.formula.structure.connective.Not;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ComputeFormula}.
+ */
+public class ComputeFormulaTest {
+
+    private static List<String> getConstraints(IFormula formula) {
+        return getOrderedConstraints(formula).stream().sorted().collect(Collectors.toList());
+    }
+
+    private static List<String> getOrderedConstraints(IFormula formula) {
+        return formula.getChildren().get(0).getChildren().stream()
+                .map(expression -> expression.print())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void computeFormula() {
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeatureTree rootTree = featureModel.addFeatureTreeRoot(featureModel.addFeature("root"));
+        rootTree.mutate().setMandatory();
+        IFeatureTree a = rootTree.mutate().addFeatureBelow(featureModel.addFeature("a"));
+        a.mutate().setMandatory();
+        IFeatureTree b = rootTree.mutate().addFeatureBelow(featureModel.addFeature("b"));
+        b.mutate().setFeatureRange(Range.of(0, 0));
+        rootTree.mutate().addGroup(1, 1);
+        rootTree.mutate().addFeatureBelow(featureModel.addFeature("c"), 2, 1);
+        rootTree.mutate().addFeatureBelow(featureModel.addFeature("d"), 3, 1);
+        featureModel.addConstraint(new Implies(Expressions.literal("c"), Expressions.literal("a")));
+
+        List<String> constraints = getConstraints(ComputeFormula.computeFormula(featureModel));
+        assertEquals(
+                List.of(
+                                Expressions.literal("root"),
+                                new Implies(Expressions.literal("a"), Expressions.literal("root")),
+                                new Implies(Expressions.literal("root"), Expressions.literal("a")),
+                                new Implies(Expressions.literal("b"), Expressions.literal("root")),
+                                new Not(Expressions.literal("b")),
+                                new Implies(Expressions.literal("c"), Expressions.literal("root")),
+                                new Implies(Expressions.literal("d"), Expressions.literal("root")),
+                                new Implies(
+                                        Expressions.literal("root"),
+                                        new Choose(
+                                                1,
+                                                List.<IFormula>of(
+                                                        Expressions.literal("c"), Expressions.literal("d")))),
+                                new Implies(Expressions.literal("c"), Expressions.literal("a")))
+                        .stream()
+                        .map(IFormula::print)
+                        .sorted()
+                        .collect(Collectors.toList()),
+                constraints);
+        assertEquals(getConstraints(new IncrementalFormula(featureModel).get()), constraints);
+    }
+
+    @Test
+    public void parallelComputeFormula() {
+        int width = 200;
+        FeatureModelBuilder builder = new FeatureModelBuilder(Identifiers.newCounterIdentifier(), width * width, 0);
+        int root = builder.addFeature("root");
+        builder.addRoot(root);
+        for (int i = 0; i < width; i++) {
+            int child = builder.addFeature("c" + i);
+            builder.addChild(root, child);
+            int alternative = builder.addGroup(child, 1, 1);
+            for (int j = 0; j < width / 2; j++) {
+                builder.addChild(child, builder.addFeature("c" + i + "_" + j), alternative);
+            }
+        }
+        FeatureModel featureModel = builder.build();
+        assertTrue(featureModel.getNumberOfTreeFeatures() >= ComputeFormula.PARALLEL_THRESHOLD);
+
+        List<String> constraints = getOrderedConstraints(ComputeFormula.computeFormula(featureModel));
+        assertEquals(featureModel.getNumberOfTreeFeatures() - 1 + width, constraints.size());
+        assertEquals(getOrderedConstraints(new IncrementalFormula(featureModel).get()), constraints);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2025 FeatJAR-Development-Team
+ *
+ * This file is part of FeatJAR-feature-model.
+ *
+ * feature-model is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * feature-model is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with feature-model. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-feature-model> for further information.
+ */
+package de.featjar.feature.model.transformer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.featjar.base.data.identifier.Identifiers;
+import de.featjar.feature.model.FeatureModel;
+import de.featjar.feature.model.IConstraint;
+import de.featjar.feature.model.IFeatureTree;
+import de.featjar.formula.structure.Expressions;
+import de.featjar.formula.structure.IFormula;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link IncrementalFormula}.
+ */
+public class IncrementalFormulaTest {
+
+    private static List<String> getConstraints(IFormula formula) {
+        return formula.getChildren().get(0).getChildren().stream()
+                .map(expression -> expression.print())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static void assertEquivalentToRebuild(FeatureModel featureModel, IncrementalFormula formula) {
+        assertEquals(
+                getConstraints(new IncrementalFormula(featureModel).get()), getConstraints(formula.get()));
+        assertEquals(
+                getConstraints(ComputeFormula.computeFormula(featureModel)),
+                formula.getConstraints().stream()
+                        .map(expression -> expression.print())
+                        .sorted()
+                        .collect(Collectors.toList()));
+        assertEquals(featureModel.getNumberOfTreeFeatures(), formula.getVariables().size());
+    }
+
+    @Test
+    public void incrementalFormula() {
+        FeatureModel featureModel = new FeatureModel(Identifiers.newCounterIdentifier());
+        IFeatureTree rootTree = featureModel.addFeatureTreeRoot(featureModel.addFeature("root"));
+        rootTree.mutate().setMandatory();
+        IFeatureTree a = rootTree.mutate().addFeatureBelow(featureModel.addFeature("a"));
+        IFeatureTree b = rootTree.mutate().addFeatureBelow(featureModel.addFeature("b"));
+        IncrementalFormula formula = new IncrementalFormula(featureModel);
+        IFormula initialFormula = formula.get();
+        assertSame(initialFormula, formula.get());
+        assertEquivalentToRebuild(featureModel, formula);
+
+        IFeatureTree c = a.mutate().addFeatureBelow(featureModel.addFeature("c"));
+        a.mutate().addFeatureBelow(featureModel.addFeature("d"));
+        c.mutate().setOr();
+        assertNotSame(initialFormula, formula.get());
+        assertEquivalentToRebuild(featureModel, formula);
+
+        a.getFeature().mutate().setName("renamed");
+        IConstraint constraint = featureModel.addConstraint(Expressions.literal("renamed"));
+        assertEquivalentToRebuild(featureModel, formula);
+
+        rootTree.mutate().removeChild(a);
+        b.mutate().addChild(a);
+        constraint.mutate().setFormula(Expressions.literal("b"));
+        assertEquivalentToRebuild(featureModel, formula);
+
+        b.mutate().removeChild(a);
+        constraint.mutate().remove();
+        assertEquivalentToRebuild(featureModel, formula);
+
+        IFormula untypedFormula = formula.get();
+        b.getFeature().mutate().setType(Integer.class);
+        assertNotSame(untypedFormula, formula.get());
+        assertEquivalentToRebuild(featureModel, formula);
+
+        featureModel.getJournal().setCapacity(1);
+        rootTree.mutate().addFeatureBelow(featureModel.addFeature("e"));
+        assertEquivalentToRebuild(featureModel, formula);
+    }
+}